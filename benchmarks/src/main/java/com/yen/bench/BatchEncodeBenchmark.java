@@ -0,0 +1,86 @@
+package com.yen.bench;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.ChatBatchEncoder;
+import com.yen.server.codec.ProtobufWebSocketEncoder;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次flush写出batch条消息: 每条消息一个帧(ProtobufWebSocketEncoder) vs 合并成一个ChatBatch帧(ChatBatchEncoder)
+ * 结果是每批的耗时,除以batch得到每条消息的开销;帧头与压缩上下文刷新的节省不在这里体现(没有经过WebSocket编码器)
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchEncodeBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int batch;
+
+    private final ChatMessage msg = Messages.text();
+    private EmbeddedChannel single;
+    private EmbeddedChannel batched;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        single = new EmbeddedChannel(new Discard(), new ProtobufWebSocketEncoder());
+        batched = new EmbeddedChannel(new Discard(), new ChatBatchEncoder());
+    }
+
+    @Benchmark
+    public void framePerMessage() {
+        write(single);
+    }
+
+    @Benchmark
+    public void chatBatch() {
+        write(batched);
+    }
+
+    private void write(EmbeddedChannel channel) {
+        for (int i = 0; i < batch; i++) {
+            channel.write(msg, channel.voidPromise());
+        }
+        channel.flush();
+    }
+
+    /**
+     * 代替socket: 丢弃写入的帧
+     */
+    private static final class Discard extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ReferenceCountUtil.release(msg);
+            promise.trySuccess();
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.yen.bench;
+
+import com.yen.server.business.BusinessStage;
+import com.yen.server.business.ExecutionMode;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 业务执行阶段: connections个连接各提交MESSAGES/connections条消息,每条消息的业务逻辑阻塞blockMicros微秒
+ * (模拟一次存储或鉴权调用),等全部处理完成;结果是每条消息的平均耗时(吞吐的倒数)
+ * 虚拟线程相关的模式需要JDK 21,更低版本回退到平台线程
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusinessStageBenchmark {
+
+    private static final int MESSAGES = 4096;
+
+    @Param({"ORDERED_PLATFORM", "ORDERED_VIRTUAL", "VIRTUAL_THREAD_PER_CONNECTION"})
+    public ExecutionMode mode;
+
+    @Param({"0", "100"})
+    public int blockMicros;
+
+    @Param({"64", "1024"})
+    public int connections;
+
+    private BusinessStage stage;
+    private EmbeddedChannel[] channels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stage = mode.newStage();
+        channels = new EmbeddedChannel[connections];
+        for (int i = 0; i < connections; i++) {
+            channels[i] = new EmbeddedChannel();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        stage.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void process() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(MESSAGES);
+        long blockNanos = TimeUnit.MICROSECONDS.toNanos(blockMicros);
+        Runnable task = () -> {
+            if (blockNanos > 0) {
+                LockSupport.parkNanos(blockNanos);
+            } else {
+                Blackhole.consumeCPU(100);
+            }
+            done.countDown();
+        };
+        for (int i = 0; i < MESSAGES; i++) {
+            int c = i % connections;
+            stage.execute(channels[c], c, task);
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,124 @@
+package com.yen.bench;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.ChatMessageV2Decoder;
+import com.yen.server.codec.ProtobufWebSocketDecoder;
+import com.yen.server.codec.ProtobufWebSocketEncoder;
+import com.yen.server.codec.SchemaTranslator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v1与v2消息格式的编解码
+ * v1写出时要把epoch毫秒格式化成字符串时间(旧客户端需要);
+ * v2时间为varint毫秒、类型与状态为枚举,编解码都要在内部的ChatMessage与ChatMessageV2之间转换
+ * 两种格式的编码大小在启动时打印
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecVersionBenchmark {
+
+    private final ChatMessage msg = Messages.text();
+    private final V1Decoder v1Decoder = new V1Decoder();
+    private final V2Decoder v2Decoder = new V2Decoder();
+    private final List<Object> out = new ArrayList<>(1);
+    private ByteBuf v1Bytes;
+    private ByteBuf v2Bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // 客户端发来的v1消息只带字符串时间
+        ChatMessage v1 = SchemaTranslator.toV1(msg).toBuilder().clearSendTimeMillis().build();
+        v1Bytes = ProtobufWebSocketEncoder.encode(PooledByteBufAllocator.DEFAULT, v1);
+        v2Bytes = ProtobufWebSocketEncoder.encode(PooledByteBufAllocator.DEFAULT, SchemaTranslator.toV2(msg));
+        System.out.println("v1: " + v1Bytes.readableBytes() + " bytes, v2: " + v2Bytes.readableBytes() + " bytes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        v1Bytes.release();
+        v2Bytes.release();
+    }
+
+    @Benchmark
+    public int encodeV1() throws IOException {
+        return release(ProtobufWebSocketEncoder.encode(ByteBufAllocator.DEFAULT, SchemaTranslator.toV1(msg)));
+    }
+
+    @Benchmark
+    public int encodeV2() throws IOException {
+        return release(ProtobufWebSocketEncoder.encode(ByteBufAllocator.DEFAULT, SchemaTranslator.toV2(msg)));
+    }
+
+    @Benchmark
+    public Object decodeV1() throws Exception {
+        out.clear();
+        v1Decoder.parse(v1Bytes, out);
+        return out.get(0);
+    }
+
+    @Benchmark
+    public Object decodeV2() throws Exception {
+        out.clear();
+        v2Decoder.parse(v2Bytes, out);
+        return out.get(0);
+    }
+
+    private static int release(ByteBuf buf) {
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    /**
+     * 暴露解码器的parse方法
+     */
+    private static final class V1Decoder extends ProtobufWebSocketDecoder {
+
+        private V1Decoder() {
+            super(ChatMessage.getDefaultInstance());
+        }
+
+        @Override
+        protected void parse(ByteBuf buf, List<Object> out) throws Exception {
+            super.parse(buf, out);
+        }
+    }
+
+    private static final class V2Decoder extends ChatMessageV2Decoder {
+
+        private V2Decoder() {
+            super(false);
+        }
+
+        @Override
+        protected void parse(ByteBuf buf, List<Object> out) throws Exception {
+            super.parse(buf, out);
+        }
+    }
+}
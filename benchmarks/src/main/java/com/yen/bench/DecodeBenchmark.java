@@ -0,0 +1,131 @@
+package com.yen.bench;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.ProtobufWebSocketDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 二进制帧解码: 直接从帧内容解析(单段/组合缓冲区) vs 旧的varint长度前缀帧 vs 经过ByteBufInputStream解析
+ * 组合缓冲区模拟permessage-deflate解压或分片帧聚合后的帧内容;
+ * 分配量用 -prof gc 查看(gc.alloc.rate.norm)
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+
+    /**
+     * single: 单个直接内存缓冲区; composite: 两段直接内存组成的组合缓冲区
+     */
+    @Param({"single", "composite"})
+    public String layout;
+
+    private final Decoder direct = new Decoder(false);
+    private final Decoder lengthPrefixed = new Decoder(true);
+    private final List<Object> out = new ArrayList<>(1);
+
+    private ByteBuf frame;
+    private ByteBuf prefixedFrame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] bytes = Messages.text().toByteArray();
+        frame = layout(bytes);
+        ByteBuf prefixed = Unpooled.buffer();
+        writeVarint32(prefixed, bytes.length);
+        prefixed.writeBytes(bytes);
+        byte[] prefixedBytes = new byte[prefixed.readableBytes()];
+        prefixed.readBytes(prefixedBytes);
+        prefixedFrame = layout(prefixedBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.release();
+        prefixedFrame.release();
+    }
+
+    @Benchmark
+    public Object direct() throws Exception {
+        out.clear();
+        direct.parse(frame, out);
+        return out.get(0);
+    }
+
+    @Benchmark
+    public Object lengthPrefixed() throws Exception {
+        out.clear();
+        lengthPrefixed.parse(prefixedFrame, out);
+        return out.get(0);
+    }
+
+    /**
+     * 改造前的做法: 通过InputStream解析
+     */
+    @Benchmark
+    public Object inputStream() throws Exception {
+        return ChatMessage.parseFrom(new ByteBufInputStream(frame.duplicate()));
+    }
+
+    private ByteBuf layout(byte[] bytes) {
+        PooledByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+        if ("single".equals(layout)) {
+            return alloc.directBuffer(bytes.length).writeBytes(bytes);
+        }
+        int half = bytes.length / 2;
+        CompositeByteBuf composite = alloc.compositeDirectBuffer();
+        composite.addComponent(true, alloc.directBuffer(half).writeBytes(bytes, 0, half));
+        composite.addComponent(true, alloc.directBuffer(bytes.length - half).writeBytes(bytes, half, bytes.length - half));
+        return composite;
+    }
+
+    private static void writeVarint32(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+
+    /**
+     * 暴露解码器的parse方法
+     */
+    private static final class Decoder extends ProtobufWebSocketDecoder {
+
+        private Decoder(boolean lengthPrefixed) {
+            super(ChatMessage.getDefaultInstance(), lengthPrefixed);
+        }
+
+        @Override
+        protected void parse(ByteBuf buf, List<Object> out) throws Exception {
+            super.parse(buf, out);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.yen.bench;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.ProtobufWebSocketEncoder;
+import com.yen.server.codec.SchemaTranslator;
+import com.yen.server.room.LoopMembers;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 群聊扇出(一个EventLoop上的成员): 每个成员各自编码一次 vs 编码一次后共享同一块内存({@link LoopMembers#deliver})
+ * 成员的管道里是真实的编码器,最后由一个丢弃写入的处理器代替socket;分配量用 -prof gc 查看
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FanoutBenchmark {
+
+    @Param({"16", "256", "2048"})
+    public int members;
+
+    private final ChatMessage msg = Messages.text();
+    private EmbeddedChannel[] channels;
+    private LoopMembers local;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        channels = new EmbeddedChannel[members];
+        for (int i = 0; i < members; i++) {
+            channels[i] = new EmbeddedChannel(new Discard(), new ProtobufWebSocketEncoder());
+        }
+        local = new LoopMembers(channels[0].eventLoop());
+        for (EmbeddedChannel channel : channels) {
+            local.add(channel);
+        }
+    }
+
+    /**
+     * 逐个成员writeAndFlush消息对象,每个成员的编码器各编码一次
+     */
+    @Benchmark
+    public void encodePerMember() {
+        for (EmbeddedChannel channel : channels) {
+            channel.write(msg, channel.voidPromise());
+        }
+        for (EmbeddedChannel channel : channels) {
+            channel.flush();
+        }
+    }
+
+    /**
+     * 编码一次,所有成员写入共享帧
+     */
+    @Benchmark
+    public void encodeOnce() throws IOException {
+        ByteBuf payload = ProtobufWebSocketEncoder.encode(ByteBufAllocator.DEFAULT, SchemaTranslator.toV1(msg));
+        local.deliver(payload, msg, null, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * 代替socket: 丢弃写入的帧
+     */
+    private static final class Discard extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ReferenceCountUtil.release(msg);
+            promise.trySuccess();
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+        }
+    }
+}
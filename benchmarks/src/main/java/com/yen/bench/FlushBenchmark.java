@@ -0,0 +1,132 @@
+package com.yen.bench;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.route.OutboundBatch;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个读批次内的投递与确认: 每条消息writeAndFlush vs 加入{@link OutboundBatch}在批次结束时统一flush
+ * 每个读批次里的消息发给targets个接收者,每条消息还要给发送者回复一次确认
+ * 每次flush对应一次write系统调用: 结果中flushes与messages两个计数器的速率之比就是每条消息的系统调用数
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlushBenchmark {
+
+    /**
+     * 一个读批次里的消息数
+     */
+    @Param({"1", "16"})
+    public int batch;
+
+    /**
+     * 接收者数量
+     */
+    @Param({"1", "4"})
+    public int targets;
+
+    private final ChatMessage msg = Messages.text();
+    private EmbeddedChannel sender;
+    private EmbeddedChannel[] receivers;
+    private FlushCounter counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        counter = new FlushCounter();
+        sender = new EmbeddedChannel(counter);
+        receivers = new EmbeddedChannel[targets];
+        for (int i = 0; i < targets; i++) {
+            receivers[i] = new EmbeddedChannel(counter);
+        }
+    }
+
+    @Benchmark
+    public void writeAndFlushEach(Flushes flushes) {
+        for (int i = 0; i < batch; i++) {
+            for (EmbeddedChannel receiver : receivers) {
+                receiver.writeAndFlush(msg, receiver.voidPromise());
+            }
+            sender.writeAndFlush(msg, sender.voidPromise());
+        }
+        flushes.flushes += counter.take();
+        flushes.messages += batch;
+    }
+
+    @Benchmark
+    public void outboundBatch(Flushes flushes) {
+        OutboundBatch out = OutboundBatch.current();
+        for (int i = 0; i < batch; i++) {
+            for (EmbeddedChannel receiver : receivers) {
+                out.write(receiver, msg);
+            }
+            out.write(sender, msg);
+        }
+        // channelReadComplete
+        out.flush();
+        flushes.flushes += counter.take();
+        flushes.messages += batch;
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Flushes {
+        public long flushes;
+        public long messages;
+    }
+
+    /**
+     * 代替socket: 丢弃写入的消息,统计flush次数
+     */
+    private static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+        private long flushes;
+
+        @Override
+        public boolean isSharable() {
+            return true;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ReferenceCountUtil.release(msg);
+            promise.trySuccess();
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes++;
+        }
+
+        private long take() {
+            long n = flushes;
+            flushes = 0;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.yen.bench;
+
+import com.yen.server.idle.SharedIdleStateHandler;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.handler.timeout.IdleStateHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 空闲检测: 每个连接一个IdleStateHandler vs 每个EventLoop一个巡检任务的{@link SharedIdleStateHandler}
+ * 服务端与客户端通过本地传输在同一个EventLoop上连接,与真实服务一样所有连接共用EventLoop
+ * connect: 建立并关闭一个连接(IdleStateHandler要调度并取消三个定时任务),每个连接的堆开销用 -prof gc 查看;
+ * readBurst: 已建立的连接上一个读批次(channelRead + channelReadComplete)经过空闲检测的开销
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdleBenchmark {
+
+    private static final int READS = 1000;
+
+    @Param({"perChannel", "shared"})
+    public String handler;
+
+    private final SharedIdleStateHandler shared = new SharedIdleStateHandler(60, 0, 0, TimeUnit.SECONDS);
+    private final Object msg = new Object();
+    private EventLoopGroup group;
+    private Channel server;
+    private Bootstrap client;
+    private Channel open;
+    private Channel openChild;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        group = new DefaultEventLoopGroup(1);
+        CompletableFuture<Channel> firstChild = new CompletableFuture<>();
+        LocalAddress address = new LocalAddress("idle-bench");
+        server = new ServerBootstrap()
+                .group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        ch.pipeline().addLast(newHandler(), new Sink());
+                        firstChild.complete(ch);
+                    }
+                })
+                .bind(address).sync().channel();
+        client = new Bootstrap()
+                .group(group)
+                .channel(LocalChannel.class)
+                .handler(new Sink())
+                .remoteAddress(address);
+        open = client.connect().sync().channel();
+        openChild = firstChild.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        open.close().syncUninterruptibly();
+        server.close().syncUninterruptibly();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Benchmark
+    public void connect() throws Exception {
+        client.connect().sync().channel().close().sync();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READS)
+    public void readBurst() throws Exception {
+        openChild.eventLoop().submit(() -> {
+            for (int i = 0; i < READS; i++) {
+                openChild.pipeline().fireChannelRead(msg).fireChannelReadComplete();
+            }
+        }).sync();
+    }
+
+    private ChannelHandler newHandler() {
+        return "shared".equals(handler) ? shared : new IdleStateHandler(60, 0, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 吞掉读到的消息
+     */
+    @ChannelHandler.Sharable
+    private static final class Sink extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.yen.bench;
+
+import com.yen.server.id.MessageIdGenerator;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息ID分配: 每个EventLoop独占的分配器({@link MessageIdGenerator#next()}) vs 所有EventLoop共用一把锁的分配器
+ * loops个EventLoop同时各分配IDS个ID,结果是每个EventLoop上分配一个ID的平均耗时
+ * 两者的ID布局和逻辑时钟相同(每毫秒1024个序号,用完借用下一毫秒),区别只在于分配器是否共享;
+ * 多个EventLoop的结果需要在至少loops个核的机器上运行才有意义
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageIdBenchmark {
+
+    private static final int IDS = 10_000;
+    private static final int SEQUENCE_BITS = 10;
+    /**
+     * 节点与分配器编号占用的低位
+     */
+    private static final int LOW_BITS = 12;
+
+    @Param({"1", "4", "16"})
+    public int loops;
+
+    private DefaultEventLoopGroup group;
+    private final Object lock = new Object();
+    private long lastLogical;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        group = new DefaultEventLoopGroup(loops);
+        MessageIdGenerator.bind(group);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public long perLoop() throws Exception {
+        return runOnAllLoops(() -> {
+            long id = 0;
+            for (int i = 0; i < IDS; i++) {
+                id = MessageIdGenerator.next();
+            }
+            return id;
+        });
+    }
+
+    /**
+     * 对照: 所有EventLoop共用一个由锁保护的逻辑时钟
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public long sharedLock() throws Exception {
+        return runOnAllLoops(() -> {
+            long id = 0;
+            for (int i = 0; i < IDS; i++) {
+                long now = (System.currentTimeMillis() - MessageIdGenerator.EPOCH) << SEQUENCE_BITS;
+                synchronized (lock) {
+                    lastLogical = Math.max(now, lastLogical + 1);
+                    id = lastLogical << LOW_BITS;
+                }
+            }
+            return id;
+        });
+    }
+
+    private long runOnAllLoops(Callable<Long> task) throws Exception {
+        List<Future<Long>> futures = new ArrayList<>(loops);
+        for (EventExecutor loop : group) {
+            futures.add(loop.submit(task));
+        }
+        long last = 0;
+        for (Future<Long> future : futures) {
+            last = Math.max(last, future.sync().getNow());
+        }
+        return last;
+    }
+}
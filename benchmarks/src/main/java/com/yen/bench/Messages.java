@@ -0,0 +1,32 @@
+package com.yen.bench;
+
+import com.google.protobuf.ByteString;
+import com.yen.model.constant.MessageType;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+
+/**
+ * 基准测试共用的样例消息
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+final class Messages {
+
+    private Messages() {
+    }
+
+    /**
+     * 一条典型的私聊文本消息(约80字节)
+     */
+    static ChatMessage text() {
+        return ChatMessage.newBuilder()
+                .setId(105055438403272704L)
+                .setFromUserId(12345)
+                .setToUserId(678)
+                .setType(MessageType.TEXT)
+                .setClientSeq(42)
+                .setSendTimeMillis(1760700000000L)
+                .setContent(ByteString.copyFromUtf8("hello, this is a typical chat message of moderate size 你好"))
+                .build();
+    }
+}
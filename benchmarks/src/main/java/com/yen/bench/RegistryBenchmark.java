@@ -0,0 +1,72 @@
+package com.yen.bench;
+
+import com.yen.server.route.UserChannelRegistry;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重连风暴下的路由表: 已有users个在线用户,多个线程同时让随机用户下线再上线(绑定/解绑),
+ * 以及同时进行的投递查询
+ * SO_REUSEPORT多acceptor的accept分摊依赖内核与真实连接,不在JMH里测量
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RegistryBenchmark {
+
+    @Param({"10000", "200000"})
+    public int users;
+
+    private UserChannelRegistry registry;
+    private Channel[] channels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new UserChannelRegistry();
+        channels = new Channel[users];
+        for (int i = 0; i < users; i++) {
+            channels[i] = new EmbeddedChannel();
+            registry.add(i, channels[i]);
+        }
+    }
+
+    /**
+     * 一个用户重连: 旧连接解绑,新连接绑定
+     * 同一用户可能被两个线程同时选中,路由表本身允许这种并发
+     */
+    @Benchmark
+    public void reconnect() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        Channel channel = channels[user];
+        registry.remove(user, channel);
+        registry.add(user, channel);
+    }
+
+    @Benchmark
+    public Channel[] lookup() {
+        return registry.get(ThreadLocalRandom.current().nextInt(users));
+    }
+}
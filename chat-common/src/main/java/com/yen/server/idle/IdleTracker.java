@@ -0,0 +1,172 @@
+package com.yen.server.idle;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个EventLoop上所有连接的空闲状态
+ * 每个连接占times数组里连续的STRIDE个long,只在所属EventLoop上访问,不需要加锁;
+ * 读写时只记录巡检任务维护的粗粒度时钟,不需要每次都调用System.nanoTime()
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:46
+ */
+final class IdleTracker implements Runnable {
+
+    private static final int LAST_READ = 0;
+    private static final int LAST_WRITE = 1;
+    private static final int READER_FIRED = 2;
+    private static final int WRITER_FIRED = 3;
+    private static final int ALL_FIRED = 4;
+    /**
+     * 连接单独设置的空闲时间(读、写、读写三种检测共用),0表示使用默认值
+     */
+    private static final int IDLE_OVERRIDE = 5;
+    private static final int STRIDE = 6;
+
+    private final EventLoop loop;
+    private final long readerIdleNanos;
+    private final long writerIdleNanos;
+    private final long allIdleNanos;
+    private final long tickNanos;
+
+    private Slot[] slots = new Slot[16];
+    private long[] times = new long[16 * STRIDE];
+    private int size;
+    private long clock = System.nanoTime();
+    private ScheduledFuture<?> sweep;
+
+    IdleTracker(EventLoop loop, long readerIdleNanos, long writerIdleNanos, long allIdleNanos, long tickNanos) {
+        this.loop = loop;
+        this.readerIdleNanos = readerIdleNanos;
+        this.writerIdleNanos = writerIdleNanos;
+        this.allIdleNanos = allIdleNanos;
+        this.tickNanos = tickNanos;
+    }
+
+    Slot add(ChannelHandlerContext ctx) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size << 1);
+            times = Arrays.copyOf(times, (size << 1) * STRIDE);
+        }
+        Slot slot = new Slot(this, ctx, size);
+        slots[size] = slot;
+        clock = System.nanoTime();
+        Arrays.fill(times, size * STRIDE, (size + 1) * STRIDE, clock);
+        times[size * STRIDE + IDLE_OVERRIDE] = 0;
+        size++;
+        if (sweep == null) {
+            sweep = loop.scheduleAtFixedRate(this, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+        return slot;
+    }
+
+    void remove(Slot slot) {
+        int i = slot.index;
+        if (i < 0 || i >= size || slots[i] != slot) {
+            return;
+        }
+        int last = --size;
+        if (i != last) {
+            Slot moved = slots[last];
+            slots[i] = moved;
+            moved.index = i;
+            System.arraycopy(times, last * STRIDE, times, i * STRIDE, STRIDE);
+        }
+        slots[last] = null;
+        slot.index = -1;
+        if (size == 0 && sweep != null) {
+            sweep.cancel(false);
+            sweep = null;
+        }
+    }
+
+    void read(Slot slot) {
+        times[slot.index * STRIDE + LAST_READ] = clock;
+    }
+
+    void write(Slot slot) {
+        times[slot.index * STRIDE + LAST_WRITE] = clock;
+    }
+
+    /**
+     * 单独设置连接的空闲时间,读、写、读写三种检测都使用它(只对已开启的检测生效)
+     *
+     * @param idleNanos 空闲时间,0表示恢复默认值
+     */
+    void idleTime(Slot slot, long idleNanos) {
+        times[slot.index * STRIDE + IDLE_OVERRIDE] = idleNanos;
+    }
+
+    /**
+     * 巡检: 倒序遍历,触发事件时连接可能被关闭并从数组中移除
+     */
+    @Override
+    public void run() {
+        long now = clock = System.nanoTime();
+        for (int i = size - 1; i >= 0; i--) {
+            if (i >= size) {
+                continue;
+            }
+            int base = i * STRIDE;
+            long lastRead = times[base + LAST_READ];
+            long lastWrite = times[base + LAST_WRITE];
+            long override = times[base + IDLE_OVERRIDE];
+            ChannelHandlerContext ctx = slots[i].ctx;
+            if (readerIdleNanos > 0 && expired(now, lastRead, base + READER_FIRED, override > 0 ? override : readerIdleNanos)) {
+                boolean first = fire(base + READER_FIRED, lastRead, now);
+                ctx.fireUserEventTriggered(first ? IdleStateEvent.FIRST_READER_IDLE_STATE_EVENT : IdleStateEvent.READER_IDLE_STATE_EVENT);
+                if (i >= size || slots[i].ctx != ctx) {
+                    continue;
+                }
+            }
+            if (writerIdleNanos > 0 && expired(now, lastWrite, base + WRITER_FIRED, override > 0 ? override : writerIdleNanos)) {
+                boolean first = fire(base + WRITER_FIRED, lastWrite, now);
+                ctx.fireUserEventTriggered(first ? IdleStateEvent.FIRST_WRITER_IDLE_STATE_EVENT : IdleStateEvent.WRITER_IDLE_STATE_EVENT);
+                if (i >= size || slots[i].ctx != ctx) {
+                    continue;
+                }
+            }
+            long lastIo = Math.max(lastRead, lastWrite);
+            if (allIdleNanos > 0 && expired(now, lastIo, base + ALL_FIRED, override > 0 ? override : allIdleNanos)) {
+                boolean first = fire(base + ALL_FIRED, lastIo, now);
+                ctx.fireUserEventTriggered(first ? IdleStateEvent.FIRST_ALL_IDLE_STATE_EVENT : IdleStateEvent.ALL_IDLE_STATE_EVENT);
+            }
+        }
+    }
+
+    /**
+     * 距离最近一次读写(或最近一次触发事件)超过了空闲时间
+     */
+    private boolean expired(long now, long lastIo, int firedIndex, long idleNanos) {
+        return now - Math.max(lastIo, times[firedIndex]) >= idleNanos;
+    }
+
+    /**
+     * 记录触发时间
+     *
+     * @return 是否是这段空闲期的第一次事件
+     */
+    private boolean fire(int firedIndex, long lastIo, long now) {
+        boolean first = times[firedIndex] <= lastIo;
+        times[firedIndex] = now;
+        return first;
+    }
+
+    static final class Slot {
+        final IdleTracker tracker;
+        final ChannelHandlerContext ctx;
+        int index;
+
+        Slot(IdleTracker tracker, ChannelHandlerContext ctx, int index) {
+            this.tracker = tracker;
+            this.ctx = ctx;
+            this.index = index;
+        }
+    }
+}
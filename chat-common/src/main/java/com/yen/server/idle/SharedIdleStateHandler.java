@@ -0,0 +1,138 @@
+package com.yen.server.idle;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
+import io.netty.util.AttributeKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享的空闲检测处理器,代替每个连接一个的IdleStateHandler
+ * IdleStateHandler每个连接要在EventLoop的定时任务队列里维护三个定时任务并不断重新调度,
+ * 连接数很大时这部分的CPU和堆开销很可观;
+ * 这里每个EventLoop只有一个{@link IdleTracker}: 连接的读写时间戳存放在基本类型数组里,
+ * 由一个固定频率的巡检任务统一检查,只给真正超时的连接触发IdleStateEvent
+ * 事件语义与IdleStateHandler一致(首次事件/后续每隔一个周期再触发一次),精度为一个巡检周期;
+ * 空闲时间可以按连接单独调整(读、写、读写三种检测一起调整),见{@link #setIdleTime(Channel, long, TimeUnit)}
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:46
+ */
+@Sharable
+public class SharedIdleStateHandler extends ChannelDuplexHandler {
+
+    static final AttributeKey<IdleTracker.Slot> SLOT = AttributeKey.valueOf("idleSlot");
+
+    /**
+     * 巡检周期的上下限
+     */
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long readerIdleNanos;
+    private final long writerIdleNanos;
+    private final long allIdleNanos;
+    private final long tickNanos;
+
+    private final Map<EventLoop, IdleTracker> trackers = new ConcurrentHashMap<>();
+
+    /**
+     * @param readerIdleTime 多少时间没有读数据触发READER_IDLE,0表示不检测
+     * @param writerIdleTime 多少时间没有写数据触发WRITER_IDLE,0表示不检测
+     * @param allIdleTime    多少时间既没有读也没有写触发ALL_IDLE,0表示不检测
+     * @param unit           时间单位
+     */
+    public SharedIdleStateHandler(long readerIdleTime, long writerIdleTime, long allIdleTime, TimeUnit unit) {
+        this.readerIdleNanos = Math.max(0, unit.toNanos(readerIdleTime));
+        this.writerIdleNanos = Math.max(0, unit.toNanos(writerIdleTime));
+        this.allIdleNanos = Math.max(0, unit.toNanos(allIdleTime));
+        long min = Long.MAX_VALUE;
+        for (long t : new long[]{readerIdleNanos, writerIdleNanos, allIdleNanos}) {
+            if (t > 0) {
+                min = Math.min(min, t);
+            }
+        }
+        this.tickNanos = Math.min(MAX_TICK_NANOS, Math.max(MIN_TICK_NANOS, min / 10));
+    }
+
+    /**
+     * 单独调整一个连接的空闲时间(例如自适应心跳),读、写、读写三种空闲事件都按这个时间触发,
+     * 必须在连接所属EventLoop上调用
+     *
+     * @param channel  连接
+     * @param idleTime 空闲时间,0表示恢复默认值
+     * @param unit     时间单位
+     * @return 连接没有被空闲检测跟踪时返回false
+     */
+    public static boolean setIdleTime(Channel channel, long idleTime, TimeUnit unit) {
+        IdleTracker.Slot slot = channel.attr(SLOT).get();
+        if (slot == null) {
+            return false;
+        }
+        slot.tracker.idleTime(slot, unit.toNanos(idleTime));
+        return true;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isActive() && ctx.channel().isRegistered()) {
+            track(ctx);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        untrack(ctx);
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        track(ctx);
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        untrack(ctx);
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        IdleTracker.Slot slot = ctx.channel().attr(SLOT).get();
+        if (slot != null) {
+            slot.tracker.read(slot);
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        IdleTracker.Slot slot = ctx.channel().attr(SLOT).get();
+        if (slot != null) {
+            slot.tracker.write(slot);
+        }
+        ctx.flush();
+    }
+
+    private void track(ChannelHandlerContext ctx) {
+        if (ctx.channel().attr(SLOT).get() != null || (readerIdleNanos | writerIdleNanos | allIdleNanos) == 0) {
+            return;
+        }
+        EventLoop loop = ctx.channel().eventLoop();
+        IdleTracker tracker = trackers.computeIfAbsent(loop, l -> new IdleTracker(l, readerIdleNanos, writerIdleNanos, allIdleNanos, tickNanos));
+        ctx.channel().attr(SLOT).set(tracker.add(ctx));
+    }
+
+    private void untrack(ChannelHandlerContext ctx) {
+        IdleTracker.Slot slot = ctx.channel().attr(SLOT).getAndSet(null);
+        if (slot != null) {
+            slot.tracker.remove(slot);
+        }
+    }
+}
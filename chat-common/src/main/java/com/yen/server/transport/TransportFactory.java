@@ -0,0 +1,146 @@
+package com.yen.server.transport;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 网络传输层工厂
+ * Linux下优先使用原生epoll(更少的系统调用与对象分配),不可用时回退到JDK NIO
+ * 线程组与服务端通道类型必须来自同一种传输层,统一通过该工厂创建
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:44
+ */
+@Slf4j
+public class TransportFactory {
+
+    public enum Type {
+        /**
+         * Linux原生epoll
+         */
+        EPOLL,
+        /**
+         * JDK NIO
+         */
+        NIO
+    }
+
+    private final Type type;
+
+    /**
+     * epoll是否使用边缘触发模式(仅epoll生效)
+     */
+    private boolean edgeTriggered = true;
+    /**
+     * 是否关闭Nagle算法,聊天消息都是小包,需要尽快发出
+     */
+    private boolean tcpNoDelay = true;
+    /**
+     * 是否允许多个服务端通道绑定同一端口(仅epoll生效)
+     */
+    private boolean reusePort = false;
+    /**
+     * TCP Fast Open的等待队列长度,0表示不开启(仅epoll生效)
+     */
+    private int tcpFastOpen = 0;
+
+    private TransportFactory(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * 优先使用原生传输层
+     */
+    public static TransportFactory create() {
+        return create(true);
+    }
+
+    /**
+     * @param preferNative 是否优先使用原生传输层
+     */
+    public static TransportFactory create(boolean preferNative) {
+        if (preferNative && Epoll.isAvailable()) {
+            return new TransportFactory(Type.EPOLL);
+        }
+        if (preferNative) {
+            log.debug("epoll不可用,回退到NIO: {}", String.valueOf(Epoll.unavailabilityCause()));
+        }
+        return new TransportFactory(Type.NIO);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public boolean isEpoll() {
+        return type == Type.EPOLL;
+    }
+
+    /**
+     * 创建线程组
+     *
+     * @param nThreads 线程数,0表示使用默认值(核数*2)
+     */
+    public EventLoopGroup newEventLoopGroup(int nThreads) {
+        return isEpoll() ? new EpollEventLoopGroup(nThreads) : new NioEventLoopGroup(nThreads);
+    }
+
+    public Class<? extends ServerChannel> serverChannelClass() {
+        return isEpoll() ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * 设置服务端通道类型以及传输层相关的参数
+     *
+     * @param bootstrap 服务端启动类
+     * @return bootstrap
+     */
+    public ServerBootstrap configure(ServerBootstrap bootstrap) {
+        bootstrap.channel(serverChannelClass())
+                .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        if (isEpoll()) {
+            EpollMode mode = edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+            bootstrap.option(EpollChannelOption.EPOLL_MODE, mode)
+                    .childOption(EpollChannelOption.EPOLL_MODE, mode);
+            if (reusePort) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
+            if (tcpFastOpen > 0 && Epoll.isTcpFastOpenServerSideAvailable()) {
+                bootstrap.option(ChannelOption.TCP_FASTOPEN, tcpFastOpen);
+            }
+        }
+        log.info("网络传输层: {}, edgeTriggered={}, tcpNoDelay={}, reusePort={}, tcpFastOpen={}",
+                type, isEpoll() && edgeTriggered, tcpNoDelay, isEpoll() && reusePort, isEpoll() ? tcpFastOpen : 0);
+        return bootstrap;
+    }
+
+    public TransportFactory edgeTriggered(boolean edgeTriggered) {
+        this.edgeTriggered = edgeTriggered;
+        return this;
+    }
+
+    public TransportFactory tcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    public TransportFactory reusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+        return this;
+    }
+
+    public TransportFactory tcpFastOpen(int tcpFastOpen) {
+        this.tcpFastOpen = tcpFastOpen;
+        return this;
+    }
+}
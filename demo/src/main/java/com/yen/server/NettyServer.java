@@ -1,12 +1,12 @@
 package com.yen.server;
 
 import com.yen.server.init.MyNettyServerInitializer;
+import com.yen.server.transport.TransportFactory;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.EventLoopGroup;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -18,18 +18,19 @@ public class NettyServer {
     private static int port = 6668;
 
     public static void main(String[] args) throws InterruptedException {
+        // Linux下优先使用epoll,否则使用NIO
+        TransportFactory transport = TransportFactory.create();
         // 默认子线程=核数*2
         // 1. 创建BossGroup线程组:处理连接请求,真正的与客户端进行业务处理,然后交给客户端进行处理
-        NioEventLoopGroup boss = new NioEventLoopGroup();
+        EventLoopGroup boss = transport.newEventLoopGroup(1);
         // 2. 创建WorkerGroup。这两个线程组都是无限循环
-        NioEventLoopGroup worker = new NioEventLoopGroup();
+        EventLoopGroup worker = transport.newEventLoopGroup(0);
 
         try {
             // 3. 创建服务端的启动对象，配置参数
             ServerBootstrap bootstrap = new ServerBootstrap();
             // 4.链式编程进行设置服务器参数
-            bootstrap.group(boss, worker) // 设置两个线程组
-                    .channel(NioServerSocketChannel.class) // 使用NioSocketChannel 作为服务器的通道实现
+            transport.configure(bootstrap.group(boss, worker)) // 设置两个线程组以及传输层对应的服务器通道实现
                     .option(ChannelOption.SO_BACKLOG, 128) // 设置线程队列得到连接个数
                     .childOption(ChannelOption.SO_KEEPALIVE, true) // 设置保持活动连接状态
                     .childHandler(new MyNettyServerInitializer()); // 进行处理器的初始化:给workerGroup 的 EventLoop对应的管道设置处理器。（可以自定义）
@@ -40,7 +41,7 @@ public class NettyServer {
                 @Override
                 public void operationComplete(ChannelFuture channelFuture) throws Exception {
                     if (channelFuture.isSuccess()) {
-                        log.info("服务端成功监听端口{}",port);
+                        log.info("服务端成功监听端口{},传输层:{}",port,transport.type());
                     }
                 }
             });
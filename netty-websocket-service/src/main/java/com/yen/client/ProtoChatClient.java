@@ -1,5 +1,6 @@
 package com.yen.client;
 
+import com.google.protobuf.ByteString;
 import com.yen.client.init.ClientInitializer;
 import com.yen.model.proto.ChatMessageProto;
 import io.netty.bootstrap.Bootstrap;
@@ -51,7 +52,7 @@ public class ProtoChatClient {
             // 获取当前channel
             Channel channel = channelFuture.channel();
             // 5.客户端需要输入信息
-            ChatMessageProto.ChatMessage.Builder msg = ChatMessageProto.ChatMessage.newBuilder().setContent("客户端发送数据");
+            ChatMessageProto.ChatMessage.Builder msg = ChatMessageProto.ChatMessage.newBuilder().setContent(ByteString.copyFromUtf8("客户端发送数据"));
             channel.writeAndFlush(msg);
 
             // 6.监听关闭通道事件
@@ -1,5 +1,6 @@
 package com.yen.client.handler;
 
+import com.google.protobuf.ByteString;
 import com.yen.model.proto.ChatMessageProto;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -27,7 +28,7 @@ public class ClientHandler extends SimpleChannelInboundHandler<String>{
         ChatMessageProto.ChatMessage msg = ChatMessageProto.ChatMessage.newBuilder()
                 .setFromUserId(1)
                 .setToUserId(2)
-                .setContent("消息内容")
+                .setContent(ByteString.copyFromUtf8("消息内容"))
                 .setType(0).build();
         ctx.writeAndFlush(msg);
     }
@@ -0,0 +1,26 @@
+package com.yen.model.constant;
+
+/**
+ * ChatMessage.status 消息状态
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:55
+ */
+public final class MessageStatus {
+
+    public static final int SENT = 0;
+    public static final int READ = 1;
+    public static final int FAILED = 2;
+    public static final int RECALLED = 3;
+    /**
+     * 累计确认(batchAck连接): clientSeq及之前的消息都已收到,较新的累计确认可以代替较早的
+     */
+    public static final int CUMULATIVE_ACK = 4;
+    /**
+     * 重复的消息(客户端重发): 原消息已经处理过,但原消息ID已不在去重窗口的最近记录中,确认里不带ID
+     */
+    public static final int DUPLICATE = 5;
+
+    private MessageStatus() {
+    }
+}
@@ -0,0 +1,44 @@
+package com.yen.model.constant;
+
+/**
+ * ChatMessage.type 消息类型
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:55
+ */
+public final class MessageType {
+
+    /**
+     * 建立连接(绑定用户与Channel)
+     */
+    public static final int CONNECT = 0;
+    public static final int TEXT = 1;
+    public static final int IMAGE = 2;
+    public static final int FILE = 3;
+    public static final int VOICE = 4;
+    public static final int VIDEO = 5;
+    public static final int AD = 6;
+    /**
+     * 系统消息(例如服务端回复的确认消息)
+     */
+    public static final int SYSTEM = 7;
+    /**
+     * 加入群聊(roomId)
+     */
+    public static final int JOIN_ROOM = 8;
+    /**
+     * 退出群聊(roomId)
+     */
+    public static final int LEAVE_ROOM = 9;
+    /**
+     * 拉取历史消息: toUserId为对方(或roomId为群聊),id为0表示最新一页,否则拉取该ID之前的一页
+     */
+    public static final int HISTORY = 10;
+    /**
+     * 心跳配置(服务端发出): heartbeatSeconds为该连接当前的心跳间隔,只发给v2协议的连接
+     */
+    public static final int HEARTBEAT_CONFIG = 11;
+
+    private MessageType() {
+    }
+}
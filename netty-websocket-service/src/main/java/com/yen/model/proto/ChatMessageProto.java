@@ -1,7 +1,7 @@
 // Generated by the protocol buffer compiler.  DO NOT EDIT!
 // NO CHECKED-IN PROTOBUF GENCODE
 // source: ChatMessage.proto
-// Protobuf Java Version: 4.27.1
+// Protobuf Java Version: 4.27.2
 
 package com.yen.model.proto;
 
@@ -12,7 +12,7 @@ public final class ChatMessageProto {
       com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
       /* major= */ 4,
       /* minor= */ 27,
-      /* patch= */ 1,
+      /* patch= */ 2,
       /* suffix= */ "",
       ChatMessageProto.class.getName());
   }
@@ -25,6 +25,371 @@ public final class ChatMessageProto {
     registerAllExtensions(
         (com.google.protobuf.ExtensionRegistryLite) registry);
   }
+  /**
+   * <pre>
+   * v2协议(子协议chat.v2 / chat.v2.batch): 时间为epoch毫秒,类型与状态为枚举
+   * 除sendTime外字段编号与线路格式都与ChatMessage一致(枚举与int32同为varint)
+   * </pre>
+   *
+   * Protobuf enum {@code MessageKind}
+   */
+  public enum MessageKind
+      implements com.google.protobuf.ProtocolMessageEnum {
+    /**
+     * <code>CONNECT = 0;</code>
+     */
+    CONNECT(0),
+    /**
+     * <code>TEXT = 1;</code>
+     */
+    TEXT(1),
+    /**
+     * <code>IMAGE = 2;</code>
+     */
+    IMAGE(2),
+    /**
+     * <code>FILE = 3;</code>
+     */
+    FILE(3),
+    /**
+     * <code>VOICE = 4;</code>
+     */
+    VOICE(4),
+    /**
+     * <code>VIDEO = 5;</code>
+     */
+    VIDEO(5),
+    /**
+     * <code>AD = 6;</code>
+     */
+    AD(6),
+    /**
+     * <code>SYSTEM = 7;</code>
+     */
+    SYSTEM(7),
+    /**
+     * <code>JOIN_ROOM = 8;</code>
+     */
+    JOIN_ROOM(8),
+    /**
+     * <code>LEAVE_ROOM = 9;</code>
+     */
+    LEAVE_ROOM(9),
+    /**
+     * <code>HISTORY = 10;</code>
+     */
+    HISTORY(10),
+    /**
+     * <code>HEARTBEAT_CONFIG = 11;</code>
+     */
+    HEARTBEAT_CONFIG(11),
+    UNRECOGNIZED(-1),
+    ;
+
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 27,
+        /* patch= */ 2,
+        /* suffix= */ "",
+        MessageKind.class.getName());
+    }
+    /**
+     * <code>CONNECT = 0;</code>
+     */
+    public static final int CONNECT_VALUE = 0;
+    /**
+     * <code>TEXT = 1;</code>
+     */
+    public static final int TEXT_VALUE = 1;
+    /**
+     * <code>IMAGE = 2;</code>
+     */
+    public static final int IMAGE_VALUE = 2;
+    /**
+     * <code>FILE = 3;</code>
+     */
+    public static final int FILE_VALUE = 3;
+    /**
+     * <code>VOICE = 4;</code>
+     */
+    public static final int VOICE_VALUE = 4;
+    /**
+     * <code>VIDEO = 5;</code>
+     */
+    public static final int VIDEO_VALUE = 5;
+    /**
+     * <code>AD = 6;</code>
+     */
+    public static final int AD_VALUE = 6;
+    /**
+     * <code>SYSTEM = 7;</code>
+     */
+    public static final int SYSTEM_VALUE = 7;
+    /**
+     * <code>JOIN_ROOM = 8;</code>
+     */
+    public static final int JOIN_ROOM_VALUE = 8;
+    /**
+     * <code>LEAVE_ROOM = 9;</code>
+     */
+    public static final int LEAVE_ROOM_VALUE = 9;
+    /**
+     * <code>HISTORY = 10;</code>
+     */
+    public static final int HISTORY_VALUE = 10;
+    /**
+     * <code>HEARTBEAT_CONFIG = 11;</code>
+     */
+    public static final int HEARTBEAT_CONFIG_VALUE = 11;
+
+
+    public final int getNumber() {
+      if (this == UNRECOGNIZED) {
+        throw new java.lang.IllegalArgumentException(
+            "Can't get the number of an unknown enum value.");
+      }
+      return value;
+    }
+
+    /**
+     * @param value The numeric wire value of the corresponding enum entry.
+     * @return The enum associated with the given numeric wire value.
+     * @deprecated Use {@link #forNumber(int)} instead.
+     */
+    @java.lang.Deprecated
+    public static MessageKind valueOf(int value) {
+      return forNumber(value);
+    }
+
+    /**
+     * @param value The numeric wire value of the corresponding enum entry.
+     * @return The enum associated with the given numeric wire value.
+     */
+    public static MessageKind forNumber(int value) {
+      switch (value) {
+        case 0: return CONNECT;
+        case 1: return TEXT;
+        case 2: return IMAGE;
+        case 3: return FILE;
+        case 4: return VOICE;
+        case 5: return VIDEO;
+        case 6: return AD;
+        case 7: return SYSTEM;
+        case 8: return JOIN_ROOM;
+        case 9: return LEAVE_ROOM;
+        case 10: return HISTORY;
+        case 11: return HEARTBEAT_CONFIG;
+        default: return null;
+      }
+    }
+
+    public static com.google.protobuf.Internal.EnumLiteMap<MessageKind>
+        internalGetValueMap() {
+      return internalValueMap;
+    }
+    private static final com.google.protobuf.Internal.EnumLiteMap<
+        MessageKind> internalValueMap =
+          new com.google.protobuf.Internal.EnumLiteMap<MessageKind>() {
+            public MessageKind findValueByNumber(int number) {
+              return MessageKind.forNumber(number);
+            }
+          };
+
+    public final com.google.protobuf.Descriptors.EnumValueDescriptor
+        getValueDescriptor() {
+      if (this == UNRECOGNIZED) {
+        throw new java.lang.IllegalStateException(
+            "Can't get the descriptor of an unrecognized enum value.");
+      }
+      return getDescriptor().getValues().get(ordinal());
+    }
+    public final com.google.protobuf.Descriptors.EnumDescriptor
+        getDescriptorForType() {
+      return getDescriptor();
+    }
+    public static final com.google.protobuf.Descriptors.EnumDescriptor
+        getDescriptor() {
+      return com.yen.model.proto.ChatMessageProto.getDescriptor().getEnumTypes().get(0);
+    }
+
+    private static final MessageKind[] VALUES = values();
+
+    public static MessageKind valueOf(
+        com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+      if (desc.getType() != getDescriptor()) {
+        throw new java.lang.IllegalArgumentException(
+          "EnumValueDescriptor is not for this type.");
+      }
+      if (desc.getIndex() == -1) {
+        return UNRECOGNIZED;
+      }
+      return VALUES[desc.getIndex()];
+    }
+
+    private final int value;
+
+    private MessageKind(int value) {
+      this.value = value;
+    }
+
+    // @@protoc_insertion_point(enum_scope:MessageKind)
+  }
+
+  /**
+   * Protobuf enum {@code DeliveryStatus}
+   */
+  public enum DeliveryStatus
+      implements com.google.protobuf.ProtocolMessageEnum {
+    /**
+     * <code>SENT = 0;</code>
+     */
+    SENT(0),
+    /**
+     * <code>READ = 1;</code>
+     */
+    READ(1),
+    /**
+     * <code>FAILED = 2;</code>
+     */
+    FAILED(2),
+    /**
+     * <code>RECALLED = 3;</code>
+     */
+    RECALLED(3),
+    /**
+     * <code>CUMULATIVE_ACK = 4;</code>
+     */
+    CUMULATIVE_ACK(4),
+    /**
+     * <code>DUPLICATE = 5;</code>
+     */
+    DUPLICATE(5),
+    UNRECOGNIZED(-1),
+    ;
+
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 27,
+        /* patch= */ 2,
+        /* suffix= */ "",
+        DeliveryStatus.class.getName());
+    }
+    /**
+     * <code>SENT = 0;</code>
+     */
+    public static final int SENT_VALUE = 0;
+    /**
+     * <code>READ = 1;</code>
+     */
+    public static final int READ_VALUE = 1;
+    /**
+     * <code>FAILED = 2;</code>
+     */
+    public static final int FAILED_VALUE = 2;
+    /**
+     * <code>RECALLED = 3;</code>
+     */
+    public static final int RECALLED_VALUE = 3;
+    /**
+     * <code>CUMULATIVE_ACK = 4;</code>
+     */
+    public static final int CUMULATIVE_ACK_VALUE = 4;
+    /**
+     * <code>DUPLICATE = 5;</code>
+     */
+    public static final int DUPLICATE_VALUE = 5;
+
+
+    public final int getNumber() {
+      if (this == UNRECOGNIZED) {
+        throw new java.lang.IllegalArgumentException(
+            "Can't get the number of an unknown enum value.");
+      }
+      return value;
+    }
+
+    /**
+     * @param value The numeric wire value of the corresponding enum entry.
+     * @return The enum associated with the given numeric wire value.
+     * @deprecated Use {@link #forNumber(int)} instead.
+     */
+    @java.lang.Deprecated
+    public static DeliveryStatus valueOf(int value) {
+      return forNumber(value);
+    }
+
+    /**
+     * @param value The numeric wire value of the corresponding enum entry.
+     * @return The enum associated with the given numeric wire value.
+     */
+    public static DeliveryStatus forNumber(int value) {
+      switch (value) {
+        case 0: return SENT;
+        case 1: return READ;
+        case 2: return FAILED;
+        case 3: return RECALLED;
+        case 4: return CUMULATIVE_ACK;
+        case 5: return DUPLICATE;
+        default: return null;
+      }
+    }
+
+    public static com.google.protobuf.Internal.EnumLiteMap<DeliveryStatus>
+        internalGetValueMap() {
+      return internalValueMap;
+    }
+    private static final com.google.protobuf.Internal.EnumLiteMap<
+        DeliveryStatus> internalValueMap =
+          new com.google.protobuf.Internal.EnumLiteMap<DeliveryStatus>() {
+            public DeliveryStatus findValueByNumber(int number) {
+              return DeliveryStatus.forNumber(number);
+            }
+          };
+
+    public final com.google.protobuf.Descriptors.EnumValueDescriptor
+        getValueDescriptor() {
+      if (this == UNRECOGNIZED) {
+        throw new java.lang.IllegalStateException(
+            "Can't get the descriptor of an unrecognized enum value.");
+      }
+      return getDescriptor().getValues().get(ordinal());
+    }
+    public final com.google.protobuf.Descriptors.EnumDescriptor
+        getDescriptorForType() {
+      return getDescriptor();
+    }
+    public static final com.google.protobuf.Descriptors.EnumDescriptor
+        getDescriptor() {
+      return com.yen.model.proto.ChatMessageProto.getDescriptor().getEnumTypes().get(1);
+    }
+
+    private static final DeliveryStatus[] VALUES = values();
+
+    public static DeliveryStatus valueOf(
+        com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+      if (desc.getType() != getDescriptor()) {
+        throw new java.lang.IllegalArgumentException(
+          "EnumValueDescriptor is not for this type.");
+      }
+      if (desc.getIndex() == -1) {
+        return UNRECOGNIZED;
+      }
+      return VALUES[desc.getIndex()];
+    }
+
+    private final int value;
+
+    private DeliveryStatus(int value) {
+      this.value = value;
+    }
+
+    // @@protoc_insertion_point(enum_scope:DeliveryStatus)
+  }
+
   public interface ChatMessageOrBuilder extends
       // @@protoc_insertion_point(interface_extends:ChatMessage)
       com.google.protobuf.MessageOrBuilder {
@@ -51,27 +416,17 @@ public final class ChatMessageProto {
 
     /**
      * <pre>
-     * 消息内容
+     * 消息内容(UTF-8),与string的线路格式相同;声明为bytes,服务端只转发的消息不会解码成String
      * </pre>
      *
-     * <code>string content = 3;</code>
+     * <code>bytes content = 3;</code>
      * @return The content.
      */
-    java.lang.String getContent();
-    /**
-     * <pre>
-     * 消息内容
-     * </pre>
-     *
-     * <code>string content = 3;</code>
-     * @return The bytes for content.
-     */
-    com.google.protobuf.ByteString
-        getContentBytes();
+    com.google.protobuf.ByteString getContent();
 
     /**
      * <pre>
-     * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+     * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
      * </pre>
      *
      * <code>string sendTime = 4;</code>
@@ -80,7 +435,7 @@ public final class ChatMessageProto {
     java.lang.String getSendTime();
     /**
      * <pre>
-     * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+     * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
      * </pre>
      *
      * <code>string sendTime = 4;</code>
@@ -91,7 +446,7 @@ public final class ChatMessageProto {
 
     /**
      * <pre>
-     * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息)
+     * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息|7系统消息|8加入群聊|9退出群聊|10拉取历史消息|11心跳配置)
      * </pre>
      *
      * <code>int32 type = 5;</code>
@@ -101,7 +456,7 @@ public final class ChatMessageProto {
 
     /**
      * <pre>
-     * 状态(0已发送|1已读|2发送失败|3已撤回)
+     * 状态(0已发送|1已读|2发送失败|3已撤回|4累计确认: clientSeq及之前的消息都已收到,只用于batchAck连接|5重复消息: 原消息已处理,原ID已无法查到)
      * </pre>
      *
      * <code>int32 status = 6;</code>
@@ -111,13 +466,83 @@ public final class ChatMessageProto {
 
     /**
      * <pre>
-     * 消息唯一标识符(数据库自增生成)
+     * 消息唯一标识符(服务端收到消息时分配: 时间戳+序号+节点+EventLoop,同一发送者严格递增,会话内按因果顺序递增)
      * </pre>
      *
      * <code>int64 id = 7;</code>
      * @return The id.
      */
     long getId();
+
+    /**
+     * <pre>
+     * 客户端消息序号(同一设备跨连接单调递增,服务端据此识别重发的消息,0表示不去重),确认消息中表示被确认的序号
+     * </pre>
+     *
+     * <code>int64 clientSeq = 8;</code>
+     * @return The clientSeq.
+     */
+    long getClientSeq();
+
+    /**
+     * <pre>
+     * 建立连接时声明是否使用累计确认(每个读批次只确认一次已连续收到的最大clientSeq,回复status为4)
+     * </pre>
+     *
+     * <code>bool batchAck = 9;</code>
+     * @return The batchAck.
+     */
+    boolean getBatchAck();
+
+    /**
+     * <pre>
+     * 群聊ID(不为0时为群聊消息,发给群内所有成员,此时忽略toUserId)
+     * </pre>
+     *
+     * <code>int64 roomId = 10;</code>
+     * @return The roomId.
+     */
+    long getRoomId();
+
+    /**
+     * <pre>
+     * 服务端为该连接协商的心跳间隔(秒),只出现在心跳配置消息(type 11)中,客户端据此调整自己的心跳与断线判定
+     * </pre>
+     *
+     * <code>int32 heartbeatSeconds = 11;</code>
+     * @return The heartbeatSeconds.
+     */
+    int getHeartbeatSeconds();
+
+    /**
+     * <pre>
+     * 发送时间(epoch毫秒),服务端内部统一使用;转发给v1客户端时按需补齐sendTime
+     * </pre>
+     *
+     * <code>int64 sendTimeMillis = 12;</code>
+     * @return The sendTimeMillis.
+     */
+    long getSendTimeMillis();
+
+    /**
+     * <pre>
+     * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+     * </pre>
+     *
+     * <code>string deviceId = 13;</code>
+     * @return The deviceId.
+     */
+    java.lang.String getDeviceId();
+    /**
+     * <pre>
+     * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+     * </pre>
+     *
+     * <code>string deviceId = 13;</code>
+     * @return The bytes for deviceId.
+     */
+    com.google.protobuf.ByteString
+        getDeviceIdBytes();
   }
   /**
    * <pre>
@@ -136,7 +561,7 @@ public final class ChatMessageProto {
         com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
         /* major= */ 4,
         /* minor= */ 27,
-        /* patch= */ 1,
+        /* patch= */ 2,
         /* suffix= */ "",
         ChatMessage.class.getName());
     }
@@ -145,8 +570,9 @@ public final class ChatMessageProto {
       super(builder);
     }
     private ChatMessage() {
-      content_ = "";
+      content_ = com.google.protobuf.ByteString.EMPTY;
       sendTime_ = "";
+      deviceId_ = "";
     }
 
     public static final com.google.protobuf.Descriptors.Descriptor
@@ -193,50 +619,18 @@ public final class ChatMessageProto {
     }
 
     public static final int CONTENT_FIELD_NUMBER = 3;
-    @SuppressWarnings("serial")
-    private volatile java.lang.Object content_ = "";
+    private com.google.protobuf.ByteString content_ = com.google.protobuf.ByteString.EMPTY;
     /**
      * <pre>
-     * 消息内容
+     * 消息内容(UTF-8),与string的线路格式相同;声明为bytes,服务端只转发的消息不会解码成String
      * </pre>
      *
-     * <code>string content = 3;</code>
+     * <code>bytes content = 3;</code>
      * @return The content.
      */
     @java.lang.Override
-    public java.lang.String getContent() {
-      java.lang.Object ref = content_;
-      if (ref instanceof java.lang.String) {
-        return (java.lang.String) ref;
-      } else {
-        com.google.protobuf.ByteString bs = 
-            (com.google.protobuf.ByteString) ref;
-        java.lang.String s = bs.toStringUtf8();
-        content_ = s;
-        return s;
-      }
-    }
-    /**
-     * <pre>
-     * 消息内容
-     * </pre>
-     *
-     * <code>string content = 3;</code>
-     * @return The bytes for content.
-     */
-    @java.lang.Override
-    public com.google.protobuf.ByteString
-        getContentBytes() {
-      java.lang.Object ref = content_;
-      if (ref instanceof java.lang.String) {
-        com.google.protobuf.ByteString b = 
-            com.google.protobuf.ByteString.copyFromUtf8(
-                (java.lang.String) ref);
-        content_ = b;
-        return b;
-      } else {
-        return (com.google.protobuf.ByteString) ref;
-      }
+    public com.google.protobuf.ByteString getContent() {
+      return content_;
     }
 
     public static final int SENDTIME_FIELD_NUMBER = 4;
@@ -244,7 +638,7 @@ public final class ChatMessageProto {
     private volatile java.lang.Object sendTime_ = "";
     /**
      * <pre>
-     * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+     * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
      * </pre>
      *
      * <code>string sendTime = 4;</code>
@@ -265,7 +659,7 @@ public final class ChatMessageProto {
     }
     /**
      * <pre>
-     * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+     * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
      * </pre>
      *
      * <code>string sendTime = 4;</code>
@@ -290,7 +684,7 @@ public final class ChatMessageProto {
     private int type_ = 0;
     /**
      * <pre>
-     * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息)
+     * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息|7系统消息|8加入群聊|9退出群聊|10拉取历史消息|11心跳配置)
      * </pre>
      *
      * <code>int32 type = 5;</code>
@@ -305,7 +699,7 @@ public final class ChatMessageProto {
     private int status_ = 0;
     /**
      * <pre>
-     * 状态(0已发送|1已读|2发送失败|3已撤回)
+     * 状态(0已发送|1已读|2发送失败|3已撤回|4累计确认: clientSeq及之前的消息都已收到,只用于batchAck连接|5重复消息: 原消息已处理,原ID已无法查到)
      * </pre>
      *
      * <code>int32 status = 6;</code>
@@ -320,7 +714,7 @@ public final class ChatMessageProto {
     private long id_ = 0L;
     /**
      * <pre>
-     * 消息唯一标识符(数据库自增生成)
+     * 消息唯一标识符(服务端收到消息时分配: 时间戳+序号+节点+EventLoop,同一发送者严格递增,会话内按因果顺序递增)
      * </pre>
      *
      * <code>int64 id = 7;</code>
@@ -331,15 +725,137 @@ public final class ChatMessageProto {
       return id_;
     }
 
-    private byte memoizedIsInitialized = -1;
+    public static final int CLIENTSEQ_FIELD_NUMBER = 8;
+    private long clientSeq_ = 0L;
+    /**
+     * <pre>
+     * 客户端消息序号(同一设备跨连接单调递增,服务端据此识别重发的消息,0表示不去重),确认消息中表示被确认的序号
+     * </pre>
+     *
+     * <code>int64 clientSeq = 8;</code>
+     * @return The clientSeq.
+     */
     @java.lang.Override
-    public final boolean isInitialized() {
-      byte isInitialized = memoizedIsInitialized;
-      if (isInitialized == 1) return true;
-      if (isInitialized == 0) return false;
+    public long getClientSeq() {
+      return clientSeq_;
+    }
 
-      memoizedIsInitialized = 1;
-      return true;
+    public static final int BATCHACK_FIELD_NUMBER = 9;
+    private boolean batchAck_ = false;
+    /**
+     * <pre>
+     * 建立连接时声明是否使用累计确认(每个读批次只确认一次已连续收到的最大clientSeq,回复status为4)
+     * </pre>
+     *
+     * <code>bool batchAck = 9;</code>
+     * @return The batchAck.
+     */
+    @java.lang.Override
+    public boolean getBatchAck() {
+      return batchAck_;
+    }
+
+    public static final int ROOMID_FIELD_NUMBER = 10;
+    private long roomId_ = 0L;
+    /**
+     * <pre>
+     * 群聊ID(不为0时为群聊消息,发给群内所有成员,此时忽略toUserId)
+     * </pre>
+     *
+     * <code>int64 roomId = 10;</code>
+     * @return The roomId.
+     */
+    @java.lang.Override
+    public long getRoomId() {
+      return roomId_;
+    }
+
+    public static final int HEARTBEATSECONDS_FIELD_NUMBER = 11;
+    private int heartbeatSeconds_ = 0;
+    /**
+     * <pre>
+     * 服务端为该连接协商的心跳间隔(秒),只出现在心跳配置消息(type 11)中,客户端据此调整自己的心跳与断线判定
+     * </pre>
+     *
+     * <code>int32 heartbeatSeconds = 11;</code>
+     * @return The heartbeatSeconds.
+     */
+    @java.lang.Override
+    public int getHeartbeatSeconds() {
+      return heartbeatSeconds_;
+    }
+
+    public static final int SENDTIMEMILLIS_FIELD_NUMBER = 12;
+    private long sendTimeMillis_ = 0L;
+    /**
+     * <pre>
+     * 发送时间(epoch毫秒),服务端内部统一使用;转发给v1客户端时按需补齐sendTime
+     * </pre>
+     *
+     * <code>int64 sendTimeMillis = 12;</code>
+     * @return The sendTimeMillis.
+     */
+    @java.lang.Override
+    public long getSendTimeMillis() {
+      return sendTimeMillis_;
+    }
+
+    public static final int DEVICEID_FIELD_NUMBER = 13;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object deviceId_ = "";
+    /**
+     * <pre>
+     * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+     * </pre>
+     *
+     * <code>string deviceId = 13;</code>
+     * @return The deviceId.
+     */
+    @java.lang.Override
+    public java.lang.String getDeviceId() {
+      java.lang.Object ref = deviceId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        deviceId_ = s;
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+     * </pre>
+     *
+     * <code>string deviceId = 13;</code>
+     * @return The bytes for deviceId.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getDeviceIdBytes() {
+      java.lang.Object ref = deviceId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        deviceId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
     }
 
     @java.lang.Override
@@ -351,8 +867,8 @@ public final class ChatMessageProto {
       if (toUserId_ != 0L) {
         output.writeInt64(2, toUserId_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(content_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 3, content_);
+      if (!content_.isEmpty()) {
+        output.writeBytes(3, content_);
       }
       if (!com.google.protobuf.GeneratedMessage.isStringEmpty(sendTime_)) {
         com.google.protobuf.GeneratedMessage.writeString(output, 4, sendTime_);
@@ -366,6 +882,24 @@ public final class ChatMessageProto {
       if (id_ != 0L) {
         output.writeInt64(7, id_);
       }
+      if (clientSeq_ != 0L) {
+        output.writeInt64(8, clientSeq_);
+      }
+      if (batchAck_ != false) {
+        output.writeBool(9, batchAck_);
+      }
+      if (roomId_ != 0L) {
+        output.writeInt64(10, roomId_);
+      }
+      if (heartbeatSeconds_ != 0) {
+        output.writeInt32(11, heartbeatSeconds_);
+      }
+      if (sendTimeMillis_ != 0L) {
+        output.writeInt64(12, sendTimeMillis_);
+      }
+      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(deviceId_)) {
+        com.google.protobuf.GeneratedMessage.writeString(output, 13, deviceId_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -383,8 +917,9 @@ public final class ChatMessageProto {
         size += com.google.protobuf.CodedOutputStream
           .computeInt64Size(2, toUserId_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(content_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(3, content_);
+      if (!content_.isEmpty()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, content_);
       }
       if (!com.google.protobuf.GeneratedMessage.isStringEmpty(sendTime_)) {
         size += com.google.protobuf.GeneratedMessage.computeStringSize(4, sendTime_);
@@ -401,6 +936,29 @@ public final class ChatMessageProto {
         size += com.google.protobuf.CodedOutputStream
           .computeInt64Size(7, id_);
       }
+      if (clientSeq_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(8, clientSeq_);
+      }
+      if (batchAck_ != false) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(9, batchAck_);
+      }
+      if (roomId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(10, roomId_);
+      }
+      if (heartbeatSeconds_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(11, heartbeatSeconds_);
+      }
+      if (sendTimeMillis_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(12, sendTimeMillis_);
+      }
+      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(deviceId_)) {
+        size += com.google.protobuf.GeneratedMessage.computeStringSize(13, deviceId_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSize = size;
       return size;
@@ -430,6 +988,18 @@ public final class ChatMessageProto {
           != other.getStatus()) return false;
       if (getId()
           != other.getId()) return false;
+      if (getClientSeq()
+          != other.getClientSeq()) return false;
+      if (getBatchAck()
+          != other.getBatchAck()) return false;
+      if (getRoomId()
+          != other.getRoomId()) return false;
+      if (getHeartbeatSeconds()
+          != other.getHeartbeatSeconds()) return false;
+      if (getSendTimeMillis()
+          != other.getSendTimeMillis()) return false;
+      if (!getDeviceId()
+          .equals(other.getDeviceId())) return false;
       if (!getUnknownFields().equals(other.getUnknownFields())) return false;
       return true;
     }
@@ -458,6 +1028,22 @@ public final class ChatMessageProto {
       hash = (37 * hash) + ID_FIELD_NUMBER;
       hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
           getId());
+      hash = (37 * hash) + CLIENTSEQ_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getClientSeq());
+      hash = (37 * hash) + BATCHACK_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+          getBatchAck());
+      hash = (37 * hash) + ROOMID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getRoomId());
+      hash = (37 * hash) + HEARTBEATSECONDS_FIELD_NUMBER;
+      hash = (53 * hash) + getHeartbeatSeconds();
+      hash = (37 * hash) + SENDTIMEMILLIS_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getSendTimeMillis());
+      hash = (37 * hash) + DEVICEID_FIELD_NUMBER;
+      hash = (53 * hash) + getDeviceId().hashCode();
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -595,11 +1181,17 @@ public final class ChatMessageProto {
         bitField0_ = 0;
         fromUserId_ = 0L;
         toUserId_ = 0L;
-        content_ = "";
+        content_ = com.google.protobuf.ByteString.EMPTY;
         sendTime_ = "";
         type_ = 0;
         status_ = 0;
         id_ = 0L;
+        clientSeq_ = 0L;
+        batchAck_ = false;
+        roomId_ = 0L;
+        heartbeatSeconds_ = 0;
+        sendTimeMillis_ = 0L;
+        deviceId_ = "";
         return this;
       }
 
@@ -654,6 +1246,24 @@ public final class ChatMessageProto {
         if (((from_bitField0_ & 0x00000040) != 0)) {
           result.id_ = id_;
         }
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          result.clientSeq_ = clientSeq_;
+        }
+        if (((from_bitField0_ & 0x00000100) != 0)) {
+          result.batchAck_ = batchAck_;
+        }
+        if (((from_bitField0_ & 0x00000200) != 0)) {
+          result.roomId_ = roomId_;
+        }
+        if (((from_bitField0_ & 0x00000400) != 0)) {
+          result.heartbeatSeconds_ = heartbeatSeconds_;
+        }
+        if (((from_bitField0_ & 0x00000800) != 0)) {
+          result.sendTimeMillis_ = sendTimeMillis_;
+        }
+        if (((from_bitField0_ & 0x00001000) != 0)) {
+          result.deviceId_ = deviceId_;
+        }
       }
 
       @java.lang.Override
@@ -674,10 +1284,8 @@ public final class ChatMessageProto {
         if (other.getToUserId() != 0L) {
           setToUserId(other.getToUserId());
         }
-        if (!other.getContent().isEmpty()) {
-          content_ = other.content_;
-          bitField0_ |= 0x00000004;
-          onChanged();
+        if (other.getContent() != com.google.protobuf.ByteString.EMPTY) {
+          setContent(other.getContent());
         }
         if (!other.getSendTime().isEmpty()) {
           sendTime_ = other.sendTime_;
@@ -693,6 +1301,26 @@ public final class ChatMessageProto {
         if (other.getId() != 0L) {
           setId(other.getId());
         }
+        if (other.getClientSeq() != 0L) {
+          setClientSeq(other.getClientSeq());
+        }
+        if (other.getBatchAck() != false) {
+          setBatchAck(other.getBatchAck());
+        }
+        if (other.getRoomId() != 0L) {
+          setRoomId(other.getRoomId());
+        }
+        if (other.getHeartbeatSeconds() != 0) {
+          setHeartbeatSeconds(other.getHeartbeatSeconds());
+        }
+        if (other.getSendTimeMillis() != 0L) {
+          setSendTimeMillis(other.getSendTimeMillis());
+        }
+        if (!other.getDeviceId().isEmpty()) {
+          deviceId_ = other.deviceId_;
+          bitField0_ |= 0x00001000;
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         onChanged();
         return this;
@@ -730,7 +1358,7 @@ public final class ChatMessageProto {
                 break;
               } // case 16
               case 26: {
-                content_ = input.readStringRequireUtf8();
+                content_ = input.readBytes();
                 bitField0_ |= 0x00000004;
                 break;
               } // case 26
@@ -754,6 +1382,36 @@ public final class ChatMessageProto {
                 bitField0_ |= 0x00000040;
                 break;
               } // case 56
+              case 64: {
+                clientSeq_ = input.readInt64();
+                bitField0_ |= 0x00000080;
+                break;
+              } // case 64
+              case 72: {
+                batchAck_ = input.readBool();
+                bitField0_ |= 0x00000100;
+                break;
+              } // case 72
+              case 80: {
+                roomId_ = input.readInt64();
+                bitField0_ |= 0x00000200;
+                break;
+              } // case 80
+              case 88: {
+                heartbeatSeconds_ = input.readInt32();
+                bitField0_ |= 0x00000400;
+                break;
+              } // case 88
+              case 96: {
+                sendTimeMillis_ = input.readInt64();
+                bitField0_ |= 0x00000800;
+                break;
+              } // case 96
+              case 106: {
+                deviceId_ = input.readStringRequireUtf8();
+                bitField0_ |= 0x00001000;
+                break;
+              } // case 106
               default: {
                 if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                   done = true; // was an endgroup tag
@@ -859,59 +1517,29 @@ public final class ChatMessageProto {
         return this;
       }
 
-      private java.lang.Object content_ = "";
+      private com.google.protobuf.ByteString content_ = com.google.protobuf.ByteString.EMPTY;
       /**
        * <pre>
-       * 消息内容
+       * 消息内容(UTF-8),与string的线路格式相同;声明为bytes,服务端只转发的消息不会解码成String
        * </pre>
        *
-       * <code>string content = 3;</code>
+       * <code>bytes content = 3;</code>
        * @return The content.
        */
-      public java.lang.String getContent() {
-        java.lang.Object ref = content_;
-        if (!(ref instanceof java.lang.String)) {
-          com.google.protobuf.ByteString bs =
-              (com.google.protobuf.ByteString) ref;
-          java.lang.String s = bs.toStringUtf8();
-          content_ = s;
-          return s;
-        } else {
-          return (java.lang.String) ref;
-        }
-      }
-      /**
-       * <pre>
-       * 消息内容
-       * </pre>
-       *
-       * <code>string content = 3;</code>
-       * @return The bytes for content.
-       */
-      public com.google.protobuf.ByteString
-          getContentBytes() {
-        java.lang.Object ref = content_;
-        if (ref instanceof String) {
-          com.google.protobuf.ByteString b = 
-              com.google.protobuf.ByteString.copyFromUtf8(
-                  (java.lang.String) ref);
-          content_ = b;
-          return b;
-        } else {
-          return (com.google.protobuf.ByteString) ref;
-        }
+      @java.lang.Override
+      public com.google.protobuf.ByteString getContent() {
+        return content_;
       }
       /**
        * <pre>
-       * 消息内容
+       * 消息内容(UTF-8),与string的线路格式相同;声明为bytes,服务端只转发的消息不会解码成String
        * </pre>
        *
-       * <code>string content = 3;</code>
+       * <code>bytes content = 3;</code>
        * @param value The content to set.
        * @return This builder for chaining.
        */
-      public Builder setContent(
-          java.lang.String value) {
+      public Builder setContent(com.google.protobuf.ByteString value) {
         if (value == null) { throw new NullPointerException(); }
         content_ = value;
         bitField0_ |= 0x00000004;
@@ -920,33 +1548,15 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 消息内容
+       * 消息内容(UTF-8),与string的线路格式相同;声明为bytes,服务端只转发的消息不会解码成String
        * </pre>
        *
-       * <code>string content = 3;</code>
+       * <code>bytes content = 3;</code>
        * @return This builder for chaining.
        */
       public Builder clearContent() {
-        content_ = getDefaultInstance().getContent();
         bitField0_ = (bitField0_ & ~0x00000004);
-        onChanged();
-        return this;
-      }
-      /**
-       * <pre>
-       * 消息内容
-       * </pre>
-       *
-       * <code>string content = 3;</code>
-       * @param value The bytes for content to set.
-       * @return This builder for chaining.
-       */
-      public Builder setContentBytes(
-          com.google.protobuf.ByteString value) {
-        if (value == null) { throw new NullPointerException(); }
-        checkByteStringIsUtf8(value);
-        content_ = value;
-        bitField0_ |= 0x00000004;
+        content_ = getDefaultInstance().getContent();
         onChanged();
         return this;
       }
@@ -954,7 +1564,7 @@ public final class ChatMessageProto {
       private java.lang.Object sendTime_ = "";
       /**
        * <pre>
-       * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+       * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
        * </pre>
        *
        * <code>string sendTime = 4;</code>
@@ -974,7 +1584,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+       * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
        * </pre>
        *
        * <code>string sendTime = 4;</code>
@@ -995,7 +1605,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+       * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
        * </pre>
        *
        * <code>string sendTime = 4;</code>
@@ -1012,7 +1622,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+       * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
        * </pre>
        *
        * <code>string sendTime = 4;</code>
@@ -1026,7 +1636,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 发送时间,格式(yyyy-MM-dd HH:mm:ss）
+       * 发送时间,格式(yyyy-MM-dd HH:mm:ss),旧客户端使用,新代码使用sendTimeMillis
        * </pre>
        *
        * <code>string sendTime = 4;</code>
@@ -1046,7 +1656,7 @@ public final class ChatMessageProto {
       private int type_ ;
       /**
        * <pre>
-       * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息)
+       * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息|7系统消息|8加入群聊|9退出群聊|10拉取历史消息|11心跳配置)
        * </pre>
        *
        * <code>int32 type = 5;</code>
@@ -1058,7 +1668,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息)
+       * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息|7系统消息|8加入群聊|9退出群聊|10拉取历史消息|11心跳配置)
        * </pre>
        *
        * <code>int32 type = 5;</code>
@@ -1074,7 +1684,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息)
+       * 消息类型(0建立连接|1文本消息|2图片消息|3文件消息|4语音消息|5视频消息|6广告消息|7系统消息|8加入群聊|9退出群聊|10拉取历史消息|11心跳配置)
        * </pre>
        *
        * <code>int32 type = 5;</code>
@@ -1090,7 +1700,7 @@ public final class ChatMessageProto {
       private int status_ ;
       /**
        * <pre>
-       * 状态(0已发送|1已读|2发送失败|3已撤回)
+       * 状态(0已发送|1已读|2发送失败|3已撤回|4累计确认: clientSeq及之前的消息都已收到,只用于batchAck连接|5重复消息: 原消息已处理,原ID已无法查到)
        * </pre>
        *
        * <code>int32 status = 6;</code>
@@ -1102,7 +1712,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 状态(0已发送|1已读|2发送失败|3已撤回)
+       * 状态(0已发送|1已读|2发送失败|3已撤回|4累计确认: clientSeq及之前的消息都已收到,只用于batchAck连接|5重复消息: 原消息已处理,原ID已无法查到)
        * </pre>
        *
        * <code>int32 status = 6;</code>
@@ -1118,7 +1728,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 状态(0已发送|1已读|2发送失败|3已撤回)
+       * 状态(0已发送|1已读|2发送失败|3已撤回|4累计确认: clientSeq及之前的消息都已收到,只用于batchAck连接|5重复消息: 原消息已处理,原ID已无法查到)
        * </pre>
        *
        * <code>int32 status = 6;</code>
@@ -1134,7 +1744,7 @@ public final class ChatMessageProto {
       private long id_ ;
       /**
        * <pre>
-       * 消息唯一标识符(数据库自增生成)
+       * 消息唯一标识符(服务端收到消息时分配: 时间戳+序号+节点+EventLoop,同一发送者严格递增,会话内按因果顺序递增)
        * </pre>
        *
        * <code>int64 id = 7;</code>
@@ -1146,7 +1756,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 消息唯一标识符(数据库自增生成)
+       * 消息唯一标识符(服务端收到消息时分配: 时间戳+序号+节点+EventLoop,同一发送者严格递增,会话内按因果顺序递增)
        * </pre>
        *
        * <code>int64 id = 7;</code>
@@ -1162,7 +1772,7 @@ public final class ChatMessageProto {
       }
       /**
        * <pre>
-       * 消息唯一标识符(数据库自增生成)
+       * 消息唯一标识符(服务端收到消息时分配: 时间戳+序号+节点+EventLoop,同一发送者严格递增,会话内按因果顺序递增)
        * </pre>
        *
        * <code>int64 id = 7;</code>
@@ -1175,62 +1785,3273 @@ public final class ChatMessageProto {
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:ChatMessage)
-    }
-
-    // @@protoc_insertion_point(class_scope:ChatMessage)
-    private static final com.yen.model.proto.ChatMessageProto.ChatMessage DEFAULT_INSTANCE;
-    static {
-      DEFAULT_INSTANCE = new com.yen.model.proto.ChatMessageProto.ChatMessage();
-    }
-
-    public static com.yen.model.proto.ChatMessageProto.ChatMessage getDefaultInstance() {
-      return DEFAULT_INSTANCE;
-    }
-
-    private static final com.google.protobuf.Parser<ChatMessage>
-        PARSER = new com.google.protobuf.AbstractParser<ChatMessage>() {
+      private long clientSeq_ ;
+      /**
+       * <pre>
+       * 客户端消息序号(同一设备跨连接单调递增,服务端据此识别重发的消息,0表示不去重),确认消息中表示被确认的序号
+       * </pre>
+       *
+       * <code>int64 clientSeq = 8;</code>
+       * @return The clientSeq.
+       */
       @java.lang.Override
-      public ChatMessage parsePartialFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws com.google.protobuf.InvalidProtocolBufferException {
-        Builder builder = newBuilder();
-        try {
-          builder.mergeFrom(input, extensionRegistry);
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          throw e.setUnfinishedMessage(builder.buildPartial());
-        } catch (com.google.protobuf.UninitializedMessageException e) {
-          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
-        } catch (java.io.IOException e) {
-          throw new com.google.protobuf.InvalidProtocolBufferException(e)
-              .setUnfinishedMessage(builder.buildPartial());
-        }
-        return builder.buildPartial();
+      public long getClientSeq() {
+        return clientSeq_;
       }
-    };
-
-    public static com.google.protobuf.Parser<ChatMessage> parser() {
-      return PARSER;
-    }
+      /**
+       * <pre>
+       * 客户端消息序号(同一设备跨连接单调递增,服务端据此识别重发的消息,0表示不去重),确认消息中表示被确认的序号
+       * </pre>
+       *
+       * <code>int64 clientSeq = 8;</code>
+       * @param value The clientSeq to set.
+       * @return This builder for chaining.
+       */
+      public Builder setClientSeq(long value) {
 
-    @java.lang.Override
-    public com.google.protobuf.Parser<ChatMessage> getParserForType() {
-      return PARSER;
-    }
+        clientSeq_ = value;
+        bitField0_ |= 0x00000080;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 客户端消息序号(同一设备跨连接单调递增,服务端据此识别重发的消息,0表示不去重),确认消息中表示被确认的序号
+       * </pre>
+       *
+       * <code>int64 clientSeq = 8;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearClientSeq() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        clientSeq_ = 0L;
+        onChanged();
+        return this;
+      }
 
-    @java.lang.Override
-    public com.yen.model.proto.ChatMessageProto.ChatMessage getDefaultInstanceForType() {
-      return DEFAULT_INSTANCE;
-    }
+      private boolean batchAck_ ;
+      /**
+       * <pre>
+       * 建立连接时声明是否使用累计确认(每个读批次只确认一次已连续收到的最大clientSeq,回复status为4)
+       * </pre>
+       *
+       * <code>bool batchAck = 9;</code>
+       * @return The batchAck.
+       */
+      @java.lang.Override
+      public boolean getBatchAck() {
+        return batchAck_;
+      }
+      /**
+       * <pre>
+       * 建立连接时声明是否使用累计确认(每个读批次只确认一次已连续收到的最大clientSeq,回复status为4)
+       * </pre>
+       *
+       * <code>bool batchAck = 9;</code>
+       * @param value The batchAck to set.
+       * @return This builder for chaining.
+       */
+      public Builder setBatchAck(boolean value) {
 
-  }
+        batchAck_ = value;
+        bitField0_ |= 0x00000100;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 建立连接时声明是否使用累计确认(每个读批次只确认一次已连续收到的最大clientSeq,回复status为4)
+       * </pre>
+       *
+       * <code>bool batchAck = 9;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearBatchAck() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        batchAck_ = false;
+        onChanged();
+        return this;
+      }
 
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_ChatMessage_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_ChatMessage_fieldAccessorTable;
+      private long roomId_ ;
+      /**
+       * <pre>
+       * 群聊ID(不为0时为群聊消息,发给群内所有成员,此时忽略toUserId)
+       * </pre>
+       *
+       * <code>int64 roomId = 10;</code>
+       * @return The roomId.
+       */
+      @java.lang.Override
+      public long getRoomId() {
+        return roomId_;
+      }
+      /**
+       * <pre>
+       * 群聊ID(不为0时为群聊消息,发给群内所有成员,此时忽略toUserId)
+       * </pre>
+       *
+       * <code>int64 roomId = 10;</code>
+       * @param value The roomId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setRoomId(long value) {
+
+        roomId_ = value;
+        bitField0_ |= 0x00000200;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 群聊ID(不为0时为群聊消息,发给群内所有成员,此时忽略toUserId)
+       * </pre>
+       *
+       * <code>int64 roomId = 10;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearRoomId() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        roomId_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private int heartbeatSeconds_ ;
+      /**
+       * <pre>
+       * 服务端为该连接协商的心跳间隔(秒),只出现在心跳配置消息(type 11)中,客户端据此调整自己的心跳与断线判定
+       * </pre>
+       *
+       * <code>int32 heartbeatSeconds = 11;</code>
+       * @return The heartbeatSeconds.
+       */
+      @java.lang.Override
+      public int getHeartbeatSeconds() {
+        return heartbeatSeconds_;
+      }
+      /**
+       * <pre>
+       * 服务端为该连接协商的心跳间隔(秒),只出现在心跳配置消息(type 11)中,客户端据此调整自己的心跳与断线判定
+       * </pre>
+       *
+       * <code>int32 heartbeatSeconds = 11;</code>
+       * @param value The heartbeatSeconds to set.
+       * @return This builder for chaining.
+       */
+      public Builder setHeartbeatSeconds(int value) {
+
+        heartbeatSeconds_ = value;
+        bitField0_ |= 0x00000400;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 服务端为该连接协商的心跳间隔(秒),只出现在心跳配置消息(type 11)中,客户端据此调整自己的心跳与断线判定
+       * </pre>
+       *
+       * <code>int32 heartbeatSeconds = 11;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearHeartbeatSeconds() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        heartbeatSeconds_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long sendTimeMillis_ ;
+      /**
+       * <pre>
+       * 发送时间(epoch毫秒),服务端内部统一使用;转发给v1客户端时按需补齐sendTime
+       * </pre>
+       *
+       * <code>int64 sendTimeMillis = 12;</code>
+       * @return The sendTimeMillis.
+       */
+      @java.lang.Override
+      public long getSendTimeMillis() {
+        return sendTimeMillis_;
+      }
+      /**
+       * <pre>
+       * 发送时间(epoch毫秒),服务端内部统一使用;转发给v1客户端时按需补齐sendTime
+       * </pre>
+       *
+       * <code>int64 sendTimeMillis = 12;</code>
+       * @param value The sendTimeMillis to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSendTimeMillis(long value) {
+
+        sendTimeMillis_ = value;
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 发送时间(epoch毫秒),服务端内部统一使用;转发给v1客户端时按需补齐sendTime
+       * </pre>
+       *
+       * <code>int64 sendTimeMillis = 12;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSendTimeMillis() {
+        bitField0_ = (bitField0_ & ~0x00000800);
+        sendTimeMillis_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object deviceId_ = "";
+      /**
+       * <pre>
+       * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+       * </pre>
+       *
+       * <code>string deviceId = 13;</code>
+       * @return The deviceId.
+       */
+      public java.lang.String getDeviceId() {
+        java.lang.Object ref = deviceId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          deviceId_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+       * </pre>
+       *
+       * <code>string deviceId = 13;</code>
+       * @return The bytes for deviceId.
+       */
+      public com.google.protobuf.ByteString
+          getDeviceIdBytes() {
+        java.lang.Object ref = deviceId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          deviceId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+       * </pre>
+       *
+       * <code>string deviceId = 13;</code>
+       * @param value The deviceId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDeviceId(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        deviceId_ = value;
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+       * </pre>
+       *
+       * <code>string deviceId = 13;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDeviceId() {
+        deviceId_ = getDefaultInstance().getDeviceId();
+        bitField0_ = (bitField0_ & ~0x00001000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 建立连接时声明的设备标识(客户端持久化),同一设备重连后继续使用同一个去重窗口;为空时只在本连接内去重
+       * </pre>
+       *
+       * <code>string deviceId = 13;</code>
+       * @param value The bytes for deviceId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDeviceIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        checkByteStringIsUtf8(value);
+        deviceId_ = value;
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ChatMessage)
+    }
+
+    // @@protoc_insertion_point(class_scope:ChatMessage)
+    private static final com.yen.model.proto.ChatMessageProto.ChatMessage DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.yen.model.proto.ChatMessageProto.ChatMessage();
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatMessage getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<ChatMessage>
+        PARSER = new com.google.protobuf.AbstractParser<ChatMessage>() {
+      @java.lang.Override
+      public ChatMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<ChatMessage> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ChatMessage> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatMessage getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ChatBatchOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ChatBatch)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessage> 
+        getMessagesList();
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    com.yen.model.proto.ChatMessageProto.ChatMessage getMessages(int index);
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    int getMessagesCount();
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    java.util.List<? extends com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder> 
+        getMessagesOrBuilderList();
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder getMessagesOrBuilder(
+        int index);
+  }
+  /**
+   * <pre>
+   * 批量消息信封: 通过WebSocket子协议(chat.v1.batch)协商后,每个二进制帧承载一个ChatBatch
+   * </pre>
+   *
+   * Protobuf type {@code ChatBatch}
+   */
+  public static final class ChatBatch extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:ChatBatch)
+      ChatBatchOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 27,
+        /* patch= */ 2,
+        /* suffix= */ "",
+        ChatBatch.class.getName());
+    }
+    // Use ChatBatch.newBuilder() to construct.
+    private ChatBatch(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private ChatBatch() {
+      messages_ = java.util.Collections.emptyList();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatch_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatch_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.yen.model.proto.ChatMessageProto.ChatBatch.class, com.yen.model.proto.ChatMessageProto.ChatBatch.Builder.class);
+    }
+
+    public static final int MESSAGES_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessage> messages_;
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessage> getMessagesList() {
+      return messages_;
+    }
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder> 
+        getMessagesOrBuilderList() {
+      return messages_;
+    }
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    @java.lang.Override
+    public int getMessagesCount() {
+      return messages_.size();
+    }
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatMessage getMessages(int index) {
+      return messages_.get(index);
+    }
+    /**
+     * <code>repeated .ChatMessage messages = 1;</code>
+     */
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder getMessagesOrBuilder(
+        int index) {
+      return messages_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < messages_.size(); i++) {
+        output.writeMessage(1, messages_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < messages_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, messages_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.yen.model.proto.ChatMessageProto.ChatBatch)) {
+        return super.equals(obj);
+      }
+      com.yen.model.proto.ChatMessageProto.ChatBatch other = (com.yen.model.proto.ChatMessageProto.ChatBatch) obj;
+
+      if (!getMessagesList()
+          .equals(other.getMessagesList())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getMessagesCount() > 0) {
+        hash = (37 * hash) + MESSAGES_FIELD_NUMBER;
+        hash = (53 * hash) + getMessagesList().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.yen.model.proto.ChatMessageProto.ChatBatch prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * 批量消息信封: 通过WebSocket子协议(chat.v1.batch)协商后,每个二进制帧承载一个ChatBatch
+     * </pre>
+     *
+     * Protobuf type {@code ChatBatch}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:ChatBatch)
+        com.yen.model.proto.ChatMessageProto.ChatBatchOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatch_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatch_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.yen.model.proto.ChatMessageProto.ChatBatch.class, com.yen.model.proto.ChatMessageProto.ChatBatch.Builder.class);
+      }
+
+      // Construct using com.yen.model.proto.ChatMessageProto.ChatBatch.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        if (messagesBuilder_ == null) {
+          messages_ = java.util.Collections.emptyList();
+        } else {
+          messages_ = null;
+          messagesBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatch_descriptor;
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatBatch getDefaultInstanceForType() {
+        return com.yen.model.proto.ChatMessageProto.ChatBatch.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatBatch build() {
+        com.yen.model.proto.ChatMessageProto.ChatBatch result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatBatch buildPartial() {
+        com.yen.model.proto.ChatMessageProto.ChatBatch result = new com.yen.model.proto.ChatMessageProto.ChatBatch(this);
+        buildPartialRepeatedFields(result);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartialRepeatedFields(com.yen.model.proto.ChatMessageProto.ChatBatch result) {
+        if (messagesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            messages_ = java.util.Collections.unmodifiableList(messages_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.messages_ = messages_;
+        } else {
+          result.messages_ = messagesBuilder_.build();
+        }
+      }
+
+      private void buildPartial0(com.yen.model.proto.ChatMessageProto.ChatBatch result) {
+        int from_bitField0_ = bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.yen.model.proto.ChatMessageProto.ChatBatch) {
+          return mergeFrom((com.yen.model.proto.ChatMessageProto.ChatBatch)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.yen.model.proto.ChatMessageProto.ChatBatch other) {
+        if (other == com.yen.model.proto.ChatMessageProto.ChatBatch.getDefaultInstance()) return this;
+        if (messagesBuilder_ == null) {
+          if (!other.messages_.isEmpty()) {
+            if (messages_.isEmpty()) {
+              messages_ = other.messages_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureMessagesIsMutable();
+              messages_.addAll(other.messages_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.messages_.isEmpty()) {
+            if (messagesBuilder_.isEmpty()) {
+              messagesBuilder_.dispose();
+              messagesBuilder_ = null;
+              messages_ = other.messages_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              messagesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getMessagesFieldBuilder() : null;
+            } else {
+              messagesBuilder_.addAllMessages(other.messages_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                com.yen.model.proto.ChatMessageProto.ChatMessage m =
+                    input.readMessage(
+                        com.yen.model.proto.ChatMessageProto.ChatMessage.parser(),
+                        extensionRegistry);
+                if (messagesBuilder_ == null) {
+                  ensureMessagesIsMutable();
+                  messages_.add(m);
+                } else {
+                  messagesBuilder_.addMessage(m);
+                }
+                break;
+              } // case 10
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessage> messages_ =
+        java.util.Collections.emptyList();
+      private void ensureMessagesIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          messages_ = new java.util.ArrayList<com.yen.model.proto.ChatMessageProto.ChatMessage>(messages_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.yen.model.proto.ChatMessageProto.ChatMessage, com.yen.model.proto.ChatMessageProto.ChatMessage.Builder, com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder> messagesBuilder_;
+
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessage> getMessagesList() {
+        if (messagesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(messages_);
+        } else {
+          return messagesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public int getMessagesCount() {
+        if (messagesBuilder_ == null) {
+          return messages_.size();
+        } else {
+          return messagesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessage getMessages(int index) {
+        if (messagesBuilder_ == null) {
+          return messages_.get(index);
+        } else {
+          return messagesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder setMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessage value) {
+        if (messagesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessagesIsMutable();
+          messages_.set(index, value);
+          onChanged();
+        } else {
+          messagesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder setMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessage.Builder builderForValue) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          messagesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder addMessages(com.yen.model.proto.ChatMessageProto.ChatMessage value) {
+        if (messagesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessagesIsMutable();
+          messages_.add(value);
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder addMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessage value) {
+        if (messagesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessagesIsMutable();
+          messages_.add(index, value);
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder addMessages(
+          com.yen.model.proto.ChatMessageProto.ChatMessage.Builder builderForValue) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.add(builderForValue.build());
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder addMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessage.Builder builderForValue) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder addAllMessages(
+          java.lang.Iterable<? extends com.yen.model.proto.ChatMessageProto.ChatMessage> values) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, messages_);
+          onChanged();
+        } else {
+          messagesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder clearMessages() {
+        if (messagesBuilder_ == null) {
+          messages_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          messagesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public Builder removeMessages(int index) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.remove(index);
+          onChanged();
+        } else {
+          messagesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessage.Builder getMessagesBuilder(
+          int index) {
+        return getMessagesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder getMessagesOrBuilder(
+          int index) {
+        if (messagesBuilder_ == null) {
+          return messages_.get(index);  } else {
+          return messagesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public java.util.List<? extends com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder> 
+           getMessagesOrBuilderList() {
+        if (messagesBuilder_ != null) {
+          return messagesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(messages_);
+        }
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessage.Builder addMessagesBuilder() {
+        return getMessagesFieldBuilder().addBuilder(
+            com.yen.model.proto.ChatMessageProto.ChatMessage.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessage.Builder addMessagesBuilder(
+          int index) {
+        return getMessagesFieldBuilder().addBuilder(
+            index, com.yen.model.proto.ChatMessageProto.ChatMessage.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .ChatMessage messages = 1;</code>
+       */
+      public java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessage.Builder> 
+           getMessagesBuilderList() {
+        return getMessagesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.yen.model.proto.ChatMessageProto.ChatMessage, com.yen.model.proto.ChatMessageProto.ChatMessage.Builder, com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder> 
+          getMessagesFieldBuilder() {
+        if (messagesBuilder_ == null) {
+          messagesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.yen.model.proto.ChatMessageProto.ChatMessage, com.yen.model.proto.ChatMessageProto.ChatMessage.Builder, com.yen.model.proto.ChatMessageProto.ChatMessageOrBuilder>(
+                  messages_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          messages_ = null;
+        }
+        return messagesBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ChatBatch)
+    }
+
+    // @@protoc_insertion_point(class_scope:ChatBatch)
+    private static final com.yen.model.proto.ChatMessageProto.ChatBatch DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.yen.model.proto.ChatMessageProto.ChatBatch();
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatch getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<ChatBatch>
+        PARSER = new com.google.protobuf.AbstractParser<ChatBatch>() {
+      @java.lang.Override
+      public ChatBatch parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<ChatBatch> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ChatBatch> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatBatch getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ChatMessageV2OrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ChatMessageV2)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int64 fromUserId = 1;</code>
+     * @return The fromUserId.
+     */
+    long getFromUserId();
+
+    /**
+     * <code>int64 toUserId = 2;</code>
+     * @return The toUserId.
+     */
+    long getToUserId();
+
+    /**
+     * <code>bytes content = 3;</code>
+     * @return The content.
+     */
+    com.google.protobuf.ByteString getContent();
+
+    /**
+     * <pre>
+     * 发送时间(epoch毫秒),varint编码当前时间约6字节
+     * </pre>
+     *
+     * <code>int64 sendTime = 4;</code>
+     * @return The sendTime.
+     */
+    long getSendTime();
+
+    /**
+     * <code>.MessageKind type = 5;</code>
+     * @return The enum numeric value on the wire for type.
+     */
+    int getTypeValue();
+    /**
+     * <code>.MessageKind type = 5;</code>
+     * @return The type.
+     */
+    com.yen.model.proto.ChatMessageProto.MessageKind getType();
+
+    /**
+     * <code>.DeliveryStatus status = 6;</code>
+     * @return The enum numeric value on the wire for status.
+     */
+    int getStatusValue();
+    /**
+     * <code>.DeliveryStatus status = 6;</code>
+     * @return The status.
+     */
+    com.yen.model.proto.ChatMessageProto.DeliveryStatus getStatus();
+
+    /**
+     * <code>int64 id = 7;</code>
+     * @return The id.
+     */
+    long getId();
+
+    /**
+     * <code>int64 clientSeq = 8;</code>
+     * @return The clientSeq.
+     */
+    long getClientSeq();
+
+    /**
+     * <code>bool batchAck = 9;</code>
+     * @return The batchAck.
+     */
+    boolean getBatchAck();
+
+    /**
+     * <code>int64 roomId = 10;</code>
+     * @return The roomId.
+     */
+    long getRoomId();
+
+    /**
+     * <code>int32 heartbeatSeconds = 11;</code>
+     * @return The heartbeatSeconds.
+     */
+    int getHeartbeatSeconds();
+
+    /**
+     * <code>string deviceId = 13;</code>
+     * @return The deviceId.
+     */
+    java.lang.String getDeviceId();
+    /**
+     * <code>string deviceId = 13;</code>
+     * @return The bytes for deviceId.
+     */
+    com.google.protobuf.ByteString
+        getDeviceIdBytes();
+  }
+  /**
+   * Protobuf type {@code ChatMessageV2}
+   */
+  public static final class ChatMessageV2 extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:ChatMessageV2)
+      ChatMessageV2OrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 27,
+        /* patch= */ 2,
+        /* suffix= */ "",
+        ChatMessageV2.class.getName());
+    }
+    // Use ChatMessageV2.newBuilder() to construct.
+    private ChatMessageV2(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private ChatMessageV2() {
+      content_ = com.google.protobuf.ByteString.EMPTY;
+      type_ = 0;
+      status_ = 0;
+      deviceId_ = "";
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.yen.model.proto.ChatMessageProto.internal_static_ChatMessageV2_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.yen.model.proto.ChatMessageProto.internal_static_ChatMessageV2_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.yen.model.proto.ChatMessageProto.ChatMessageV2.class, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder.class);
+    }
+
+    public static final int FROMUSERID_FIELD_NUMBER = 1;
+    private long fromUserId_ = 0L;
+    /**
+     * <code>int64 fromUserId = 1;</code>
+     * @return The fromUserId.
+     */
+    @java.lang.Override
+    public long getFromUserId() {
+      return fromUserId_;
+    }
+
+    public static final int TOUSERID_FIELD_NUMBER = 2;
+    private long toUserId_ = 0L;
+    /**
+     * <code>int64 toUserId = 2;</code>
+     * @return The toUserId.
+     */
+    @java.lang.Override
+    public long getToUserId() {
+      return toUserId_;
+    }
+
+    public static final int CONTENT_FIELD_NUMBER = 3;
+    private com.google.protobuf.ByteString content_ = com.google.protobuf.ByteString.EMPTY;
+    /**
+     * <code>bytes content = 3;</code>
+     * @return The content.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString getContent() {
+      return content_;
+    }
+
+    public static final int SENDTIME_FIELD_NUMBER = 4;
+    private long sendTime_ = 0L;
+    /**
+     * <pre>
+     * 发送时间(epoch毫秒),varint编码当前时间约6字节
+     * </pre>
+     *
+     * <code>int64 sendTime = 4;</code>
+     * @return The sendTime.
+     */
+    @java.lang.Override
+    public long getSendTime() {
+      return sendTime_;
+    }
+
+    public static final int TYPE_FIELD_NUMBER = 5;
+    private int type_ = 0;
+    /**
+     * <code>.MessageKind type = 5;</code>
+     * @return The enum numeric value on the wire for type.
+     */
+    @java.lang.Override public int getTypeValue() {
+      return type_;
+    }
+    /**
+     * <code>.MessageKind type = 5;</code>
+     * @return The type.
+     */
+    @java.lang.Override public com.yen.model.proto.ChatMessageProto.MessageKind getType() {
+      com.yen.model.proto.ChatMessageProto.MessageKind result = com.yen.model.proto.ChatMessageProto.MessageKind.forNumber(type_);
+      return result == null ? com.yen.model.proto.ChatMessageProto.MessageKind.UNRECOGNIZED : result;
+    }
+
+    public static final int STATUS_FIELD_NUMBER = 6;
+    private int status_ = 0;
+    /**
+     * <code>.DeliveryStatus status = 6;</code>
+     * @return The enum numeric value on the wire for status.
+     */
+    @java.lang.Override public int getStatusValue() {
+      return status_;
+    }
+    /**
+     * <code>.DeliveryStatus status = 6;</code>
+     * @return The status.
+     */
+    @java.lang.Override public com.yen.model.proto.ChatMessageProto.DeliveryStatus getStatus() {
+      com.yen.model.proto.ChatMessageProto.DeliveryStatus result = com.yen.model.proto.ChatMessageProto.DeliveryStatus.forNumber(status_);
+      return result == null ? com.yen.model.proto.ChatMessageProto.DeliveryStatus.UNRECOGNIZED : result;
+    }
+
+    public static final int ID_FIELD_NUMBER = 7;
+    private long id_ = 0L;
+    /**
+     * <code>int64 id = 7;</code>
+     * @return The id.
+     */
+    @java.lang.Override
+    public long getId() {
+      return id_;
+    }
+
+    public static final int CLIENTSEQ_FIELD_NUMBER = 8;
+    private long clientSeq_ = 0L;
+    /**
+     * <code>int64 clientSeq = 8;</code>
+     * @return The clientSeq.
+     */
+    @java.lang.Override
+    public long getClientSeq() {
+      return clientSeq_;
+    }
+
+    public static final int BATCHACK_FIELD_NUMBER = 9;
+    private boolean batchAck_ = false;
+    /**
+     * <code>bool batchAck = 9;</code>
+     * @return The batchAck.
+     */
+    @java.lang.Override
+    public boolean getBatchAck() {
+      return batchAck_;
+    }
+
+    public static final int ROOMID_FIELD_NUMBER = 10;
+    private long roomId_ = 0L;
+    /**
+     * <code>int64 roomId = 10;</code>
+     * @return The roomId.
+     */
+    @java.lang.Override
+    public long getRoomId() {
+      return roomId_;
+    }
+
+    public static final int HEARTBEATSECONDS_FIELD_NUMBER = 11;
+    private int heartbeatSeconds_ = 0;
+    /**
+     * <code>int32 heartbeatSeconds = 11;</code>
+     * @return The heartbeatSeconds.
+     */
+    @java.lang.Override
+    public int getHeartbeatSeconds() {
+      return heartbeatSeconds_;
+    }
+
+    public static final int DEVICEID_FIELD_NUMBER = 13;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object deviceId_ = "";
+    /**
+     * <code>string deviceId = 13;</code>
+     * @return The deviceId.
+     */
+    @java.lang.Override
+    public java.lang.String getDeviceId() {
+      java.lang.Object ref = deviceId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        deviceId_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string deviceId = 13;</code>
+     * @return The bytes for deviceId.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getDeviceIdBytes() {
+      java.lang.Object ref = deviceId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        deviceId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (fromUserId_ != 0L) {
+        output.writeInt64(1, fromUserId_);
+      }
+      if (toUserId_ != 0L) {
+        output.writeInt64(2, toUserId_);
+      }
+      if (!content_.isEmpty()) {
+        output.writeBytes(3, content_);
+      }
+      if (sendTime_ != 0L) {
+        output.writeInt64(4, sendTime_);
+      }
+      if (type_ != com.yen.model.proto.ChatMessageProto.MessageKind.CONNECT.getNumber()) {
+        output.writeEnum(5, type_);
+      }
+      if (status_ != com.yen.model.proto.ChatMessageProto.DeliveryStatus.SENT.getNumber()) {
+        output.writeEnum(6, status_);
+      }
+      if (id_ != 0L) {
+        output.writeInt64(7, id_);
+      }
+      if (clientSeq_ != 0L) {
+        output.writeInt64(8, clientSeq_);
+      }
+      if (batchAck_ != false) {
+        output.writeBool(9, batchAck_);
+      }
+      if (roomId_ != 0L) {
+        output.writeInt64(10, roomId_);
+      }
+      if (heartbeatSeconds_ != 0) {
+        output.writeInt32(11, heartbeatSeconds_);
+      }
+      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(deviceId_)) {
+        com.google.protobuf.GeneratedMessage.writeString(output, 13, deviceId_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (fromUserId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, fromUserId_);
+      }
+      if (toUserId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, toUserId_);
+      }
+      if (!content_.isEmpty()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, content_);
+      }
+      if (sendTime_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, sendTime_);
+      }
+      if (type_ != com.yen.model.proto.ChatMessageProto.MessageKind.CONNECT.getNumber()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(5, type_);
+      }
+      if (status_ != com.yen.model.proto.ChatMessageProto.DeliveryStatus.SENT.getNumber()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(6, status_);
+      }
+      if (id_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(7, id_);
+      }
+      if (clientSeq_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(8, clientSeq_);
+      }
+      if (batchAck_ != false) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(9, batchAck_);
+      }
+      if (roomId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(10, roomId_);
+      }
+      if (heartbeatSeconds_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(11, heartbeatSeconds_);
+      }
+      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(deviceId_)) {
+        size += com.google.protobuf.GeneratedMessage.computeStringSize(13, deviceId_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.yen.model.proto.ChatMessageProto.ChatMessageV2)) {
+        return super.equals(obj);
+      }
+      com.yen.model.proto.ChatMessageProto.ChatMessageV2 other = (com.yen.model.proto.ChatMessageProto.ChatMessageV2) obj;
+
+      if (getFromUserId()
+          != other.getFromUserId()) return false;
+      if (getToUserId()
+          != other.getToUserId()) return false;
+      if (!getContent()
+          .equals(other.getContent())) return false;
+      if (getSendTime()
+          != other.getSendTime()) return false;
+      if (type_ != other.type_) return false;
+      if (status_ != other.status_) return false;
+      if (getId()
+          != other.getId()) return false;
+      if (getClientSeq()
+          != other.getClientSeq()) return false;
+      if (getBatchAck()
+          != other.getBatchAck()) return false;
+      if (getRoomId()
+          != other.getRoomId()) return false;
+      if (getHeartbeatSeconds()
+          != other.getHeartbeatSeconds()) return false;
+      if (!getDeviceId()
+          .equals(other.getDeviceId())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + FROMUSERID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getFromUserId());
+      hash = (37 * hash) + TOUSERID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getToUserId());
+      hash = (37 * hash) + CONTENT_FIELD_NUMBER;
+      hash = (53 * hash) + getContent().hashCode();
+      hash = (37 * hash) + SENDTIME_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getSendTime());
+      hash = (37 * hash) + TYPE_FIELD_NUMBER;
+      hash = (53 * hash) + type_;
+      hash = (37 * hash) + STATUS_FIELD_NUMBER;
+      hash = (53 * hash) + status_;
+      hash = (37 * hash) + ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getId());
+      hash = (37 * hash) + CLIENTSEQ_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getClientSeq());
+      hash = (37 * hash) + BATCHACK_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+          getBatchAck());
+      hash = (37 * hash) + ROOMID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getRoomId());
+      hash = (37 * hash) + HEARTBEATSECONDS_FIELD_NUMBER;
+      hash = (53 * hash) + getHeartbeatSeconds();
+      hash = (37 * hash) + DEVICEID_FIELD_NUMBER;
+      hash = (53 * hash) + getDeviceId().hashCode();
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.yen.model.proto.ChatMessageProto.ChatMessageV2 prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code ChatMessageV2}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:ChatMessageV2)
+        com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatMessageV2_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatMessageV2_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.yen.model.proto.ChatMessageProto.ChatMessageV2.class, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder.class);
+      }
+
+      // Construct using com.yen.model.proto.ChatMessageProto.ChatMessageV2.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        fromUserId_ = 0L;
+        toUserId_ = 0L;
+        content_ = com.google.protobuf.ByteString.EMPTY;
+        sendTime_ = 0L;
+        type_ = 0;
+        status_ = 0;
+        id_ = 0L;
+        clientSeq_ = 0L;
+        batchAck_ = false;
+        roomId_ = 0L;
+        heartbeatSeconds_ = 0;
+        deviceId_ = "";
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatMessageV2_descriptor;
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2 getDefaultInstanceForType() {
+        return com.yen.model.proto.ChatMessageProto.ChatMessageV2.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2 build() {
+        com.yen.model.proto.ChatMessageProto.ChatMessageV2 result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2 buildPartial() {
+        com.yen.model.proto.ChatMessageProto.ChatMessageV2 result = new com.yen.model.proto.ChatMessageProto.ChatMessageV2(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(com.yen.model.proto.ChatMessageProto.ChatMessageV2 result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.fromUserId_ = fromUserId_;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.toUserId_ = toUserId_;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.content_ = content_;
+        }
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          result.sendTime_ = sendTime_;
+        }
+        if (((from_bitField0_ & 0x00000010) != 0)) {
+          result.type_ = type_;
+        }
+        if (((from_bitField0_ & 0x00000020) != 0)) {
+          result.status_ = status_;
+        }
+        if (((from_bitField0_ & 0x00000040) != 0)) {
+          result.id_ = id_;
+        }
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          result.clientSeq_ = clientSeq_;
+        }
+        if (((from_bitField0_ & 0x00000100) != 0)) {
+          result.batchAck_ = batchAck_;
+        }
+        if (((from_bitField0_ & 0x00000200) != 0)) {
+          result.roomId_ = roomId_;
+        }
+        if (((from_bitField0_ & 0x00000400) != 0)) {
+          result.heartbeatSeconds_ = heartbeatSeconds_;
+        }
+        if (((from_bitField0_ & 0x00000800) != 0)) {
+          result.deviceId_ = deviceId_;
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.yen.model.proto.ChatMessageProto.ChatMessageV2) {
+          return mergeFrom((com.yen.model.proto.ChatMessageProto.ChatMessageV2)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.yen.model.proto.ChatMessageProto.ChatMessageV2 other) {
+        if (other == com.yen.model.proto.ChatMessageProto.ChatMessageV2.getDefaultInstance()) return this;
+        if (other.getFromUserId() != 0L) {
+          setFromUserId(other.getFromUserId());
+        }
+        if (other.getToUserId() != 0L) {
+          setToUserId(other.getToUserId());
+        }
+        if (other.getContent() != com.google.protobuf.ByteString.EMPTY) {
+          setContent(other.getContent());
+        }
+        if (other.getSendTime() != 0L) {
+          setSendTime(other.getSendTime());
+        }
+        if (other.type_ != 0) {
+          setTypeValue(other.getTypeValue());
+        }
+        if (other.status_ != 0) {
+          setStatusValue(other.getStatusValue());
+        }
+        if (other.getId() != 0L) {
+          setId(other.getId());
+        }
+        if (other.getClientSeq() != 0L) {
+          setClientSeq(other.getClientSeq());
+        }
+        if (other.getBatchAck() != false) {
+          setBatchAck(other.getBatchAck());
+        }
+        if (other.getRoomId() != 0L) {
+          setRoomId(other.getRoomId());
+        }
+        if (other.getHeartbeatSeconds() != 0) {
+          setHeartbeatSeconds(other.getHeartbeatSeconds());
+        }
+        if (!other.getDeviceId().isEmpty()) {
+          deviceId_ = other.deviceId_;
+          bitField0_ |= 0x00000800;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                fromUserId_ = input.readInt64();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 8
+              case 16: {
+                toUserId_ = input.readInt64();
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 16
+              case 26: {
+                content_ = input.readBytes();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 26
+              case 32: {
+                sendTime_ = input.readInt64();
+                bitField0_ |= 0x00000008;
+                break;
+              } // case 32
+              case 40: {
+                type_ = input.readEnum();
+                bitField0_ |= 0x00000010;
+                break;
+              } // case 40
+              case 48: {
+                status_ = input.readEnum();
+                bitField0_ |= 0x00000020;
+                break;
+              } // case 48
+              case 56: {
+                id_ = input.readInt64();
+                bitField0_ |= 0x00000040;
+                break;
+              } // case 56
+              case 64: {
+                clientSeq_ = input.readInt64();
+                bitField0_ |= 0x00000080;
+                break;
+              } // case 64
+              case 72: {
+                batchAck_ = input.readBool();
+                bitField0_ |= 0x00000100;
+                break;
+              } // case 72
+              case 80: {
+                roomId_ = input.readInt64();
+                bitField0_ |= 0x00000200;
+                break;
+              } // case 80
+              case 88: {
+                heartbeatSeconds_ = input.readInt32();
+                bitField0_ |= 0x00000400;
+                break;
+              } // case 88
+              case 106: {
+                deviceId_ = input.readStringRequireUtf8();
+                bitField0_ |= 0x00000800;
+                break;
+              } // case 106
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private long fromUserId_ ;
+      /**
+       * <code>int64 fromUserId = 1;</code>
+       * @return The fromUserId.
+       */
+      @java.lang.Override
+      public long getFromUserId() {
+        return fromUserId_;
+      }
+      /**
+       * <code>int64 fromUserId = 1;</code>
+       * @param value The fromUserId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setFromUserId(long value) {
+
+        fromUserId_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 fromUserId = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearFromUserId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        fromUserId_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long toUserId_ ;
+      /**
+       * <code>int64 toUserId = 2;</code>
+       * @return The toUserId.
+       */
+      @java.lang.Override
+      public long getToUserId() {
+        return toUserId_;
+      }
+      /**
+       * <code>int64 toUserId = 2;</code>
+       * @param value The toUserId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setToUserId(long value) {
+
+        toUserId_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 toUserId = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearToUserId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        toUserId_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString content_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>bytes content = 3;</code>
+       * @return The content.
+       */
+      @java.lang.Override
+      public com.google.protobuf.ByteString getContent() {
+        return content_;
+      }
+      /**
+       * <code>bytes content = 3;</code>
+       * @param value The content to set.
+       * @return This builder for chaining.
+       */
+      public Builder setContent(com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        content_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>bytes content = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearContent() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        content_ = getDefaultInstance().getContent();
+        onChanged();
+        return this;
+      }
+
+      private long sendTime_ ;
+      /**
+       * <pre>
+       * 发送时间(epoch毫秒),varint编码当前时间约6字节
+       * </pre>
+       *
+       * <code>int64 sendTime = 4;</code>
+       * @return The sendTime.
+       */
+      @java.lang.Override
+      public long getSendTime() {
+        return sendTime_;
+      }
+      /**
+       * <pre>
+       * 发送时间(epoch毫秒),varint编码当前时间约6字节
+       * </pre>
+       *
+       * <code>int64 sendTime = 4;</code>
+       * @param value The sendTime to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSendTime(long value) {
+
+        sendTime_ = value;
+        bitField0_ |= 0x00000008;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * 发送时间(epoch毫秒),varint编码当前时间约6字节
+       * </pre>
+       *
+       * <code>int64 sendTime = 4;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSendTime() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        sendTime_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private int type_ = 0;
+      /**
+       * <code>.MessageKind type = 5;</code>
+       * @return The enum numeric value on the wire for type.
+       */
+      @java.lang.Override public int getTypeValue() {
+        return type_;
+      }
+      /**
+       * <code>.MessageKind type = 5;</code>
+       * @param value The enum numeric value on the wire for type to set.
+       * @return This builder for chaining.
+       */
+      public Builder setTypeValue(int value) {
+        type_ = value;
+        bitField0_ |= 0x00000010;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.MessageKind type = 5;</code>
+       * @return The type.
+       */
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.MessageKind getType() {
+        com.yen.model.proto.ChatMessageProto.MessageKind result = com.yen.model.proto.ChatMessageProto.MessageKind.forNumber(type_);
+        return result == null ? com.yen.model.proto.ChatMessageProto.MessageKind.UNRECOGNIZED : result;
+      }
+      /**
+       * <code>.MessageKind type = 5;</code>
+       * @param value The type to set.
+       * @return This builder for chaining.
+       */
+      public Builder setType(com.yen.model.proto.ChatMessageProto.MessageKind value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000010;
+        type_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.MessageKind type = 5;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearType() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        type_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private int status_ = 0;
+      /**
+       * <code>.DeliveryStatus status = 6;</code>
+       * @return The enum numeric value on the wire for status.
+       */
+      @java.lang.Override public int getStatusValue() {
+        return status_;
+      }
+      /**
+       * <code>.DeliveryStatus status = 6;</code>
+       * @param value The enum numeric value on the wire for status to set.
+       * @return This builder for chaining.
+       */
+      public Builder setStatusValue(int value) {
+        status_ = value;
+        bitField0_ |= 0x00000020;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.DeliveryStatus status = 6;</code>
+       * @return The status.
+       */
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.DeliveryStatus getStatus() {
+        com.yen.model.proto.ChatMessageProto.DeliveryStatus result = com.yen.model.proto.ChatMessageProto.DeliveryStatus.forNumber(status_);
+        return result == null ? com.yen.model.proto.ChatMessageProto.DeliveryStatus.UNRECOGNIZED : result;
+      }
+      /**
+       * <code>.DeliveryStatus status = 6;</code>
+       * @param value The status to set.
+       * @return This builder for chaining.
+       */
+      public Builder setStatus(com.yen.model.proto.ChatMessageProto.DeliveryStatus value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000020;
+        status_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.DeliveryStatus status = 6;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearStatus() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        status_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long id_ ;
+      /**
+       * <code>int64 id = 7;</code>
+       * @return The id.
+       */
+      @java.lang.Override
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <code>int64 id = 7;</code>
+       * @param value The id to set.
+       * @return This builder for chaining.
+       */
+      public Builder setId(long value) {
+
+        id_ = value;
+        bitField0_ |= 0x00000040;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 id = 7;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long clientSeq_ ;
+      /**
+       * <code>int64 clientSeq = 8;</code>
+       * @return The clientSeq.
+       */
+      @java.lang.Override
+      public long getClientSeq() {
+        return clientSeq_;
+      }
+      /**
+       * <code>int64 clientSeq = 8;</code>
+       * @param value The clientSeq to set.
+       * @return This builder for chaining.
+       */
+      public Builder setClientSeq(long value) {
+
+        clientSeq_ = value;
+        bitField0_ |= 0x00000080;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 clientSeq = 8;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearClientSeq() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        clientSeq_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private boolean batchAck_ ;
+      /**
+       * <code>bool batchAck = 9;</code>
+       * @return The batchAck.
+       */
+      @java.lang.Override
+      public boolean getBatchAck() {
+        return batchAck_;
+      }
+      /**
+       * <code>bool batchAck = 9;</code>
+       * @param value The batchAck to set.
+       * @return This builder for chaining.
+       */
+      public Builder setBatchAck(boolean value) {
+
+        batchAck_ = value;
+        bitField0_ |= 0x00000100;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>bool batchAck = 9;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearBatchAck() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        batchAck_ = false;
+        onChanged();
+        return this;
+      }
+
+      private long roomId_ ;
+      /**
+       * <code>int64 roomId = 10;</code>
+       * @return The roomId.
+       */
+      @java.lang.Override
+      public long getRoomId() {
+        return roomId_;
+      }
+      /**
+       * <code>int64 roomId = 10;</code>
+       * @param value The roomId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setRoomId(long value) {
+
+        roomId_ = value;
+        bitField0_ |= 0x00000200;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 roomId = 10;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearRoomId() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        roomId_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private int heartbeatSeconds_ ;
+      /**
+       * <code>int32 heartbeatSeconds = 11;</code>
+       * @return The heartbeatSeconds.
+       */
+      @java.lang.Override
+      public int getHeartbeatSeconds() {
+        return heartbeatSeconds_;
+      }
+      /**
+       * <code>int32 heartbeatSeconds = 11;</code>
+       * @param value The heartbeatSeconds to set.
+       * @return This builder for chaining.
+       */
+      public Builder setHeartbeatSeconds(int value) {
+
+        heartbeatSeconds_ = value;
+        bitField0_ |= 0x00000400;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 heartbeatSeconds = 11;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearHeartbeatSeconds() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        heartbeatSeconds_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object deviceId_ = "";
+      /**
+       * <code>string deviceId = 13;</code>
+       * @return The deviceId.
+       */
+      public java.lang.String getDeviceId() {
+        java.lang.Object ref = deviceId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          deviceId_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string deviceId = 13;</code>
+       * @return The bytes for deviceId.
+       */
+      public com.google.protobuf.ByteString
+          getDeviceIdBytes() {
+        java.lang.Object ref = deviceId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          deviceId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string deviceId = 13;</code>
+       * @param value The deviceId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDeviceId(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        deviceId_ = value;
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string deviceId = 13;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDeviceId() {
+        deviceId_ = getDefaultInstance().getDeviceId();
+        bitField0_ = (bitField0_ & ~0x00000800);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string deviceId = 13;</code>
+       * @param value The bytes for deviceId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDeviceIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        checkByteStringIsUtf8(value);
+        deviceId_ = value;
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ChatMessageV2)
+    }
+
+    // @@protoc_insertion_point(class_scope:ChatMessageV2)
+    private static final com.yen.model.proto.ChatMessageProto.ChatMessageV2 DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.yen.model.proto.ChatMessageProto.ChatMessageV2();
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatMessageV2 getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<ChatMessageV2>
+        PARSER = new com.google.protobuf.AbstractParser<ChatMessageV2>() {
+      @java.lang.Override
+      public ChatMessageV2 parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<ChatMessageV2> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ChatMessageV2> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatMessageV2 getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ChatBatchV2OrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ChatBatchV2)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessageV2> 
+        getMessagesList();
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    com.yen.model.proto.ChatMessageProto.ChatMessageV2 getMessages(int index);
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    int getMessagesCount();
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    java.util.List<? extends com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder> 
+        getMessagesOrBuilderList();
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder getMessagesOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code ChatBatchV2}
+   */
+  public static final class ChatBatchV2 extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:ChatBatchV2)
+      ChatBatchV2OrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 27,
+        /* patch= */ 2,
+        /* suffix= */ "",
+        ChatBatchV2.class.getName());
+    }
+    // Use ChatBatchV2.newBuilder() to construct.
+    private ChatBatchV2(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private ChatBatchV2() {
+      messages_ = java.util.Collections.emptyList();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatchV2_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatchV2_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.yen.model.proto.ChatMessageProto.ChatBatchV2.class, com.yen.model.proto.ChatMessageProto.ChatBatchV2.Builder.class);
+    }
+
+    public static final int MESSAGES_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessageV2> messages_;
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessageV2> getMessagesList() {
+      return messages_;
+    }
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder> 
+        getMessagesOrBuilderList() {
+      return messages_;
+    }
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    @java.lang.Override
+    public int getMessagesCount() {
+      return messages_.size();
+    }
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatMessageV2 getMessages(int index) {
+      return messages_.get(index);
+    }
+    /**
+     * <code>repeated .ChatMessageV2 messages = 1;</code>
+     */
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder getMessagesOrBuilder(
+        int index) {
+      return messages_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < messages_.size(); i++) {
+        output.writeMessage(1, messages_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < messages_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, messages_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.yen.model.proto.ChatMessageProto.ChatBatchV2)) {
+        return super.equals(obj);
+      }
+      com.yen.model.proto.ChatMessageProto.ChatBatchV2 other = (com.yen.model.proto.ChatMessageProto.ChatBatchV2) obj;
+
+      if (!getMessagesList()
+          .equals(other.getMessagesList())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getMessagesCount() > 0) {
+        hash = (37 * hash) + MESSAGES_FIELD_NUMBER;
+        hash = (53 * hash) + getMessagesList().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.yen.model.proto.ChatMessageProto.ChatBatchV2 prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code ChatBatchV2}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:ChatBatchV2)
+        com.yen.model.proto.ChatMessageProto.ChatBatchV2OrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatchV2_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatchV2_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.yen.model.proto.ChatMessageProto.ChatBatchV2.class, com.yen.model.proto.ChatMessageProto.ChatBatchV2.Builder.class);
+      }
+
+      // Construct using com.yen.model.proto.ChatMessageProto.ChatBatchV2.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        if (messagesBuilder_ == null) {
+          messages_ = java.util.Collections.emptyList();
+        } else {
+          messages_ = null;
+          messagesBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.yen.model.proto.ChatMessageProto.internal_static_ChatBatchV2_descriptor;
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatBatchV2 getDefaultInstanceForType() {
+        return com.yen.model.proto.ChatMessageProto.ChatBatchV2.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatBatchV2 build() {
+        com.yen.model.proto.ChatMessageProto.ChatBatchV2 result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public com.yen.model.proto.ChatMessageProto.ChatBatchV2 buildPartial() {
+        com.yen.model.proto.ChatMessageProto.ChatBatchV2 result = new com.yen.model.proto.ChatMessageProto.ChatBatchV2(this);
+        buildPartialRepeatedFields(result);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartialRepeatedFields(com.yen.model.proto.ChatMessageProto.ChatBatchV2 result) {
+        if (messagesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            messages_ = java.util.Collections.unmodifiableList(messages_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.messages_ = messages_;
+        } else {
+          result.messages_ = messagesBuilder_.build();
+        }
+      }
+
+      private void buildPartial0(com.yen.model.proto.ChatMessageProto.ChatBatchV2 result) {
+        int from_bitField0_ = bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.yen.model.proto.ChatMessageProto.ChatBatchV2) {
+          return mergeFrom((com.yen.model.proto.ChatMessageProto.ChatBatchV2)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.yen.model.proto.ChatMessageProto.ChatBatchV2 other) {
+        if (other == com.yen.model.proto.ChatMessageProto.ChatBatchV2.getDefaultInstance()) return this;
+        if (messagesBuilder_ == null) {
+          if (!other.messages_.isEmpty()) {
+            if (messages_.isEmpty()) {
+              messages_ = other.messages_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureMessagesIsMutable();
+              messages_.addAll(other.messages_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.messages_.isEmpty()) {
+            if (messagesBuilder_.isEmpty()) {
+              messagesBuilder_.dispose();
+              messagesBuilder_ = null;
+              messages_ = other.messages_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              messagesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getMessagesFieldBuilder() : null;
+            } else {
+              messagesBuilder_.addAllMessages(other.messages_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                com.yen.model.proto.ChatMessageProto.ChatMessageV2 m =
+                    input.readMessage(
+                        com.yen.model.proto.ChatMessageProto.ChatMessageV2.parser(),
+                        extensionRegistry);
+                if (messagesBuilder_ == null) {
+                  ensureMessagesIsMutable();
+                  messages_.add(m);
+                } else {
+                  messagesBuilder_.addMessage(m);
+                }
+                break;
+              } // case 10
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessageV2> messages_ =
+        java.util.Collections.emptyList();
+      private void ensureMessagesIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          messages_ = new java.util.ArrayList<com.yen.model.proto.ChatMessageProto.ChatMessageV2>(messages_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.yen.model.proto.ChatMessageProto.ChatMessageV2, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder, com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder> messagesBuilder_;
+
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessageV2> getMessagesList() {
+        if (messagesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(messages_);
+        } else {
+          return messagesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public int getMessagesCount() {
+        if (messagesBuilder_ == null) {
+          return messages_.size();
+        } else {
+          return messagesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2 getMessages(int index) {
+        if (messagesBuilder_ == null) {
+          return messages_.get(index);
+        } else {
+          return messagesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder setMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessageV2 value) {
+        if (messagesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessagesIsMutable();
+          messages_.set(index, value);
+          onChanged();
+        } else {
+          messagesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder setMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder builderForValue) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          messagesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder addMessages(com.yen.model.proto.ChatMessageProto.ChatMessageV2 value) {
+        if (messagesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessagesIsMutable();
+          messages_.add(value);
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder addMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessageV2 value) {
+        if (messagesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessagesIsMutable();
+          messages_.add(index, value);
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder addMessages(
+          com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder builderForValue) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.add(builderForValue.build());
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder addMessages(
+          int index, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder builderForValue) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          messagesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder addAllMessages(
+          java.lang.Iterable<? extends com.yen.model.proto.ChatMessageProto.ChatMessageV2> values) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, messages_);
+          onChanged();
+        } else {
+          messagesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder clearMessages() {
+        if (messagesBuilder_ == null) {
+          messages_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          messagesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public Builder removeMessages(int index) {
+        if (messagesBuilder_ == null) {
+          ensureMessagesIsMutable();
+          messages_.remove(index);
+          onChanged();
+        } else {
+          messagesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder getMessagesBuilder(
+          int index) {
+        return getMessagesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder getMessagesOrBuilder(
+          int index) {
+        if (messagesBuilder_ == null) {
+          return messages_.get(index);  } else {
+          return messagesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public java.util.List<? extends com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder> 
+           getMessagesOrBuilderList() {
+        if (messagesBuilder_ != null) {
+          return messagesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(messages_);
+        }
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder addMessagesBuilder() {
+        return getMessagesFieldBuilder().addBuilder(
+            com.yen.model.proto.ChatMessageProto.ChatMessageV2.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder addMessagesBuilder(
+          int index) {
+        return getMessagesFieldBuilder().addBuilder(
+            index, com.yen.model.proto.ChatMessageProto.ChatMessageV2.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .ChatMessageV2 messages = 1;</code>
+       */
+      public java.util.List<com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder> 
+           getMessagesBuilderList() {
+        return getMessagesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.yen.model.proto.ChatMessageProto.ChatMessageV2, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder, com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder> 
+          getMessagesFieldBuilder() {
+        if (messagesBuilder_ == null) {
+          messagesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.yen.model.proto.ChatMessageProto.ChatMessageV2, com.yen.model.proto.ChatMessageProto.ChatMessageV2.Builder, com.yen.model.proto.ChatMessageProto.ChatMessageV2OrBuilder>(
+                  messages_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          messages_ = null;
+        }
+        return messagesBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ChatBatchV2)
+    }
+
+    // @@protoc_insertion_point(class_scope:ChatBatchV2)
+    private static final com.yen.model.proto.ChatMessageProto.ChatBatchV2 DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.yen.model.proto.ChatMessageProto.ChatBatchV2();
+    }
+
+    public static com.yen.model.proto.ChatMessageProto.ChatBatchV2 getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<ChatBatchV2>
+        PARSER = new com.google.protobuf.AbstractParser<ChatBatchV2>() {
+      @java.lang.Override
+      public ChatBatchV2 parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<ChatBatchV2> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ChatBatchV2> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.yen.model.proto.ChatMessageProto.ChatBatchV2 getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ChatMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ChatMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ChatBatch_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ChatBatch_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ChatMessageV2_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ChatMessageV2_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ChatBatchV2_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ChatBatchV2_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -1240,11 +5061,30 @@ public final class ChatMessageProto {
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\021ChatMessage.proto\"\200\001\n\013ChatMessage\022\022\n\nf" +
+      "\n\021ChatMessage.proto\"\371\001\n\013ChatMessage\022\022\n\nf" +
       "romUserId\030\001 \001(\003\022\020\n\010toUserId\030\002 \001(\003\022\017\n\007con" +
-      "tent\030\003 \001(\t\022\020\n\010sendTime\030\004 \001(\t\022\014\n\004type\030\005 \001" +
-      "(\005\022\016\n\006status\030\006 \001(\005\022\n\n\002id\030\007 \001(\003B\'\n\023com.ye" +
-      "n.model.protoB\020ChatMessageProtob\006proto3"
+      "tent\030\003 \001(\014\022\020\n\010sendTime\030\004 \001(\t\022\014\n\004type\030\005 \001" +
+      "(\005\022\016\n\006status\030\006 \001(\005\022\n\n\002id\030\007 \001(\003\022\021\n\tclient" +
+      "Seq\030\010 \001(\003\022\020\n\010batchAck\030\t \001(\010\022\016\n\006roomId\030\n " +
+      "\001(\003\022\030\n\020heartbeatSeconds\030\013 \001(\005\022\026\n\016sendTim" +
+      "eMillis\030\014 \001(\003\022\020\n\010deviceId\030\r \001(\t\"+\n\tChatB" +
+      "atch\022\036\n\010messages\030\001 \003(\0132\014.ChatMessage\"\202\002\n" +
+      "\rChatMessageV2\022\022\n\nfromUserId\030\001 \001(\003\022\020\n\010to" +
+      "UserId\030\002 \001(\003\022\017\n\007content\030\003 \001(\014\022\020\n\010sendTim" +
+      "e\030\004 \001(\003\022\032\n\004type\030\005 \001(\0162\014.MessageKind\022\037\n\006s" +
+      "tatus\030\006 \001(\0162\017.DeliveryStatus\022\n\n\002id\030\007 \001(\003" +
+      "\022\021\n\tclientSeq\030\010 \001(\003\022\020\n\010batchAck\030\t \001(\010\022\016\n" +
+      "\006roomId\030\n \001(\003\022\030\n\020heartbeatSeconds\030\013 \001(\005\022" +
+      "\020\n\010deviceId\030\r \001(\t\"/\n\013ChatBatchV2\022 \n\010mess" +
+      "ages\030\001 \003(\0132\016.ChatMessageV2*\245\001\n\013MessageKi" +
+      "nd\022\013\n\007CONNECT\020\000\022\010\n\004TEXT\020\001\022\t\n\005IMAGE\020\002\022\010\n\004" +
+      "FILE\020\003\022\t\n\005VOICE\020\004\022\t\n\005VIDEO\020\005\022\006\n\002AD\020\006\022\n\n\006" +
+      "SYSTEM\020\007\022\r\n\tJOIN_ROOM\020\010\022\016\n\nLEAVE_ROOM\020\t\022" +
+      "\013\n\007HISTORY\020\n\022\024\n\020HEARTBEAT_CONFIG\020\013*a\n\016De" +
+      "liveryStatus\022\010\n\004SENT\020\000\022\010\n\004READ\020\001\022\n\n\006FAIL" +
+      "ED\020\002\022\014\n\010RECALLED\020\003\022\022\n\016CUMULATIVE_ACK\020\004\022\r" +
+      "\n\tDUPLICATE\020\005B\'\n\023com.yen.model.protoB\020Ch" +
+      "atMessageProtob\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -1255,7 +5095,25 @@ public final class ChatMessageProto {
     internal_static_ChatMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ChatMessage_descriptor,
-        new java.lang.String[] { "FromUserId", "ToUserId", "Content", "SendTime", "Type", "Status", "Id", });
+        new java.lang.String[] { "FromUserId", "ToUserId", "Content", "SendTime", "Type", "Status", "Id", "ClientSeq", "BatchAck", "RoomId", "HeartbeatSeconds", "SendTimeMillis", "DeviceId", });
+    internal_static_ChatBatch_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_ChatBatch_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_ChatBatch_descriptor,
+        new java.lang.String[] { "Messages", });
+    internal_static_ChatMessageV2_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_ChatMessageV2_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_ChatMessageV2_descriptor,
+        new java.lang.String[] { "FromUserId", "ToUserId", "Content", "SendTime", "Type", "Status", "Id", "ClientSeq", "BatchAck", "RoomId", "HeartbeatSeconds", "DeviceId", });
+    internal_static_ChatBatchV2_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_ChatBatchV2_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_ChatBatchV2_descriptor,
+        new java.lang.String[] { "Messages", });
     descriptor.resolveAllFeaturesImmutable();
   }
 
@@ -1,15 +1,30 @@
 package com.yen.server;
 
 
+import com.yen.server.business.BusinessStage;
+import com.yen.server.business.ConnectionExecutor;
+import com.yen.server.business.ExecutionMode;
+import com.yen.server.business.OrderedExecutor;
+import com.yen.server.id.MessageIdGenerator;
 import com.yen.server.init.NettyServerInitializer;
+import com.yen.server.offline.OfflineInbox;
+import com.yen.server.session.DedupRegistry;
+import com.yen.server.store.ConversationIndex;
+import com.yen.server.store.HistoryService;
+import com.yen.server.store.MessageJournal;
+import com.yen.server.transport.TransportFactory;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.util.NettyRuntime;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Yhx
  * @date 2024/7/2 16:31
@@ -22,13 +37,189 @@ public class ChatServer {
      */
     private int nettyPort;
 
+    /**
+     * 网络传输层(Linux下优先epoll)
+     */
+    private final TransportFactory transport;
+
+    /**
+     * 接收连接的服务端通道数量
+     * 大于1时(仅epoll)通过SO_REUSEPORT在同一端口绑定多个服务端通道,每个通道独占一个boss线程,
+     * 由内核在多个通道间分摊新连接,避免重连风暴时所有accept都挤在同一个线程上
+     */
+    private final int acceptors;
+
+    /**
+     * worker线程(EventLoop)数量,默认CPU核数*2,不超过消息ID分配器的上限
+     */
+    private int workerThreads = Math.min(NettyRuntime.availableProcessors() * 2, MessageIdGenerator.MAX_ALLOCATORS);
+
+    /**
+     * 出站缓冲的高低水位(字节): 超过高水位后Channel变为不可写,回落到低水位以下恢复可写
+     */
+    private int lowWaterMark = 32 * 1024, highWaterMark = 64 * 1024;
+
+    /**
+     * Channel初始器
+     */
+    private final NettyServerInitializer initializer = new NettyServerInitializer();
+
+    /**
+     * 消息日志,为null时不持久化消息
+     */
+    private MessageJournal journal;
+
+    /**
+     * 会话索引(开启消息持久化时创建),快照保存在日志目录下
+     */
+    private ConversationIndex conversationIndex;
+
+    /**
+     * 离线收件箱,为null时不在线用户的消息直接丢弃
+     */
+    private OfflineInbox offlineInbox;
+
+    /**
+     * 业务执行器,为null时业务逻辑直接在EventLoop上执行
+     */
+    private BusinessStage businessExecutor;
+    private long indexSnapshotMillis = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * 设备断线后去重窗口保留的时间(毫秒),重连后在这段时间内重发的消息不会重复投递,为0时不去重
+     */
+    private long dedupWindowMillis = TimeUnit.MINUTES.toMillis(10);
+
     /**
      * 构造器
      *
      * @param nettyPort 端口
      */
     public ChatServer(int nettyPort) {
+        this(nettyPort, TransportFactory.create(), 1);
+    }
+
+    /**
+     * 构造器
+     *
+     * @param nettyPort 端口
+     * @param transport 网络传输层
+     * @param acceptors 接收连接的服务端通道数量
+     */
+    public ChatServer(int nettyPort, TransportFactory transport, int acceptors) {
         this.nettyPort = nettyPort;
+        this.transport = transport;
+        if (acceptors > 1 && !transport.isEpoll()) {
+            log.warn("多acceptor模式依赖epoll的SO_REUSEPORT,当前传输层为{},只绑定一个服务端通道", transport.type());
+            acceptors = 1;
+        }
+        this.acceptors = Math.max(1, acceptors);
+        if (this.acceptors > 1) {
+            transport.reusePort(true);
+        }
+    }
+
+    /**
+     * 配置出站缓冲的高低水位
+     *
+     * @param lowWaterMark  低水位(字节)
+     * @param highWaterMark 高水位(字节)
+     * @return this
+     */
+    public ChatServer writeBufferWaterMark(int lowWaterMark, int highWaterMark) {
+        this.lowWaterMark = lowWaterMark;
+        this.highWaterMark = highWaterMark;
+        return this;
+    }
+
+    /**
+     * 配置worker线程数,每个worker线程独占一个消息ID分配器,不能超过{@link MessageIdGenerator#MAX_ALLOCATORS}
+     *
+     * @param workerThreads worker线程数
+     * @return this
+     */
+    public ChatServer workerThreads(int workerThreads) {
+        if (workerThreads <= 0 || workerThreads > MessageIdGenerator.MAX_ALLOCATORS) {
+            throw new IllegalArgumentException("worker线程数超出范围[1," + MessageIdGenerator.MAX_ALLOCATORS + "]: " + workerThreads);
+        }
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    /**
+     * 开启消息持久化,服务启动时恢复并启动日志,关闭时落盘剩余消息
+     * 同时建立会话索引,支持客户端拉取历史消息
+     *
+     * @param journal 消息日志
+     * @return this
+     */
+    public ChatServer journal(MessageJournal journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    /**
+     * 开启离线消息: 接收者不在线时存入收件箱,上线时补发;
+     * 慢消费者策略为SPILL且没有设置转存目标时,积压的消息也转存到收件箱
+     *
+     * @param offlineInbox 离线收件箱
+     * @return this
+     */
+    public ChatServer offlineInbox(OfflineInbox offlineInbox) {
+        this.offlineInbox = offlineInbox;
+        return this;
+    }
+
+    /**
+     * 开启业务执行阶段: 解码后的消息按发送者散列到业务执行器上按顺序处理,
+     * 存储、鉴权等阻塞操作不会卡住EventLoop;确认、去重与消息ID分配仍在EventLoop上完成
+     *
+     * @param businessExecutor 业务执行器({@link OrderedExecutor}或{@link ConnectionExecutor})
+     * @return this
+     */
+    public ChatServer businessExecutor(BusinessStage businessExecutor) {
+        BusinessStage previous = this.businessExecutor;
+        this.businessExecutor = businessExecutor;
+        if (previous != null && previous != businessExecutor) {
+            previous.close();
+        }
+        return this;
+    }
+
+    /**
+     * 按执行方式开启业务执行阶段,见{@link ExecutionMode}
+     *
+     * @param executionMode 执行方式
+     * @return this
+     */
+    public ChatServer executionMode(ExecutionMode executionMode) {
+        return businessExecutor(executionMode.newStage());
+    }
+
+    /**
+     * 配置去重窗口在设备断线后保留的时间
+     *
+     * @param dedupWindowMillis 保留时间(毫秒),为0时关闭按设备去重
+     * @return this
+     */
+    public ChatServer dedupWindow(long dedupWindowMillis) {
+        this.dedupWindowMillis = dedupWindowMillis;
+        return this;
+    }
+
+    /**
+     * 设置节点编号(消息ID中的节点位),多个实例共用消息ID空间时每个实例使用不同的编号
+     *
+     * @param nodeId 0~63
+     * @return this
+     */
+    public ChatServer nodeId(int nodeId) {
+        MessageIdGenerator.configure(nodeId);
+        return this;
+    }
+
+    public NettyServerInitializer getInitializer() {
+        return initializer;
     }
 
     /**
@@ -44,32 +235,68 @@ public class ChatServer {
      * 启动方法，处理客户端的请求
      */
     public void run() {
-        // 1. 创建网络服务器(创建BossGroup线程组:处理连接请求)
-        NioEventLoopGroup boss = new NioEventLoopGroup();
+        // 1. 创建网络服务器(创建BossGroup线程组:处理连接请求),每个服务端通道一个线程
+        EventLoopGroup boss = transport.newEventLoopGroup(acceptors);
         // 2. 创建Worker线程
-        NioEventLoopGroup worker = new NioEventLoopGroup();
+        EventLoopGroup worker = transport.newEventLoopGroup(workerThreads);
 
         try {
+            // 消息ID只在worker线程上分配,每个worker线程绑定一个分配器
+            MessageIdGenerator.bind(worker);
+            if (journal != null) {
+                journal.start();
+                // 重启期间即使时钟回拨,新分配的ID也大于已持久化的ID
+                MessageIdGenerator.advanceTo(journal.lastId());
+                conversationIndex = new ConversationIndex(journal.getDir().resolve("conversation.idx"))
+                        .open(journal)
+                        .snapshotEvery(indexSnapshotMillis);
+                initializer.getHandler().setJournal(journal);
+                initializer.getHandler().setHistory(new HistoryService(journal, conversationIndex));
+            }
+            if (businessExecutor != null) {
+                // 初始器上通过executionMode配置过的执行器被替换,先关闭
+                BusinessStage previous = initializer.getHandler().getBusiness();
+                initializer.getHandler().setBusiness(businessExecutor);
+                if (previous != null && previous != businessExecutor) {
+                    previous.close();
+                }
+            }
+            if (dedupWindowMillis > 0 && initializer.getHandler().getDedup() == null) {
+                initializer.getHandler().setDedup(new DedupRegistry(dedupWindowMillis, GlobalEventExecutor.INSTANCE));
+            }
+            BusinessStage business = initializer.getHandler().getBusiness();
+            log.info("业务执行阶段: {}", business == null ? "event-loop" : business.description());
+            if (offlineInbox != null) {
+                initializer.getHandler().setInbox(offlineInbox);
+                if (initializer.getSlowConsumerPolicy().getSpillSink() == null) {
+                    initializer.getSlowConsumerPolicy().setSpillSink(offlineInbox);
+                }
+            }
             // 3. 创建Netty服务端启动类
             ServerBootstrap bootstrap = new ServerBootstrap();
             // 4.链式编程进行配置服务器参数
-            bootstrap.group(boss, worker)
-                    .channel(NioServerSocketChannel.class) // 使用NIO通道
+            transport.configure(bootstrap.group(boss, worker)) // 设置传输层对应的通道
                     .childOption(ChannelOption.SO_KEEPALIVE, true) // 设置保持活动连接状态
-                    .childHandler(new NettyServerInitializer()); // 进行自定义初始化
-            // 5.绑定端口并且设置该操作为同步操作
-            ChannelFuture channelFuture = bootstrap.bind(nettyPort).sync();
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(lowWaterMark, highWaterMark)) // 出站缓冲高低水位
+                    .childHandler(initializer); // 进行自定义初始化
+            // 5.绑定端口并且设置该操作为同步操作,每次bind都会把新的服务端通道注册到boss的下一个线程上
+            ChannelFuture[] channelFutures = new ChannelFuture[acceptors];
+            for (int i = 0; i < acceptors; i++) {
+                channelFutures[i] = bootstrap.bind(nettyPort).sync();
+            }
             // 6.监听是否启动成功
-            channelFuture.addListener(new ChannelFutureListener() {
+            channelFutures[0].addListener(new ChannelFutureListener() {
                 @Override
                 public void operationComplete(ChannelFuture channelFuture) throws Exception {
                     if (channelFuture.isSuccess()) {
-                        log.info("Netty聊天服务端启动成功! 监听端口:{}", nettyPort);
+                        log.info("Netty聊天服务端启动成功! 监听端口:{}, 传输层:{}, acceptor数量:{}", nettyPort, transport.type(), acceptors);
                     }
                 }
             });
             // 6.异步对关闭通道进行监听,既当有关闭通道事件发生时才会进行处理
-            channelFuture.channel().closeFuture().sync();
+            for (ChannelFuture channelFuture : channelFutures) {
+                channelFuture.channel().closeFuture().sync();
+            }
 
         } catch (Exception e) {
             log.error("Netty服务端出现异常{}", e.getMessage());
@@ -78,6 +305,23 @@ public class ChatServer {
             // 7.最终都需要服务器的关闭
             boss.shutdownGracefully().syncUninterruptibly();
             worker.shutdownGracefully().syncUninterruptibly();
+            BusinessStage business = initializer.getHandler().getBusiness();
+            if (business != null) {
+                business.close();
+            }
+            if (journal != null) {
+                journal.close();
+            }
+            if (conversationIndex != null) {
+                conversationIndex.close();
+            }
+            if (offlineInbox != null) {
+                offlineInbox.close();
+            }
+            DedupRegistry dedup = initializer.getHandler().getDedup();
+            if (dedup != null) {
+                dedup.close();
+            }
         }
 
     }
@@ -0,0 +1,56 @@
+package com.yen.server.business;
+
+import com.yen.server.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 业务执行阶段统计(整个节点)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:44
+ */
+public final class BusinessMetrics {
+
+    /**
+     * 提交的任务数
+     */
+    public static final LongAdder SUBMITTED = new LongAdder();
+    /**
+     * 执行完成的任务数(含抛出异常的)
+     */
+    public static final LongAdder COMPLETED = new LongAdder();
+    /**
+     * 抛出异常的任务数
+     */
+    public static final LongAdder FAILED = new LongAdder();
+    /**
+     * 执行器已关闭被拒绝的任务数
+     */
+    public static final LongAdder REJECTED = new LongAdder();
+    /**
+     * 排队中(已提交未开始)的任务数
+     */
+    public static final LongAdder QUEUED = new LongAdder();
+    /**
+     * 调度延迟: 从提交到开始执行
+     */
+    public static final LatencyHistogram DISPATCH = new LatencyHistogram();
+    /**
+     * 执行耗时
+     */
+    public static final LatencyHistogram EXECUTION = new LatencyHistogram();
+
+    private BusinessMetrics() {
+    }
+
+    public static String snapshot() {
+        return "submitted=" + SUBMITTED.sum()
+                + ", completed=" + COMPLETED.sum()
+                + ", failed=" + FAILED.sum()
+                + ", rejected=" + REJECTED.sum()
+                + ", queued=" + QUEUED.sum()
+                + ", dispatch[" + DISPATCH.snapshot() + "]"
+                + ", execution[" + EXECUTION.snapshot() + "]";
+    }
+}
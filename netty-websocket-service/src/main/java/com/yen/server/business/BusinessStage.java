@@ -0,0 +1,35 @@
+package com.yen.server.business;
+
+import io.netty.channel.Channel;
+
+import java.io.Closeable;
+
+/**
+ * 业务执行阶段: 解码后的消息交给它在EventLoop之外处理
+ * 实现需要保证同一个key(或同一个连接)的任务按提交顺序执行
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:36
+ */
+public interface BusinessStage extends Closeable {
+
+    /**
+     * 提交任务,只在channel所属的EventLoop上调用
+     *
+     * @param channel 消息来自的连接
+     * @param key     保序的key(发送者ID)
+     * @param task    任务
+     */
+    void execute(Channel channel, long key, Runnable task);
+
+    /**
+     * 描述,用于日志
+     */
+    String description();
+
+    /**
+     * 停止接收新任务,等待已提交的任务执行完
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,69 @@
+package com.yen.server.business;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 每个连接一个虚拟线程的业务执行阶段(Java 21+)
+ * 每个连接有自己的串行队列,队列有消息时在一个虚拟线程上按顺序处理,业务代码可以直接写阻塞调用;
+ * 处理期间产生的回复先累积在执行线程的{@link com.yen.server.route.OutboundBatch}中,
+ * 每轮结束时按目标EventLoop合并成一个任务交还,而不是每条回复唤醒一次EventLoop
+ * 同一连接同一时刻最多占用一个虚拟线程,空闲的连接不占用线程
+ * 运行时低于Java 21时回退到平台线程池,此时阻塞调用会占住线程,只适合验证功能
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:36
+ */
+@Slf4j
+public class ConnectionExecutor implements BusinessStage {
+
+    private static final AttributeKey<SerialQueue> QUEUE = AttributeKey.valueOf("businessQueue");
+
+    /**
+     * 每轮最多处理的消息数,处理完让出虚拟线程
+     */
+    private static final int MAX_PER_RUN = 256;
+
+    private final ExecutorService executor;
+    private final String description;
+
+    public ConnectionExecutor() {
+        ExecutorService virtual = OrderedExecutor.newVirtualThreadExecutor();
+        if (virtual == null) {
+            int threads = Runtime.getRuntime().availableProcessors() * 2;
+            log.warn("当前运行时不支持虚拟线程,每连接执行模式回退到{}个平台线程", threads);
+            this.executor = Executors.newFixedThreadPool(threads, new OrderedExecutor.NamedThreadFactory("connection"));
+            this.description = "connection-platform(" + threads + ")";
+        } else {
+            this.executor = virtual;
+            this.description = "connection-virtual";
+        }
+    }
+
+    /**
+     * 只在channel所属的EventLoop上调用,队列在第一条消息到达时创建,随Channel一起回收
+     */
+    @Override
+    public void execute(Channel channel, long key, Runnable task) {
+        SerialQueue queue = channel.attr(QUEUE).get();
+        if (queue == null) {
+            queue = new SerialQueue(executor, MAX_PER_RUN);
+            channel.attr(QUEUE).set(queue);
+        }
+        queue.execute(task);
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public void close() {
+        OrderedExecutor.shutdown(executor);
+    }
+}
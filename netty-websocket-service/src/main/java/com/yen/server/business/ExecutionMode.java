@@ -0,0 +1,46 @@
+package com.yen.server.business;
+
+/**
+ * 业务逻辑的执行方式
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:36
+ */
+public enum ExecutionMode {
+
+    /**
+     * 直接在EventLoop上执行,业务逻辑不能阻塞
+     */
+    EVENT_LOOP,
+    /**
+     * 按发送者散列到平台线程池的串行队列上执行,见{@link OrderedExecutor#platform}
+     */
+    ORDERED_PLATFORM,
+    /**
+     * 按发送者散列的串行队列在虚拟线程上执行,见{@link OrderedExecutor#virtual}
+     */
+    ORDERED_VIRTUAL,
+    /**
+     * 每个连接一个虚拟线程,按阻塞方式编写业务逻辑,见{@link ConnectionExecutor}
+     */
+    VIRTUAL_THREAD_PER_CONNECTION;
+
+    /**
+     * 创建对应的业务执行阶段
+     *
+     * @return EVENT_LOOP返回null
+     */
+    public BusinessStage newStage() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        switch (this) {
+            case ORDERED_PLATFORM:
+                return OrderedExecutor.platform(cores * 2, 1024);
+            case ORDERED_VIRTUAL:
+                return OrderedExecutor.virtual(4096);
+            case VIRTUAL_THREAD_PER_CONNECTION:
+                return new ConnectionExecutor();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.yen.server.business;
+
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按key保序的业务执行器
+ * 任务按key(例如fromUserId)散列到固定数量的串行队列({@link SerialQueue}),同一队列的任务依次执行,不同队列并行
+ * 底层可以是平台线程池,也可以是虚拟线程(Java 21+,通过反射创建,低版本回退到平台线程池)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:44
+ */
+@Slf4j
+public class OrderedExecutor implements BusinessStage {
+
+    private final ExecutorService executor;
+    private final SerialQueue[] stripes;
+    private final int mask;
+    private final String description;
+
+    private OrderedExecutor(ExecutorService executor, String description, int stripeCount, int maxPerRun) {
+        this.executor = executor;
+        this.description = description;
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new SerialQueue[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new SerialQueue(executor, maxPerRun);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 平台线程池
+     *
+     * @param threads 线程数
+     * @param stripes 串行队列数,会向上取整为2的幂
+     */
+    public static OrderedExecutor platform(int threads, int stripes) {
+        return new OrderedExecutor(Executors.newFixedThreadPool(threads, new NamedThreadFactory("business")),
+                "platform(" + threads + ")", stripes, 64);
+    }
+
+    /**
+     * 虚拟线程: 每轮排空在一个新的虚拟线程上执行,阻塞调用不占用平台线程
+     * 运行时低于Java 21时回退到与CPU核数相同的平台线程池
+     *
+     * @param stripes 串行队列数,会向上取整为2的幂
+     */
+    public static OrderedExecutor virtual(int stripes) {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            log.warn("当前运行时不支持虚拟线程,业务执行器回退到{}个平台线程", threads);
+            return platform(threads, stripes);
+        }
+        return new OrderedExecutor(executor, "virtual", stripes, 64);
+    }
+
+    /**
+     * 通过反射调用Executors.newVirtualThreadPerTaskExecutor(),编译目标仍为Java 17
+     *
+     * @return 不支持时返回null
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 提交任务,同一key的任务按提交顺序依次执行
+     *
+     * @param key  保序的key
+     * @param task 任务
+     */
+    public void execute(long key, Runnable task) {
+        stripes[index(key)].execute(task);
+    }
+
+    @Override
+    public void execute(Channel channel, long key, Runnable task) {
+        execute(key, task);
+    }
+
+    /**
+     * 排队中的任务数
+     */
+    public long queueDepth() {
+        return BusinessMetrics.QUEUED.sum();
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @Override
+    public void close() {
+        shutdown(executor);
+    }
+
+    /**
+     * 停止接收新的排空任务,等待已提交的任务执行完
+     */
+    static void shutdown(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("业务执行器关闭超时,剩余任务{}", BusinessMetrics.QUEUED.sum());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            // FastThreadLocalThread: 执行线程上的OutboundBatch等FastThreadLocal走快速路径
+            Thread t = new FastThreadLocalThread(r, prefix + "-" + sequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.yen.server.business;
+
+import com.yen.server.route.OutboundBatch;
+import io.netty.util.internal.PlatformDependent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 串行任务队列: 多个线程提交,同一时刻最多一个线程执行,任务按提交顺序执行
+ * 队列有任务时才向执行器提交一次排空任务,每轮最多执行maxPerRun个任务后让出线程,
+ * 每轮结束时提交本线程累积的出站消息({@link OutboundBatch}),发往同一EventLoop的消息合并成一个任务
+ *
+ * @author Yhx
+ * @date 2026/10/17 20:36
+ */
+@Slf4j
+final class SerialQueue implements Runnable {
+
+    private final Executor executor;
+    private final int maxPerRun;
+    private final Queue<Task> queue = PlatformDependent.newMpscQueue();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SerialQueue(Executor executor, int maxPerRun) {
+        this.executor = executor;
+        this.maxPerRun = maxPerRun;
+    }
+
+    void execute(Runnable task) {
+        queue.offer(new Task(task, System.nanoTime()));
+        BusinessMetrics.SUBMITTED.increment();
+        BusinessMetrics.QUEUED.increment();
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                while (queue.poll() != null) {
+                    BusinessMetrics.QUEUED.decrement();
+                    BusinessMetrics.REJECTED.increment();
+                }
+                log.warn("业务执行器已关闭,丢弃任务");
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < maxPerRun; i++) {
+                Task task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                long start = System.nanoTime();
+                BusinessMetrics.QUEUED.decrement();
+                BusinessMetrics.DISPATCH.record(start - task.submitNanos);
+                try {
+                    task.runnable.run();
+                } catch (Throwable t) {
+                    BusinessMetrics.FAILED.increment();
+                    log.warn("业务任务执行异常", t);
+                }
+                BusinessMetrics.COMPLETED.increment();
+                BusinessMetrics.EXECUTION.record(System.nanoTime() - start);
+            }
+            OutboundBatch.current().flush();
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private static final class Task {
+        private final Runnable runnable;
+        private final long submitNanos;
+
+        private Task(Runnable runnable, long submitNanos) {
+            this.runnable = runnable;
+            this.submitNanos = submitNanos;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.yen.server.codec;
+
+import com.yen.model.proto.ChatMessageProto.ChatBatch;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量协议解码器: 每个二进制帧是一个ChatBatch,拆成单条ChatMessage交给后面的处理器
+ * 后面的处理器在一次channelRead里依次收到这些消息,读批次结束时统一flush和确认
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:31
+ */
+@ChannelHandler.Sharable
+public class ChatBatchDecoder extends ProtobufWebSocketDecoder {
+
+    public ChatBatchDecoder() {
+        super(ChatBatch.getDefaultInstance());
+    }
+
+    @Override
+    protected void parse(ByteBuf buf, List<Object> out) throws Exception {
+        List<Object> batches = new ArrayList<>(1);
+        super.parse(buf, batches);
+        for (Object batch : batches) {
+            out.addAll(((ChatBatch) batch).getMessagesList());
+        }
+    }
+}
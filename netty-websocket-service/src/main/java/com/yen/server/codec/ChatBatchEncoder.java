@@ -0,0 +1,142 @@
+package com.yen.server.codec;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import com.yen.model.proto.ChatMessageProto.ChatBatch;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 批量协议编码器(每个Channel一个实例)
+ * ChatBatch与ChatBatchV2的消息字段编号相同,两种协议共用,由translator决定写出的消息格式
+ * write时只把ChatMessage暂存起来,flush时把暂存的消息编码成一个(超过maxFrameBytes时拆成多个)ChatBatch帧,
+ * 一次flush只付出一次帧头、一次压缩上下文刷新和客户端的一次解码分派;
+ * 帧写完后逐个完成这一帧里各条消息的promise(void promise不参与)
+ * 其他类型的写入(Ping帧等)会先把暂存的消息写出,保持顺序
+ * 暂存的字节数达到Channel变为不可写之前还能写入的字节数时立即写出(不flush),
+ * 积压进入出站缓冲参与高低水位判断,isWritable()和慢消费者处理不会被暂存的消息绕过
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:31
+ */
+public class ChatBatchEncoder extends ChannelOutboundHandlerAdapter {
+
+    /**
+     * 单个帧的最大字节数,需要小于客户端允许的最大帧长度
+     */
+    private final int maxFrameBytes;
+
+    /**
+     * 内部消息转为连接协商的消息格式
+     */
+    private final Function<ChatMessage, ? extends MessageLite> translator;
+
+    private final List<MessageLite> pending = new ArrayList<>();
+    private final List<ChannelPromise> promises = new ArrayList<>();
+    private int pendingBytes;
+
+    public ChatBatchEncoder() {
+        this(SchemaTranslator::toV1);
+    }
+
+    public ChatBatchEncoder(Function<ChatMessage, ? extends MessageLite> translator) {
+        this(translator, 60 * 1024);
+    }
+
+    public ChatBatchEncoder(Function<ChatMessage, ? extends MessageLite> translator, int maxFrameBytes) {
+        this.translator = translator;
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof ChatMessage)) {
+            writePending(ctx);
+            ctx.write(msg, promise);
+            return;
+        }
+        MessageLite message = translator.apply((ChatMessage) msg);
+        int size = CodedOutputStream.computeMessageSize(ChatBatch.MESSAGES_FIELD_NUMBER, message);
+        if (pendingBytes + size > maxFrameBytes && !pending.isEmpty()) {
+            writePending(ctx);
+        }
+        pending.add(message);
+        pendingBytes += size;
+        if (!promise.isVoid()) {
+            promises.add(promise);
+        }
+        if (pendingBytes >= ctx.channel().bytesBeforeUnwritable()) {
+            // 再暂存就会越过高水位,写入出站缓冲让Channel及时变为不可写
+            writePending(ctx);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        writePending(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        writePending(ctx);
+    }
+
+    /**
+     * 把暂存的消息编码成一个ChatBatch帧写出(不flush)
+     */
+    private void writePending(ChannelHandlerContext ctx) throws Exception {
+        if (pending.isEmpty()) {
+            return;
+        }
+        ByteBuf buf = ctx.alloc().directBuffer(pendingBytes, pendingBytes);
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(buf.internalNioBuffer(0, pendingBytes));
+            for (MessageLite message : pending) {
+                output.writeMessage(ChatBatch.MESSAGES_FIELD_NUMBER, message);
+            }
+            output.checkNoSpaceLeft();
+            buf.writerIndex(pendingBytes);
+        } catch (Throwable t) {
+            buf.release();
+            fail(t);
+            throw t;
+        }
+        BinaryWebSocketFrame frame = new BinaryWebSocketFrame(buf);
+        if (promises.isEmpty()) {
+            ctx.write(frame, ctx.voidPromise());
+        } else {
+            List<ChannelPromise> targets = new ArrayList<>(promises);
+            ctx.write(frame).addListener(future -> {
+                // 帧的写入结果同步给这一帧里的每条消息
+                for (ChannelPromise p : targets) {
+                    if (future.isSuccess()) {
+                        p.trySuccess();
+                    } else {
+                        p.tryFailure(future.cause());
+                    }
+                }
+            });
+        }
+        pending.clear();
+        promises.clear();
+        pendingBytes = 0;
+    }
+
+    private void fail(Throwable cause) {
+        for (ChannelPromise p : promises) {
+            p.tryFailure(cause);
+        }
+        pending.clear();
+        promises.clear();
+        pendingBytes = 0;
+    }
+}
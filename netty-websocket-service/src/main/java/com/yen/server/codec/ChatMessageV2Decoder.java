@@ -0,0 +1,42 @@
+package com.yen.server.codec;
+
+import com.yen.model.proto.ChatMessageProto.ChatBatchV2;
+import com.yen.model.proto.ChatMessageProto.ChatMessageV2;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * v2协议解码器: 帧内容是ChatMessageV2(批量协议时是ChatBatchV2),解析后转为内部的ChatMessage,
+ * 后面的处理器不需要区分协议版本
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:34
+ */
+@ChannelHandler.Sharable
+public class ChatMessageV2Decoder extends ProtobufWebSocketDecoder {
+
+    private final boolean batched;
+
+    public ChatMessageV2Decoder(boolean batched) {
+        super(batched ? ChatBatchV2.getDefaultInstance() : ChatMessageV2.getDefaultInstance());
+        this.batched = batched;
+    }
+
+    @Override
+    protected void parse(ByteBuf buf, List<Object> out) throws Exception {
+        List<Object> parsed = new ArrayList<>(1);
+        super.parse(buf, parsed);
+        for (Object msg : parsed) {
+            if (batched) {
+                for (ChatMessageV2 message : ((ChatBatchV2) msg).getMessagesList()) {
+                    out.add(SchemaTranslator.fromV2(message));
+                }
+            } else {
+                out.add(SchemaTranslator.fromV2((ChatMessageV2) msg));
+            }
+        }
+    }
+}
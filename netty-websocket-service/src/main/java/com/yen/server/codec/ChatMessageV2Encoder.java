@@ -0,0 +1,20 @@
+package com.yen.server.codec;
+
+import com.google.protobuf.MessageLite;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.channel.ChannelHandler;
+
+/**
+ * v2协议编码器: 内部的ChatMessage转为ChatMessageV2后再编码
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:34
+ */
+@ChannelHandler.Sharable
+public class ChatMessageV2Encoder extends ProtobufWebSocketEncoder {
+
+    @Override
+    protected MessageLite translate(MessageLite message) {
+        return message instanceof ChatMessage ? SchemaTranslator.toV2((ChatMessage) message) : message;
+    }
+}
@@ -0,0 +1,108 @@
+package com.yen.server.codec;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 协议包解码器: 直接从BinaryWebSocketFrame的ByteBuf中解析Protobuf消息
+ * 单个NIO缓冲区时通过CodedInputStream直接读取(不拷贝到堆数组),
+ * 开启permessage-deflate后可能得到组合缓冲区,直接内存的分段直接交给CodedInputStream按段读取;
+ * content声明为bytes,解析时只拷贝一次字节,服务端只转发的消息不会解码成String
+ * 默认每个BinaryWebSocketFrame恰好承载一条消息(WebSocket帧本身已经分隔了消息),
+ * 兼容模式下帧内容为一条或多条带varint32长度前缀的消息
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:51
+ */
+@Slf4j
+@ChannelHandler.Sharable
+public class ProtobufWebSocketDecoder extends MessageToMessageDecoder<WebSocketFrame> {
+
+    /**
+     * 解析的目标消息类型
+     */
+    private final Parser<? extends MessageLite> parser;
+
+    /**
+     * 是否兼容旧客户端带varint32长度前缀的帧内容
+     */
+    private final boolean lengthPrefixed;
+
+    public ProtobufWebSocketDecoder(MessageLite prototype) {
+        this(prototype, false);
+    }
+
+    public ProtobufWebSocketDecoder(MessageLite prototype, boolean lengthPrefixed) {
+        this.parser = prototype.getParserForType();
+        this.lengthPrefixed = lengthPrefixed;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) throws Exception {
+        if (frame instanceof BinaryWebSocketFrame) {
+            // 二进制消息
+            parse(frame.content(), out);
+        } else if (frame instanceof TextWebSocketFrame) {
+            // 文本消息
+            log.debug("消息类型为TextWebSocketFrame");
+        } else if (frame instanceof PongWebSocketFrame) {
+            // PING存活检测的回复,交给心跳处理器计算往返时间
+            log.debug("消息类型为PongWebSocketFrame");
+            out.add(frame.retain());
+        } else if (frame instanceof CloseWebSocketFrame) {
+            // 关闭指令消息
+            log.debug("消息类型为CloseWebSocketFrame");
+            ctx.channel().close();
+        }
+    }
+
+    /**
+     * 从ByteBuf中解析消息,不改变ByteBuf的读索引
+     *
+     * @param buf 帧内容
+     * @param out 解析出的消息
+     */
+    protected void parse(ByteBuf buf, List<Object> out) throws Exception {
+        CodedInputStream input;
+        if (buf.nioBufferCount() == 1) {
+            input = CodedInputStream.newInstance(buf.nioBuffer());
+        } else if (buf.isDirect()) {
+            // 组合缓冲区(例如permessage-deflate解压的结果): 直接按分段读取,不经过流的中间缓冲
+            input = CodedInputStream.newInstance(Arrays.asList(buf.nioBuffers()));
+        } else {
+            // 含堆内存分段的组合缓冲区: 合并到池化缓冲区后再读取
+            ByteBuf merged = buf.alloc().heapBuffer(buf.readableBytes());
+            try {
+                merged.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+                parse(merged, out);
+            } finally {
+                merged.release();
+            }
+            return;
+        }
+        if (!lengthPrefixed) {
+            out.add(parser.parseFrom(input));
+            return;
+        }
+        while (!input.isAtEnd()) {
+            int length = input.readRawVarint32();
+            int oldLimit = input.pushLimit(length);
+            out.add(parser.parseFrom(input));
+            input.popLimit(oldLimit);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yen.server.codec;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.MessageLiteOrBuilder;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Protobuf消息编码器: 将Protobuf消息直接序列化进池化的直接内存,再包装成BinaryWebSocketFrame
+ * 相比toByteArray()+wrappedBuffer(),不会为每条消息在堆上分配一次byte[]
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:51
+ */
+@ChannelHandler.Sharable
+public class ProtobufWebSocketEncoder extends MessageToMessageEncoder<MessageLiteOrBuilder> {
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, MessageLiteOrBuilder msg, List<Object> out) throws Exception {
+        MessageLite message;
+        if (msg instanceof MessageLite) {
+            message = (MessageLite) msg;
+        } else if (msg instanceof MessageLite.Builder) {
+            // 没有build的Protobuf消息
+            message = ((MessageLite.Builder) msg).build();
+        } else {
+            return;
+        }
+        // 将Protobuf消息包装成Binary Frame 消息
+        out.add(new BinaryWebSocketFrame(encode(ctx.alloc(), translate(message))));
+    }
+
+    /**
+     * 写出前转换为连接协商的消息格式,v1连接只需要按需补齐字符串时间
+     */
+    protected MessageLite translate(MessageLite message) {
+        return message instanceof ChatMessage ? SchemaTranslator.toV1((ChatMessage) message) : message;
+    }
+
+    /**
+     * 将消息序列化到分配器分配的直接内存中
+     * 先通过getSerializedSize()确定大小,再用CodedOutputStream直接写入ByteBuf底层的NIO缓冲区
+     *
+     * @param alloc   分配器
+     * @param message 消息
+     * @return 已写入完整消息的ByteBuf, 由调用方负责释放
+     */
+    public static ByteBuf encode(ByteBufAllocator alloc, MessageLite message) throws IOException {
+        int size = message.getSerializedSize();
+        ByteBuf buf = alloc.directBuffer(size, size);
+        try {
+            if (size > 0) {
+                CodedOutputStream output = CodedOutputStream.newInstance(buf.internalNioBuffer(buf.writerIndex(), size));
+                message.writeTo(output);
+                output.checkNoSpaceLeft();
+                buf.writerIndex(buf.writerIndex() + size);
+            }
+            return buf;
+        } catch (Throwable t) {
+            buf.release();
+            throw t;
+        }
+    }
+}
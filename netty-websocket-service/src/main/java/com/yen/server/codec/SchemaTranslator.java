@@ -0,0 +1,93 @@
+package com.yen.server.codec;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.model.proto.ChatMessageProto.ChatMessageV2;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * v1与v2消息格式之间的转换
+ * 服务端内部统一使用ChatMessage,时间以sendTimeMillis为准;
+ * 只有跨版本转发(v1客户端发给v2客户端或相反)时才需要解析或格式化字符串时间
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:34
+ */
+public final class SchemaTranslator {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter SEND_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZONE);
+
+    private SchemaTranslator() {
+    }
+
+    /**
+     * v2客户端发来的消息转为内部格式
+     */
+    public static ChatMessage fromV2(ChatMessageV2 msg) {
+        return ChatMessage.newBuilder()
+                .setFromUserId(msg.getFromUserId())
+                .setToUserId(msg.getToUserId())
+                .setContent(msg.getContent())
+                .setSendTimeMillis(msg.getSendTime())
+                .setType(msg.getTypeValue())
+                .setStatus(msg.getStatusValue())
+                .setId(msg.getId())
+                .setClientSeq(msg.getClientSeq())
+                .setBatchAck(msg.getBatchAck())
+                .setRoomId(msg.getRoomId())
+                .setHeartbeatSeconds(msg.getHeartbeatSeconds())
+                .setDeviceId(msg.getDeviceId())
+                .build();
+    }
+
+    /**
+     * 内部消息转为v2格式,v1客户端只填了字符串时间时解析一次
+     */
+    public static ChatMessageV2 toV2(ChatMessage msg) {
+        long sendTime = msg.getSendTimeMillis();
+        if (sendTime == 0 && !msg.getSendTime().isEmpty()) {
+            sendTime = parseSendTime(msg.getSendTime());
+        }
+        return ChatMessageV2.newBuilder()
+                .setFromUserId(msg.getFromUserId())
+                .setToUserId(msg.getToUserId())
+                .setContent(msg.getContent())
+                .setSendTime(sendTime)
+                .setTypeValue(msg.getType())
+                .setStatusValue(msg.getStatus())
+                .setId(msg.getId())
+                .setClientSeq(msg.getClientSeq())
+                .setBatchAck(msg.getBatchAck())
+                .setRoomId(msg.getRoomId())
+                .setHeartbeatSeconds(msg.getHeartbeatSeconds())
+                .setDeviceId(msg.getDeviceId())
+                .build();
+    }
+
+    /**
+     * 发给v1客户端前补齐字符串时间(v2客户端发来的消息只有sendTimeMillis),其他情况原样返回
+     */
+    public static ChatMessage toV1(ChatMessage msg) {
+        if (msg.getSendTimeMillis() == 0 || !msg.getSendTime().isEmpty()) {
+            return msg;
+        }
+        return msg.toBuilder().setSendTime(SEND_TIME.format(Instant.ofEpochMilli(msg.getSendTimeMillis()))).build();
+    }
+
+    /**
+     * @param sendTime yyyy-MM-dd HH:mm:ss
+     * @return epoch毫秒,格式不正确时返回0
+     */
+    public static long parseSendTime(String sendTime) {
+        try {
+            return LocalDateTime.parse(sendTime, SEND_TIME).atZone(ZONE).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.yen.server.codec;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * 线路协议,在WebSocket握手时通过子协议(Sec-WebSocket-Protocol)协商
+ * 客户端没有声明子协议时按V1处理,兼容旧客户端
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:31
+ */
+public enum WireProtocol {
+
+    /**
+     * 每个二进制帧一条ChatMessage
+     */
+    V1("chat.v1", 1, false),
+    /**
+     * 每个二进制帧一个ChatBatch,可以承载多条ChatMessage
+     */
+    V1_BATCH("chat.v1.batch", 1, true),
+    /**
+     * 每个二进制帧一条ChatMessageV2(epoch毫秒时间,枚举类型与状态)
+     */
+    V2("chat.v2", 2, false),
+    /**
+     * 每个二进制帧一个ChatBatchV2
+     */
+    V2_BATCH("chat.v2.batch", 2, true);
+
+    public static final AttributeKey<WireProtocol> KEY = AttributeKey.valueOf("wireProtocol");
+
+    private final String subprotocol;
+    private final int version;
+    private final boolean batched;
+
+    WireProtocol(String subprotocol, int version, boolean batched) {
+        this.subprotocol = subprotocol;
+        this.version = version;
+        this.batched = batched;
+    }
+
+    public String subprotocol() {
+        return subprotocol;
+    }
+
+    /**
+     * 消息格式版本: 1为ChatMessage,2为ChatMessageV2
+     */
+    public int version() {
+        return version;
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+
+    /**
+     * 是否认识心跳配置消息({@link com.yen.model.constant.MessageType#HEARTBEAT_CONFIG}),v2协议起支持
+     */
+    public boolean supportsHeartbeatConfig() {
+        return version >= 2;
+    }
+
+    /**
+     * 服务端支持的全部子协议,逗号分隔
+     */
+    public static String subprotocols() {
+        StringBuilder sb = new StringBuilder();
+        for (WireProtocol protocol : values()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(protocol.subprotocol);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param subprotocol 握手时选定的子协议,可以为null
+     */
+    public static WireProtocol of(String subprotocol) {
+        if (subprotocol != null) {
+            for (WireProtocol protocol : values()) {
+                if (protocol.subprotocol.equals(subprotocol)) {
+                    return protocol;
+                }
+            }
+        }
+        return V1;
+    }
+
+    /**
+     * 连接协商的协议,还没有握手时返回V1
+     */
+    public static WireProtocol of(Channel channel) {
+        WireProtocol protocol = channel.attr(KEY).get();
+        return protocol == null ? V1 : protocol;
+    }
+}
@@ -0,0 +1,63 @@
+package com.yen.server.codec;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 握手完成后按协商的子协议配置编解码器
+ * 协商到批量协议或v2协议时,替换管道中默认的v1单条消息编解码器,v1与v2之间的转换在编解码阶段完成;
+ * 完成后把自己从管道中移除
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:31
+ */
+@Slf4j
+@ChannelHandler.Sharable
+public class WireProtocolHandler extends ChannelInboundHandlerAdapter {
+
+    /**
+     * 管道中编解码器的名称
+     */
+    public static final String DECODER = "protobufDecoder";
+    public static final String ENCODER = "protobufEncoder";
+
+    private final ChatBatchDecoder batchDecoder = new ChatBatchDecoder();
+    private final ChatMessageV2Decoder v2Decoder = new ChatMessageV2Decoder(false);
+    private final ChatMessageV2Decoder v2BatchDecoder = new ChatMessageV2Decoder(true);
+    private final ChatMessageV2Encoder v2Encoder = new ChatMessageV2Encoder();
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof WebSocketServerProtocolHandler.HandshakeComplete) {
+            String subprotocol = ((WebSocketServerProtocolHandler.HandshakeComplete) evt).selectedSubprotocol();
+            WireProtocol protocol = WireProtocol.of(subprotocol);
+            ctx.channel().attr(WireProtocol.KEY).set(protocol);
+            ChannelPipeline pipeline = ctx.pipeline();
+            switch (protocol) {
+                case V1_BATCH:
+                    pipeline.replace(DECODER, DECODER, batchDecoder);
+                    pipeline.replace(ENCODER, ENCODER, new ChatBatchEncoder());
+                    break;
+                case V2:
+                    pipeline.replace(DECODER, DECODER, v2Decoder);
+                    pipeline.replace(ENCODER, ENCODER, v2Encoder);
+                    break;
+                case V2_BATCH:
+                    pipeline.replace(DECODER, DECODER, v2BatchDecoder);
+                    pipeline.replace(ENCODER, ENCODER, new ChatBatchEncoder(SchemaTranslator::toV2));
+                    break;
+                default:
+                    break;
+            }
+            log.debug("连接{}使用协议{}", ctx.channel(), protocol);
+            ctx.fireUserEventTriggered(evt);
+            ctx.pipeline().remove(this);
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+}
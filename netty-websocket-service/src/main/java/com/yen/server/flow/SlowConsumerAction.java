@@ -0,0 +1,26 @@
+package com.yen.server.flow;
+
+/**
+ * 慢消费者(Channel长时间不可写)的处理方式
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:00
+ */
+public enum SlowConsumerAction {
+    /**
+     * 丢弃最早积压的消息
+     */
+    DROP_OLDEST,
+    /**
+     * 合并积压的累计确认(只保留最新的一条),仍然放不下时丢弃最早的消息
+     */
+    COALESCE,
+    /**
+     * 将最早积压的消息转存到离线存储,等用户重连后再投递
+     */
+    SPILL,
+    /**
+     * 直接断开连接
+     */
+    DISCONNECT
+}
@@ -0,0 +1,245 @@
+package com.yen.server.flow;
+
+import com.yen.model.constant.MessageStatus;
+import com.yen.model.constant.MessageType;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢消费者处理器(每个Channel一个实例)
+ * Channel的出站缓冲超过高水位后变为不可写,此后的业务消息不再进入ChannelOutboundBuffer,
+ * 而是进入本处理器的有界积压队列,按字节数计量;恢复可写后按顺序补发
+ * 积压超过上限时按策略丢弃/合并/转存/断开,持续不可写超过期限时断开连接
+ * 需要放在业务处理器与编码器之间(只处理还没有编码的ChatMessage)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:00
+ */
+@Slf4j
+public class SlowConsumerHandler extends ChannelDuplexHandler {
+
+    private final SlowConsumerPolicy policy;
+    private Channel channel;
+
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private long pendingBytes;
+    private ScheduledFuture<?> deadline;
+
+    public SlowConsumerHandler(SlowConsumerPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof ChatMessage) || (pending.isEmpty() && ctx.channel().isWritable())) {
+            ctx.write(msg, promise);
+            return;
+        }
+        ChatMessage message = (ChatMessage) msg;
+        int size = message.getSerializedSize();
+        pending.addLast(new Pending(message, promise, size));
+        pendingBytes += size;
+        SlowConsumerMetrics.QUEUED.increment();
+        if (pendingBytes > policy.getMaxPendingBytes()) {
+            overflow(ctx);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (!pending.isEmpty() && ctx.channel().isWritable()) {
+            drain(ctx);
+        }
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            cancelDeadline();
+            if (!pending.isEmpty()) {
+                drain(ctx);
+                ctx.flush();
+            }
+        } else {
+            SlowConsumerMetrics.UNWRITABLE.increment();
+            if (deadline == null) {
+                deadline = ctx.executor().schedule(() -> expire(ctx), policy.getUnwritableTimeoutMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        channel = ctx.channel();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        cancelDeadline();
+        discardAll(false);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        cancelDeadline();
+        discardAll(policy.getAction() == SlowConsumerAction.SPILL);
+        ctx.fireChannelInactive();
+    }
+
+    /**
+     * 按顺序补发积压的消息,直到再次不可写
+     */
+    private void drain(ChannelHandlerContext ctx) {
+        Pending p;
+        while (ctx.channel().isWritable() && (p = pending.pollFirst()) != null) {
+            pendingBytes -= p.size;
+            ctx.write(p.msg, p.promise);
+        }
+    }
+
+    /**
+     * 积压超过上限
+     */
+    private void overflow(ChannelHandlerContext ctx) {
+        switch (policy.getAction()) {
+            case COALESCE:
+                coalesce();
+                dropOldest();
+                break;
+            case SPILL:
+                while (pendingBytes > policy.getMaxPendingBytes() && !pending.isEmpty()) {
+                    spill(pending.pollFirst());
+                }
+                break;
+            case DISCONNECT:
+                log.info("{}积压{}字节,断开慢消费者连接", ctx.channel().id().asShortText(), pendingBytes);
+                SlowConsumerMetrics.DISCONNECTED.increment();
+                discardAll(false);
+                ctx.close();
+                break;
+            case DROP_OLDEST:
+            default:
+                dropOldest();
+                break;
+        }
+    }
+
+    /**
+     * 持续不可写超过期限
+     */
+    private void expire(ChannelHandlerContext ctx) {
+        deadline = null;
+        if (ctx.channel().isWritable()) {
+            return;
+        }
+        log.info("{}持续{}ms不可写,断开慢消费者连接", ctx.channel().id().asShortText(), policy.getUnwritableTimeoutMillis());
+        SlowConsumerMetrics.DISCONNECTED.increment();
+        discardAll(policy.getAction() == SlowConsumerAction.SPILL);
+        ctx.close();
+    }
+
+    /**
+     * 只保留最新的一条累计确认,更早的累计确认都可以被它代替;
+     * 逐条确认、失败回复等其他系统消息不能合并
+     */
+    private void coalesce() {
+        boolean latestSeen = false;
+        Iterator<Pending> it = pending.descendingIterator();
+        while (it.hasNext()) {
+            Pending p = it.next();
+            if (!isCumulative(p.msg)) {
+                continue;
+            }
+            if (!latestSeen) {
+                latestSeen = true;
+                continue;
+            }
+            it.remove();
+            pendingBytes -= p.size;
+            // 被合并的消息视为发送成功
+            if (!p.promise.isVoid()) {
+                p.promise.trySuccess();
+            }
+            SlowConsumerMetrics.COALESCED.increment();
+        }
+    }
+
+    private static boolean isCumulative(ChatMessage msg) {
+        return msg.getType() == MessageType.SYSTEM && msg.getStatus() == MessageStatus.CUMULATIVE_ACK;
+    }
+
+    private void dropOldest() {
+        while (pendingBytes > policy.getMaxPendingBytes() && !pending.isEmpty()) {
+            drop(pending.pollFirst());
+        }
+    }
+
+    private void discardAll(boolean spill) {
+        Pending p;
+        while ((p = pending.pollFirst()) != null) {
+            if (spill) {
+                spill(p);
+            } else {
+                drop(p);
+            }
+        }
+        pendingBytes = 0;
+    }
+
+    private void spill(Pending p) {
+        pendingBytes -= p.size;
+        SpillSink sink = policy.getSpillSink();
+        if (sink != null && sink.spill(channel, p.msg)) {
+            SlowConsumerMetrics.SPILLED.increment();
+            if (!p.promise.isVoid()) {
+                p.promise.trySuccess();
+            }
+        } else {
+            dropped(p);
+        }
+    }
+
+    private void drop(Pending p) {
+        pendingBytes -= p.size;
+        dropped(p);
+    }
+
+    private void dropped(Pending p) {
+        SlowConsumerMetrics.DROPPED.increment();
+        // voidPromise失败会触发exceptionCaught关闭连接,丢弃消息时不能这么做
+        if (!p.promise.isVoid()) {
+            p.promise.tryFailure(new ClosedChannelException());
+        }
+    }
+
+    private void cancelDeadline() {
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+    }
+
+    private static final class Pending {
+        private final ChatMessage msg;
+        private final ChannelPromise promise;
+        private final int size;
+
+        private Pending(ChatMessage msg, ChannelPromise promise, int size) {
+            this.msg = msg;
+            this.promise = promise;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.yen.server.flow;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 慢消费者处理统计(整个节点)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:00
+ */
+public final class SlowConsumerMetrics {
+
+    /**
+     * Channel变为不可写的次数
+     */
+    public static final LongAdder UNWRITABLE = new LongAdder();
+    /**
+     * 因不可写进入积压队列的消息数
+     */
+    public static final LongAdder QUEUED = new LongAdder();
+    /**
+     * 丢弃的消息数
+     */
+    public static final LongAdder DROPPED = new LongAdder();
+    /**
+     * 被合并掉的消息数
+     */
+    public static final LongAdder COALESCED = new LongAdder();
+    /**
+     * 转存到离线存储的消息数
+     */
+    public static final LongAdder SPILLED = new LongAdder();
+    /**
+     * 因为慢消费被断开的连接数
+     */
+    public static final LongAdder DISCONNECTED = new LongAdder();
+
+    private SlowConsumerMetrics() {
+    }
+
+    public static String snapshot() {
+        return "unwritable=" + UNWRITABLE.sum()
+                + ", queued=" + QUEUED.sum()
+                + ", dropped=" + DROPPED.sum()
+                + ", coalesced=" + COALESCED.sum()
+                + ", spilled=" + SPILLED.sum()
+                + ", disconnected=" + DISCONNECTED.sum();
+    }
+}
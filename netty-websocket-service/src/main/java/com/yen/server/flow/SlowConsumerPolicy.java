@@ -0,0 +1,60 @@
+package com.yen.server.flow;
+
+/**
+ * 慢消费者策略配置(所有Channel共享)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:00
+ */
+public class SlowConsumerPolicy {
+
+    /**
+     * 超过上限时的处理方式
+     */
+    private final SlowConsumerAction action;
+    /**
+     * Channel不可写期间,每个Channel最多积压的消息字节数
+     */
+    private final int maxPendingBytes;
+    /**
+     * Channel持续不可写超过该时间后断开连接(积压的消息按策略转存或丢弃)
+     */
+    private final long unwritableTimeoutMillis;
+    /**
+     * SPILL策略的转存目标,为null时按丢弃处理
+     */
+    private volatile SpillSink spillSink;
+
+    public SlowConsumerPolicy(SlowConsumerAction action, int maxPendingBytes, long unwritableTimeoutMillis) {
+        this.action = action;
+        this.maxPendingBytes = maxPendingBytes;
+        this.unwritableTimeoutMillis = unwritableTimeoutMillis;
+    }
+
+    /**
+     * 默认: 积压1MB,超过后丢弃最早的消息,不可写超过30秒断开
+     */
+    public static SlowConsumerPolicy defaults() {
+        return new SlowConsumerPolicy(SlowConsumerAction.DROP_OLDEST, 1024 * 1024, 30_000);
+    }
+
+    public SlowConsumerAction getAction() {
+        return action;
+    }
+
+    public int getMaxPendingBytes() {
+        return maxPendingBytes;
+    }
+
+    public long getUnwritableTimeoutMillis() {
+        return unwritableTimeoutMillis;
+    }
+
+    public SpillSink getSpillSink() {
+        return spillSink;
+    }
+
+    public void setSpillSink(SpillSink spillSink) {
+        this.spillSink = spillSink;
+    }
+}
@@ -0,0 +1,23 @@
+package com.yen.server.flow;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.channel.Channel;
+
+/**
+ * 慢消费者积压消息的转存目标
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:00
+ */
+@FunctionalInterface
+public interface SpillSink {
+
+    /**
+     * 转存一条发不出去的消息
+     *
+     * @param channel 消息原本要发往的通道
+     * @param msg     消息
+     * @return 是否转存成功,失败的消息按丢弃处理
+     */
+    boolean spill(Channel channel, ChatMessage msg);
+}
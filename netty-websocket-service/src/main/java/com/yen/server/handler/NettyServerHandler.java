@@ -11,7 +11,22 @@ import java.util.Map;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Parser;
 
+import com.yen.model.constant.MessageStatus;
+import com.yen.model.constant.MessageType;
 import com.yen.model.proto.ChatMessageProto;
+import com.yen.server.business.BusinessStage;
+import com.yen.server.id.MessageIdGenerator;
+import com.yen.server.offline.OfflineInbox;
+import com.yen.server.room.Room;
+import com.yen.server.room.RoomFanout;
+import com.yen.server.route.OutboundBatch;
+import com.yen.server.route.UserChannelRegistry;
+import com.yen.server.session.ChatSession;
+import com.yen.server.session.DedupRegistry;
+import com.yen.server.session.DedupWindow;
+import com.yen.server.store.ConversationKey;
+import com.yen.server.store.HistoryService;
+import com.yen.server.store.MessageJournal;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -21,6 +36,8 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+
 /**
  * ws协议文本帧处理器
  *
@@ -31,11 +48,52 @@ import lombok.extern.slf4j.Slf4j;
 @ChannelHandler.Sharable
 public class NettyServerHandler extends SimpleChannelInboundHandler<ChatMessageProto.ChatMessage> {
 
+    /**
+     * 确认消息的内容,只编码一次
+     */
+    private static final ByteString SENT_TEXT = ByteString.copyFromUtf8("发送成功");
+    private static final ByteString FAILED_TEXT = ByteString.copyFromUtf8("发送失败");
+
     /**
      * 负责客户端Channel管理(线程安全)
      */
     public static ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
+    /**
+     * 用户与Channel的路由表,用于点对点投递
+     */
+    private final UserChannelRegistry registry = new UserChannelRegistry();
+
+    /**
+     * 群聊成员索引与扇出
+     */
+    private final RoomFanout rooms = new RoomFanout(registry);
+
+    /**
+     * 消息日志,为null时不持久化
+     */
+    private volatile MessageJournal journal;
+
+    /**
+     * 历史消息查询,为null时不支持拉取历史消息
+     */
+    private volatile HistoryService history;
+
+    /**
+     * 离线收件箱,为null时不在线用户的消息直接丢弃
+     */
+    private volatile OfflineInbox inbox;
+
+    /**
+     * 业务执行器,为null时业务逻辑直接在EventLoop上执行
+     */
+    private volatile BusinessStage business;
+
+    /**
+     * 按设备的去重窗口: 客户端重连后重发的消息不再重复投递和存储,为null时不去重
+     */
+    private volatile DedupRegistry dedup;
+
     /**
      * 接收处理客户端发送数据
      *
@@ -43,29 +101,380 @@ public class NettyServerHandler extends SimpleChannelInboundHandler<ChatMessageP
      * @param msg 消息
      */
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, ChatMessageProto.ChatMessage msg) {
+    protected void channelRead0(ChannelHandlerContext ctx, ChatMessageProto.ChatMessage msg) throws Exception {
         Channel channel = ctx.channel();
 
         long fromUserId = msg.getFromUserId();
-        long toUserId = msg.getToUserId();
-        String content = msg.getContent();
-        String sendTime = msg.getSendTime();
-        int type = msg.getType();
-        int status = msg.getStatus();
-        long id = msg.getId();
-        log.info("服务端收到消息: [\nfromUserId={},\n toUserId={},\n content='{}',\n sendTime={},\n type={},\n status={},\n id={}\n]",
-                fromUserId, toUserId, content, sendTime, type, status, id);
-
-        // 异步线程处理业务逻辑
+        if (log.isDebugEnabled()) {
+            log.debug("服务端收到消息: [\nfromUserId={},\n toUserId={},\n content='{}',\n sendTime={},\n type={},\n status={},\n id={}\n]",
+                    fromUserId, msg.getToUserId(), msg.getContent().toStringUtf8(), msg.getSendTime(), msg.getType(), msg.getStatus(), msg.getId());
+        }
+
+        ChatSession session = ChatSession.get(channel);
+        // 确认消息中带上的消息ID,只有分配了ID的消息才有
+        long ackId = 0;
+        if (msg.getType() == MessageType.CONNECT && session == null) {
+            // 建立连接: 绑定用户与Channel
+            bind(channel, fromUserId, msg.getDeviceId(), msg.getBatchAck());
+        } else if (session == null || session.getUserId() != fromUserId) {
+            // 未建立连接,或者发送者与连接绑定的用户不一致
+            reply(channel, fromUserId, msg.getClientSeq(), FAILED_TEXT, MessageStatus.FAILED);
+            return;
+        } else if (msg.getType() != MessageType.CONNECT) {
+            long clientSeq = msg.getClientSeq();
+            DedupWindow window = clientSeq > 0 && needsId(msg.getType()) ? session.getDedup() : null;
+            if (window != null) {
+                long original = window.check(clientSeq);
+                if (original == DedupWindow.IN_FLIGHT) {
+                    // 原消息还在业务执行阶段处理中: 不再投递,由原消息处理完后回复确认(失败时客户端可以再次重发)
+                    return;
+                }
+                if (original != DedupWindow.NEW) {
+                    // 重复的消息(客户端重发): 不再投递,回复原来的消息ID;ID已经查不到时单独回复重复状态,不带ID
+                    if (session.isBatchAck()) {
+                        session.received(clientSeq);
+                    }
+                    if (original == DedupWindow.UNKNOWN_ID) {
+                        reply(channel, fromUserId, clientSeq, SENT_TEXT, MessageStatus.DUPLICATE);
+                    } else {
+                        reply(channel, fromUserId, clientSeq, SENT_TEXT, MessageStatus.SENT, original);
+                    }
+                    return;
+                }
+            }
+            // 分配消息ID,确认与投递都使用带ID的消息
+            ChatMessage stamped = stamp(msg);
+            if (stamped != msg) {
+                ackId = stamped.getId();
+                msg = stamped;
+            }
+            BusinessStage business = this.business;
+            if (business == null) {
+                // 没有配置业务执行器: 直接在EventLoop上处理
+                complete(session, msg, window, ackId, dispatch(channel, msg), false);
+                return;
+            }
+            // 异步线程处理业务逻辑: 同一用户(或同一连接)的消息在业务执行阶段按顺序处理,处理结果交还给EventLoop回复确认
+            ChatMessage task = msg;
+            long id = ackId;
+            business.execute(channel, fromUserId, () -> {
+                boolean success = false;
+                try {
+                    success = dispatch(channel, task);
+                } catch (Exception e) {
+                    log.warn("{}处理消息失败", channel.id().asShortText(), e);
+                }
+                boolean result = success;
+                OutboundBatch.current().execute(channel, () -> complete(session, task, window, id, result, true));
+            });
+            return;
+        }
+
         // 回复客户端收到消息
+        reply(channel, fromUserId, msg.getClientSeq(), SENT_TEXT, MessageStatus.SENT);
+    }
+
+    /**
+     * 消息处理完成: 更新去重窗口并回复确认,在Channel所属的EventLoop上调用
+     *
+     * @param session  发送者的会话
+     * @param msg      已分配ID的消息
+     * @param window   去重窗口,为null时不去重
+     * @param ackId    确认消息中带上的消息ID
+     * @param success  是否处理成功
+     * @param deferred 是否由业务执行器处理完后交还回来(已经不在读批次中,累计确认需要单独回复)
+     */
+    private void complete(ChatSession session, ChatMessage msg, DedupWindow window, long ackId, boolean success, boolean deferred) {
+        Channel channel = session.getChannel();
+        long clientSeq = msg.getClientSeq();
+        if (window != null) {
+            if (success) {
+                window.record(clientSeq, ackId);
+            } else {
+                window.forget(clientSeq);
+            }
+        }
+        if (session.isBatchAck()) {
+            // 累计确认: 读批次结束时统一回复,失败的消息单独回复
+            session.received(clientSeq);
+            if (deferred && session.scheduleAck()) {
+                // 同一轮交还的结果只回复一次累计确认
+                channel.eventLoop().execute(() -> {
+                    takeAck(session);
+                    OutboundBatch.current().flush();
+                });
+            }
+            if (success) {
+                return;
+            }
+        }
+        if (!success) {
+            reply(channel, session.getUserId(), clientSeq, FAILED_TEXT, MessageStatus.FAILED);
+            return;
+        }
+        // 回复客户端收到消息(带上服务端分配的消息ID)
+        reply(channel, session.getUserId(), clientSeq, SENT_TEXT, MessageStatus.SENT, ackId);
+    }
+
+    /**
+     * 为需要投递的消息分配ID(覆盖客户端填写的值);拉取历史消息的id是分页游标,加入/退出群聊不需要ID
+     *
+     * @param msg 消息
+     * @return 带上消息ID的消息
+     */
+    private static ChatMessage stamp(ChatMessage msg) {
+        return needsId(msg.getType()) ? msg.toBuilder().setId(MessageIdGenerator.next()).build() : msg;
+    }
+
+    /**
+     * 需要投递的消息才分配ID与去重
+     */
+    private static boolean needsId(int type) {
+        switch (type) {
+            case MessageType.CONNECT:
+            case MessageType.HISTORY:
+            case MessageType.JOIN_ROOM:
+            case MessageType.LEAVE_ROOM:
+            case MessageType.HEARTBEAT_CONFIG:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 绑定用户与Channel,Channel关闭时自动解除绑定
+     *
+     * @param channel  通道
+     * @param userId   用户ID
+     * @param deviceId 设备标识,为空时去重窗口只属于本连接
+     * @param batchAck 是否使用累计确认
+     */
+    private void bind(Channel channel, long userId, String deviceId, boolean batchAck) {
+        DedupRegistry dedup = this.dedup;
+        channel.attr(ChatSession.KEY).set(new ChatSession(userId, channel, batchAck)
+                .setDedup(dedup == null ? null : dedup.acquire(userId, deviceId)));
+        registry.add(userId, channel);
+        rooms.online(userId, channel);
+        channels.add(channel);
+        OfflineInbox inbox = this.inbox;
+        if (inbox != null) {
+            // 补发离线消息到该用户所有在线的设备(含刚绑定的这个): 批量写入,只在每轮结束时flush
+            inbox.drain(userId, registry.get(userId));
+        }
+        channel.closeFuture().addListener(future -> {
+            if (dedup != null) {
+                dedup.release(userId, deviceId);
+            }
+            registry.remove(userId, channel);
+            rooms.offline(userId, channel);
+        });
+        log.debug("用户{}已绑定{}", userId, channel.id().asShortText());
+    }
+
+    /**
+     * 按消息类型处理已建立连接的用户发来的消息
+     *
+     * @param channel 发送者的通道
+     * @param msg     消息
+     * @return 是否处理成功
+     */
+    private boolean dispatch(Channel channel, ChatMessage msg) throws Exception {
+        switch (msg.getType()) {
+            case MessageType.JOIN_ROOM:
+                rooms.join(msg.getRoomId(), msg.getFromUserId());
+                return true;
+            case MessageType.LEAVE_ROOM:
+                rooms.leave(msg.getRoomId(), msg.getFromUserId());
+                return true;
+            case MessageType.HISTORY:
+                return history(channel, msg);
+            case MessageType.HEARTBEAT_CONFIG:
+                // 只由服务端发出
+                return false;
+            default:
+                if (msg.getRoomId() == 0) {
+                    deliver(persist(msg));
+                    return true;
+                }
+                // 群聊消息: 只有群成员可以发送
+                Room room = rooms.getIndex().get(msg.getRoomId());
+                if (room == null || !room.isMember(msg.getFromUserId())) {
+                    return false;
+                }
+                rooms.fanout(room, persist(msg), channel);
+                return true;
+        }
+    }
+
+    /**
+     * 拉取一页历史消息,按从旧到新的顺序发给请求者,随后的确认消息表示这一页结束
+     * 单聊只能拉取自己参与的会话,群聊只有成员可以拉取
+     *
+     * @param channel 请求者的通道
+     * @param msg     请求: toUserId为对方或roomId为群聊,id为0表示最新一页,否则拉取该ID之前的一页
+     * @return 是否处理成功
+     */
+    private boolean history(Channel channel, ChatMessage msg) throws IOException {
+        HistoryService history = this.history;
+        if (history == null) {
+            return false;
+        }
+        ConversationKey key;
+        if (msg.getRoomId() != 0) {
+            Room room = rooms.getIndex().get(msg.getRoomId());
+            if (room == null || !room.isMember(msg.getFromUserId())) {
+                return false;
+            }
+            key = ConversationKey.room(msg.getRoomId());
+        } else {
+            key = ConversationKey.pair(msg.getFromUserId(), msg.getToUserId());
+        }
+        OutboundBatch batch = OutboundBatch.current();
+        for (ChatMessage old : history.page(key, msg.getId())) {
+            batch.write(channel, old);
+        }
+        return true;
+    }
+
+    /**
+     * 写入消息日志(不阻塞),消息ID在收到消息时已经分配
+     *
+     * @param msg 消息
+     * @return 原消息
+     */
+    private ChatMessage persist(ChatMessage msg) {
+        MessageJournal journal = this.journal;
+        if (journal != null) {
+            journal.append(msg);
+        }
+        return msg;
+    }
+
+    /**
+     * 将消息投递给接收者的所有在线设备
+     * 只加入当前线程的发送批次,在channelReadComplete时统一flush
+     *
+     * @param msg 消息
+     */
+    private void deliver(ChatMessage msg) {
+        Channel[] targets = registry.get(msg.getToUserId());
+        if (targets.length == 0) {
+            log.debug("用户{}不在线", msg.getToUserId());
+            OfflineInbox inbox = this.inbox;
+            if (inbox != null && inbox.offer(msg.getToUserId(), msg)) {
+                // 存入期间对方可能刚好上线,重新检查一次,避免消息滞留到下次上线
+                targets = registry.get(msg.getToUserId());
+                if (targets.length > 0) {
+                    inbox.drain(msg.getToUserId(), targets);
+                }
+            }
+            return;
+        }
+        OutboundBatch batch = OutboundBatch.current();
+        for (Channel target : targets) {
+            batch.write(target, msg);
+        }
+    }
+
+    /**
+     * 回复系统消息(同样只加入发送批次,一次读批次只flush一次)
+     *
+     * @param channel   通道
+     * @param userId    接收回复的用户
+     * @param clientSeq 被确认的客户端序号
+     * @param content   内容
+     * @param status    状态
+     */
+    private void reply(Channel channel, long userId, long clientSeq, ByteString content, int status) {
+        reply(channel, userId, clientSeq, content, status, 0);
+    }
+
+    /**
+     * 回复系统消息
+     *
+     * @param id 被确认的消息ID,0表示没有
+     */
+    private void reply(Channel channel, long userId, long clientSeq, ByteString content, int status, long id) {
         ChatMessage res = ChatMessage.newBuilder()
-                .setFromUserId(fromUserId)
-                .setToUserId(fromUserId)
-                .setContent("发送成功")
-                .setType(7)
-                .setStatus(0).build();
-        channel.writeAndFlush(res);
+                .setId(id)
+                .setFromUserId(userId)
+                .setToUserId(userId)
+                .setClientSeq(clientSeq)
+                .setContent(content)
+                .setType(MessageType.SYSTEM)
+                .setStatus(status).build();
+        OutboundBatch.current().write(channel, res);
+    }
+
+    /**
+     * 一次读批次结束,提交这期间累积的投递
+     *
+     * @param ctx ctx
+     * @throws Exception 例外
+     */
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        ChatSession session = ChatSession.get(ctx.channel());
+        if (session != null && session.isBatchAck()) {
+            takeAck(session);
+        }
+        OutboundBatch.current().flush();
+        super.channelReadComplete(ctx);
+    }
+
+    /**
+     * 累计确认: 一次确认已连续收到的最大序号及之前的所有消息
+     */
+    private void takeAck(ChatSession session) {
+        long ackedSeq = session.takeAck();
+        if (ackedSeq >= 0) {
+            reply(session.getChannel(), session.getUserId(), ackedSeq, ByteString.EMPTY, MessageStatus.CUMULATIVE_ACK);
+        }
+    }
+
+    public void setBusiness(BusinessStage business) {
+        this.business = business;
+    }
+
+    public BusinessStage getBusiness() {
+        return business;
+    }
+
+    public UserChannelRegistry getRegistry() {
+        return registry;
+    }
+
+    public void setJournal(MessageJournal journal) {
+        this.journal = journal;
+    }
+
+    public void setHistory(HistoryService history) {
+        this.history = history;
+    }
+
+    public void setInbox(OfflineInbox inbox) {
+        this.inbox = inbox;
+    }
+
+    public OfflineInbox getInbox() {
+        return inbox;
+    }
+
+    public void setDedup(DedupRegistry dedup) {
+        this.dedup = dedup;
+    }
+
+    public DedupRegistry getDedup() {
+        return dedup;
+    }
+
+    public MessageJournal getJournal() {
+        return journal;
+    }
 
+    public RoomFanout getRooms() {
+        return rooms;
     }
 
     /**
@@ -0,0 +1,192 @@
+package com.yen.server.id;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 消息ID生成器(Snowflake风格): 41位毫秒时间戳 | 10位序号 | 6位节点 | 6位分配器
+ * 1.只在EventLoop上分配ID: 服务启动时通过{@link #bind(EventLoopGroup)}按EventLoop的下标给每个EventLoop一个分配器,
+ *   热路径上没有共享变量、CAS和锁;EventLoop总数超过64个时启动失败,不会有线程共用分配器
+ * 2.每个分配器维护一个逻辑时钟(时间戳<<10|序号,即ID的高51位): 取当前时间与上一个值+1中较大的一个,
+ *   同一毫秒序号用完时借用下一毫秒,时钟回拨时继续在上一个值上递增,保证分配的ID单调递增、不重复
+ * 3.{@link #observe(long)}: 线程投递了一条消息后,保证之后在这个线程上生成的ID都比它大(Lamport时钟);
+ *   节点与分配器编号放在最低位,只在逻辑时钟相同时决定顺序,所以逻辑时钟更大的ID一定更大,
+ *   因此在同一会话中,回复总是排在被回复的消息之后;同一发送者的消息在同一个EventLoop上生成,严格递增
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:39
+ */
+@Slf4j
+public final class MessageIdGenerator {
+
+    /**
+     * 时间戳起点: 2026-01-01T00:00:00Z
+     */
+    public static final long EPOCH = 1767225600000L;
+
+    private static final int SEQUENCE_BITS = 10;
+    private static final int ALLOCATOR_BITS = 6;
+    private static final int NODE_BITS = 6;
+    private static final int ALLOCATOR_SHIFT = 0;
+    private static final int NODE_SHIFT = ALLOCATOR_SHIFT + ALLOCATOR_BITS;
+    private static final int SEQUENCE_SHIFT = NODE_SHIFT + NODE_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_SHIFT + SEQUENCE_BITS;
+    /**
+     * 一个节点内最多的分配器(EventLoop)数量
+     */
+    public static final int MAX_ALLOCATORS = 1 << ALLOCATOR_BITS;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * 逻辑时钟落后于系统时钟多少毫秒时认为发生了时钟回拨(只用于告警)
+     */
+    private static final long REGRESSION_WARN_MILLIS = 1000;
+
+    private static volatile int nodeId;
+    /**
+     * 所有分配器的逻辑时钟下限(例如重启后消息日志中的最大ID),新建的分配器从这里开始
+     */
+    private static volatile long floor;
+
+    /**
+     * 已经分配出去的分配器编号数量,只在启动时修改
+     */
+    private static int allocators;
+
+    /**
+     * 当前EventLoop的分配器,没有绑定过的线程为null
+     */
+    private static final FastThreadLocal<Allocator> CURRENT = new FastThreadLocal<>();
+
+    private MessageIdGenerator() {
+    }
+
+    /**
+     * 设置节点编号,多个服务端实例共用消息ID空间时每个实例使用不同的编号,必须在分配ID之前调用
+     *
+     * @param nodeId 0~63
+     */
+    public static void configure(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点编号超出范围[0," + MAX_NODE_ID + "]: " + nodeId);
+        }
+        MessageIdGenerator.nodeId = nodeId;
+    }
+
+    /**
+     * 之后分配的ID都大于id(启动时传入已持久化的最大ID,防止重启期间时钟回拨导致ID倒退)
+     */
+    public static void advanceTo(long id) {
+        floor = Math.max(floor, logical(id));
+    }
+
+    /**
+     * 给group中每个还没有分配器的EventLoop按下标分配一个,阻塞到全部完成
+     * 同一进程中的多个group依次占用后面的编号
+     *
+     * @param group 会调用{@link #next()}的EventLoop
+     * @throws IllegalStateException EventLoop总数超过{@link #MAX_ALLOCATORS}
+     */
+    public static synchronized void bind(EventLoopGroup group) {
+        int before = allocators;
+        for (EventExecutor loop : group) {
+            int id = allocators;
+            boolean bound = loop.submit(() -> {
+                if (CURRENT.isSet()) {
+                    return false;
+                }
+                if (id >= MAX_ALLOCATORS) {
+                    throw new IllegalStateException("EventLoop数量超过消息ID分配器上限" + MAX_ALLOCATORS + ",请减少worker线程数");
+                }
+                CURRENT.set(new Allocator(id));
+                return true;
+            }).syncUninterruptibly().getNow();
+            if (bound) {
+                allocators++;
+            }
+        }
+        log.info("消息ID分配器新绑定{}个EventLoop,共{}个", allocators - before, allocators);
+    }
+
+    /**
+     * 在当前EventLoop上分配一个ID
+     *
+     * @throws IllegalStateException 当前线程不是已绑定的EventLoop
+     */
+    public static long next() {
+        Allocator allocator = CURRENT.get();
+        if (allocator == null) {
+            throw new IllegalStateException("线程" + Thread.currentThread().getName() + "没有绑定消息ID分配器,只能在EventLoop上分配消息ID");
+        }
+        return allocator.next();
+    }
+
+    /**
+     * 当前线程看到(投递)了消息id,之后在当前线程上分配的ID都大于它;没有绑定分配器的线程不分配ID,直接忽略
+     */
+    public static void observe(long id) {
+        Allocator allocator = CURRENT.get();
+        if (allocator != null) {
+            allocator.observe(id);
+        }
+    }
+
+    /**
+     * ID中的时间戳(epoch毫秒)
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * ID对应的逻辑时钟值(时间戳<<10|序号),不同节点、分配器的ID在逻辑时钟上可以直接比较
+     */
+    private static long logical(long id) {
+        return id >>> SEQUENCE_SHIFT;
+    }
+
+    /**
+     * 一个EventLoop的分配器,只在所属线程上使用
+     */
+    private static final class Allocator {
+
+        private final long allocatorBits;
+        private long last;
+        private boolean behind;
+
+        private Allocator(int id) {
+            this.allocatorBits = (long) id << ALLOCATOR_SHIFT;
+            this.last = floor;
+        }
+
+        private long next() {
+            long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+            long value = last + 1;
+            if (now > value) {
+                value = now;
+                behind = false;
+            } else if (!behind && last - now > REGRESSION_WARN_MILLIS << SEQUENCE_BITS) {
+                // 系统时钟回拨(或持续超发),继续沿逻辑时钟递增,时钟追上后恢复
+                behind = true;
+                log.warn("消息ID逻辑时钟领先系统时钟{}毫秒,继续按逻辑时钟分配", (last - now) >> SEQUENCE_BITS);
+            }
+            long floor = MessageIdGenerator.floor;
+            if (value <= floor) {
+                value = floor + 1;
+            }
+            last = value;
+            return (value << SEQUENCE_SHIFT)
+                    | ((long) nodeId << NODE_SHIFT)
+                    | allocatorBits;
+        }
+
+        private void observe(long id) {
+            long value = logical(id);
+            if (value > last) {
+                last = value;
+            }
+        }
+    }
+}
@@ -1,35 +1,33 @@
 package com.yen.server.init;
 
 
-import com.google.protobuf.MessageLite;
-import com.google.protobuf.MessageLiteOrBuilder;
 import com.yen.model.proto.ChatMessageProto;
+import com.yen.server.business.BusinessStage;
+import com.yen.server.business.ExecutionMode;
+import com.yen.server.codec.ProtobufWebSocketDecoder;
+import com.yen.server.codec.ProtobufWebSocketEncoder;
+import com.yen.server.codec.WireProtocol;
+import com.yen.server.codec.WireProtocolHandler;
+import com.yen.server.flow.SlowConsumerHandler;
+import com.yen.server.flow.SlowConsumerPolicy;
 import com.yen.server.handler.NettyServerHandler;
-import io.netty.buffer.ByteBuf;
-import io.netty.channel.ChannelHandlerContext;
+import com.yen.server.idle.SharedIdleStateHandler;
+import com.yen.server.keepalive.KeepaliveHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.MessageToMessageDecoder;
-import io.netty.handler.codec.MessageToMessageEncoder;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.websocketx.*;
 import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketServerCompressionHandler;
-import io.netty.handler.codec.protobuf.ProtobufDecoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
-import io.netty.handler.timeout.IdleStateHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import static io.netty.buffer.Unpooled.wrappedBuffer;
-
 /**
  * @author Yhx
  * @date 2024/7/2 16:36
@@ -37,6 +35,8 @@ import static io.netty.buffer.Unpooled.wrappedBuffer;
 public class NettyServerInitializer extends ChannelInitializer<SocketChannel> {
     private static final Logger log = LoggerFactory.getLogger(NettyServerInitializer.class);
     private final NettyServerHandler webSocketFrameHandler = new NettyServerHandler();
+    private final ProtobufWebSocketEncoder protobufEncoder = new ProtobufWebSocketEncoder();
+    private final WireProtocolHandler wireProtocolHandler = new WireProtocolHandler();
 
     /**
      * 浏览器请求websocket接口时 ws://ip:host//api/chat    对应路径
@@ -55,17 +55,152 @@ public class NettyServerInitializer extends ChannelInitializer<SocketChannel> {
      */
     private long readerIdleTime = 11, writeIdleTime = 11, allIdleTime = 11;
 
+    /**
+     * 所有连接共享的空闲检测处理器,每个EventLoop一个巡检任务
+     */
+    private final SharedIdleStateHandler idleStateHandler;
+
+    /**
+     * 心跳: 空闲时发送Ping,连续maxMissedPongs个Ping超过pongTimeout秒没有回复就关闭连接
+     */
+    private int maxMissedPongs = 3;
+    private long pongTimeout = 10;
+    /**
+     * 自适应心跳间隔范围(秒),minHeartbeatSeconds<=0表示固定按空闲时间发送Ping
+     */
+    private int minHeartbeatSeconds = 0, maxHeartbeatSeconds = 0;
+    private KeepaliveHandler keepaliveHandler;
+
     /**
      * 是否打印debug日志
      */
     private boolean isDebug = false;
 
+    /**
+     * 是否兼容帧内容带varint32长度前缀的旧客户端
+     * 默认使用WebSocket原生分帧:每个BinaryWebSocketFrame恰好承载一条序列化后的ChatMessage
+     */
+    private final boolean lengthPrefixed;
+
+    private final ProtobufWebSocketDecoder protobufDecoder;
+
+    /**
+     * flush合并: 读批次内的flush会推迟到channelReadComplete时合并成一次,
+     * 连续explicitFlushAfterFlushes次flush后强制真正flush一次,避免延迟过大,<=0表示不开启
+     */
+    private int explicitFlushAfterFlushes = FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES;
+    /**
+     * 没有读批次时(例如其他线程投递过来的消息)是否也合并flush
+     */
+    private boolean consolidateWhenNoReadInProgress = true;
+
+    /**
+     * 慢消费者策略: Channel不可写(超过高水位)时积压消息的上限与处理方式
+     */
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.defaults();
+
+    public NettyServerInitializer() {
+        this(false);
+    }
+
+    public NettyServerInitializer(boolean lengthPrefixed) {
+        this.lengthPrefixed = lengthPrefixed;
+        this.idleStateHandler = new SharedIdleStateHandler(readerIdleTime, writeIdleTime, allIdleTime, TimeUnit.SECONDS);
+        this.keepaliveHandler = newKeepaliveHandler();
+        this.protobufDecoder = new ProtobufWebSocketDecoder(ChatMessageProto.ChatMessage.getDefaultInstance(), lengthPrefixed);
+    }
+
+    /**
+     * 配置flush合并
+     *
+     * @param explicitFlushAfterFlushes       连续多少次flush后强制flush,<=0表示不开启flush合并
+     * @param consolidateWhenNoReadInProgress 没有读批次时是否也合并flush
+     * @return this
+     */
+    public NettyServerInitializer flushConsolidation(int explicitFlushAfterFlushes, boolean consolidateWhenNoReadInProgress) {
+        this.explicitFlushAfterFlushes = explicitFlushAfterFlushes;
+        this.consolidateWhenNoReadInProgress = consolidateWhenNoReadInProgress;
+        return this;
+    }
+
+    /**
+     * 配置慢消费者策略
+     *
+     * @param slowConsumerPolicy 策略
+     * @return this
+     */
+    public NettyServerInitializer slowConsumerPolicy(SlowConsumerPolicy slowConsumerPolicy) {
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        return this;
+    }
+
+    /**
+     * 配置心跳
+     *
+     * @param maxMissedPongs 连续多少个Ping没有回复就关闭连接
+     * @param pongTimeout    Ping发出后多少秒没有回复算一次未回复
+     * @return this
+     */
+    public NettyServerInitializer keepalive(int maxMissedPongs, long pongTimeout) {
+        this.maxMissedPongs = maxMissedPongs;
+        this.pongTimeout = pongTimeout;
+        this.keepaliveHandler = newKeepaliveHandler();
+        return this;
+    }
+
+    /**
+     * 开启自适应心跳: 每个连接从minSeconds开始,按时收到Pong就逐步放大间隔,超时未回复就缩小
+     * 自适应间隔同时作为该连接的读/写空闲时间,minSeconds不应小于空闲时间
+     *
+     * @param minSeconds 最小(初始)间隔
+     * @param maxSeconds 最大间隔
+     * @return this
+     */
+    public NettyServerInitializer adaptiveHeartbeat(int minSeconds, int maxSeconds) {
+        this.minHeartbeatSeconds = minSeconds;
+        this.maxHeartbeatSeconds = maxSeconds;
+        this.keepaliveHandler = newKeepaliveHandler();
+        return this;
+    }
+
+    private KeepaliveHandler newKeepaliveHandler() {
+        return new KeepaliveHandler(maxMissedPongs, pongTimeout, TimeUnit.SECONDS, minHeartbeatSeconds, maxHeartbeatSeconds);
+    }
+
+    /**
+     * 配置业务逻辑的执行方式,例如VIRTUAL_THREAD_PER_CONNECTION: 每个连接的消息在自己的虚拟线程上按顺序处理,
+     * 业务代码可以写成阻塞形式,回复按批交还给EventLoop;确认、去重与消息ID分配仍在EventLoop上完成
+     *
+     * @param executionMode 执行方式
+     * @return this
+     */
+    public NettyServerInitializer executionMode(ExecutionMode executionMode) {
+        BusinessStage previous = webSocketFrameHandler.getBusiness();
+        webSocketFrameHandler.setBusiness(executionMode.newStage());
+        if (previous != null) {
+            previous.close();
+        }
+        return this;
+    }
+
+    public NettyServerHandler getHandler() {
+        return webSocketFrameHandler;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
     /**
      * Channel初始器配置
      */
     @Override
     protected void initChannel(SocketChannel ch) {
         ChannelPipeline pipeline = ch.pipeline();
+        if (explicitFlushAfterFlushes > 0) {
+            // 放在最前面,才能看到整条管道的读批次与所有flush
+            pipeline.addLast(new FlushConsolidationHandler(explicitFlushAfterFlushes, consolidateWhenNoReadInProgress));
+        }
         if (isDebug) {
             pipeline.addLast(new LoggingHandler());
         }
@@ -73,7 +208,7 @@ public class NettyServerInitializer extends ChannelInitializer<SocketChannel> {
         // 使用proto协议进行数据传输
         pipeline
                 // 配置空闲处理器,触发后会传递给下一个Handler的userEventTrigger方法处理
-                .addLast(new IdleStateHandler(readerIdleTime, writeIdleTime, allIdleTime, TimeUnit.SECONDS))
+                .addLast(idleStateHandler)
                 .addLast(new HttpServerCodec())
                 // 支持参数对象解析,比如POST参数,设置聚合内容的最大长度
                 .addLast(new HttpObjectAggregator(65536))
@@ -81,59 +216,23 @@ public class NettyServerInitializer extends ChannelInitializer<SocketChannel> {
                 .addLast(new ChunkedWriteHandler())
                 // 支持Websocket数据压缩
                 .addLast(new WebSocketServerCompressionHandler())
-                // Websocket协议配置, 设置访问路径
-                .addLast(new WebSocketServerProtocolHandler(webSocketPath,null,true))
-                // 解码器: 通过GoogleProtocolBuffers序列化框架动态的切割接收到的ByteBuf
-                .addLast(new ProtobufVarint32FrameDecoder())
-                // 编码器: GoogleProtocolBuffers长度属性编码器
-                .addLast(new ProtobufVarint32LengthFieldPrepender())
-
-                // 协议包解码
-                .addLast(new MessageToMessageDecoder<WebSocketFrame>() {
-                    @Override
-                    protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> objs) throws Exception {
-                        log.info("收到客户端消息----------------------");
-                        if (frame instanceof TextWebSocketFrame) {
-                            // 文本消息
-                            TextWebSocketFrame textFrame = (TextWebSocketFrame)frame;
-                            log.info("消息类型为TextWebSocketFrame");
-                        }else if (frame instanceof BinaryWebSocketFrame){
-                            // 二进制消息
-                            ByteBuf buf = ((BinaryWebSocketFrame) frame).content();
-                            objs.add(buf);
-                            // 自旋累加
-                            buf.retain();
-                            log.info("消息类型为BinaryWebSocketFrame");
-                        } else if (frame instanceof PongWebSocketFrame) {
-                            // PING存活检测消息
-                            log.info("消息类型为PongWebSocketFrame");
-                        } else if (frame instanceof CloseWebSocketFrame) {
-                            // 关闭指令消息
-                            log.info("消息类型为CloseWebSocketFrame");
-                            ch.close();
-                        }
-                    }
-                })
-                // 协议包编码
-                .addLast(new MessageToMessageEncoder<MessageLiteOrBuilder>() {
-                    @Override
-                    protected void encode(ChannelHandlerContext ctx, MessageLiteOrBuilder msg, List<Object> out) throws Exception {
-                        ByteBuf result = null;
-                        if (msg instanceof MessageLite) {
-                            // 没有build的Protobuf消息
-                            result = wrappedBuffer(((MessageLite) msg).toByteArray());
-                        }
-                        if (msg instanceof MessageLite.Builder) {
-                            // 经过build的Protobuf消息
-                            result = wrappedBuffer(((MessageLite.Builder) msg).build().toByteArray());
-                        }
-                        // 将Protbuf消息包装成Binary Frame 消息
-                        WebSocketFrame frame = new BinaryWebSocketFrame(result);
-                        out.add(frame);
-                    }
-                })
-                // 解码器: 解码自定义的业务消息对象
-                .addLast(new ProtobufDecoder(ChatMessageProto.ChatMessage.getDefaultInstance()))
+                // Websocket协议配置, 设置访问路径; Pong帧不丢弃,交给心跳处理器; 声明支持的子协议
+                .addLast(new WebSocketServerProtocolHandler(WebSocketServerProtocolConfig.newBuilder()
+                        .websocketPath(webSocketPath)
+                        .subprotocols(WireProtocol.subprotocols())
+                        .allowExtensions(true)
+                        .dropPongFrames(false)
+                        .build()))
+                // 握手完成后按协商的子协议替换编解码器(批量协议)
+                .addLast(wireProtocolHandler)
+                // 协议包解码: 直接从帧内容解析出业务消息对象
+                .addLast(WireProtocolHandler.DECODER, protobufDecoder)
+                // 协议包编码: 直接序列化到池化直接内存并包装成BinaryWebSocketFrame
+                .addLast(WireProtocolHandler.ENCODER, protobufEncoder)
+                // 心跳: 空闲时发送Ping,处理Pong并统计往返时间
+                .addLast(keepaliveHandler)
+                // 慢消费者处理: Channel不可写时积压业务消息,超过上限按策略处理
+                .addLast(new SlowConsumerHandler(slowConsumerPolicy))
                 // 最后增加自定义的处理器,处理业务逻辑
                 .addLast(webSocketFrameHandler);
     }
@@ -0,0 +1,262 @@
+package com.yen.server.keepalive;
+
+import com.yen.model.constant.MessageType;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.WireProtocol;
+import com.yen.server.idle.SharedIdleStateHandler;
+import com.yen.server.session.ChatSession;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端心跳处理器
+ * 连接读空闲或写空闲时发送PingWebSocketFrame,帧内容是8字节的发送时间(System.nanoTime()),
+ * 客户端原样返回Pong,据此计算往返时间并记入{@link KeepaliveMetrics#RTT};
+ * 每个Ping发出时单独安排一个pongTimeout后的超时检查(收到Pong时取消),超时未回复立即重发Ping,
+ * 连续maxMissedPongs个Ping超时没有回复时关闭连接,半开连接在空闲后约pongTimeout*maxMissedPongs内被回收,
+ * 与心跳间隔无关,及时回收半开连接占用的内存和路由
+ * 需要放在解码器之后(解码器把Pong帧传下来),只在WebSocket握手完成后才会发送Ping
+ * 自适应模式下每个连接的心跳间隔单独调整: 连续GROW_AFTER次按时收到Pong就把间隔放大一半,
+ * Ping超时未回复就减半,并且以后不再超过出问题时间隔的3/4(探测NAT超时);
+ * 间隔变化后通过心跳配置消息(type 11)的heartbeatSeconds告知客户端,只发给协商了v2协议的连接,
+ * v1客户端不认识这种消息,只按服务端的Ping回复Pong
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:12
+ */
+@Slf4j
+@Sharable
+public class KeepaliveHandler extends ChannelInboundHandlerAdapter {
+
+    private static final AttributeKey<State> STATE = AttributeKey.valueOf("keepalive");
+
+    /**
+     * 连续多少次按时收到Pong后放大心跳间隔
+     */
+    private static final int GROW_AFTER = 3;
+    /**
+     * Ping帧在线路上的字节数: 2字节帧头 + 8字节发送时间
+     */
+    private static final int PING_FRAME_BYTES = 2 + Long.BYTES;
+
+    private final int maxMissedPongs;
+    private final long pongTimeoutNanos;
+    /**
+     * 自适应心跳间隔的范围(秒),minHeartbeatSeconds<=0表示使用空闲检测的固定间隔
+     */
+    private final int minHeartbeatSeconds;
+    private final int maxHeartbeatSeconds;
+
+    /**
+     * @param maxMissedPongs 连续多少个Ping没有回复就关闭连接
+     * @param pongTimeout    Ping发出后多久没有回复算一次未回复
+     * @param unit           时间单位
+     */
+    public KeepaliveHandler(int maxMissedPongs, long pongTimeout, TimeUnit unit) {
+        this(maxMissedPongs, pongTimeout, unit, 0, 0);
+    }
+
+    /**
+     * @param maxMissedPongs      连续多少个Ping没有回复就关闭连接
+     * @param pongTimeout         Ping发出后多久没有回复算一次未回复
+     * @param unit                时间单位
+     * @param minHeartbeatSeconds 自适应心跳的最小(初始)间隔,<=0表示不开启自适应
+     * @param maxHeartbeatSeconds 自适应心跳的最大间隔
+     */
+    public KeepaliveHandler(int maxMissedPongs, long pongTimeout, TimeUnit unit, int minHeartbeatSeconds, int maxHeartbeatSeconds) {
+        this.maxMissedPongs = Math.max(1, maxMissedPongs);
+        this.pongTimeoutNanos = unit.toNanos(pongTimeout);
+        this.minHeartbeatSeconds = minHeartbeatSeconds;
+        this.maxHeartbeatSeconds = Math.max(minHeartbeatSeconds, maxHeartbeatSeconds);
+    }
+
+    public boolean isAdaptive() {
+        return minHeartbeatSeconds > 0;
+    }
+
+    /**
+     * 连接当前的心跳间隔(秒),固定间隔模式或还没有握手时返回0
+     */
+    public static int heartbeatSeconds(Channel channel) {
+        State state = channel.attr(STATE).get();
+        return state == null ? 0 : state.interval;
+    }
+
+    /**
+     * 连接最近的平滑往返时间(纳秒),还没有测量时返回-1
+     */
+    public static long rttNanos(Channel channel) {
+        State state = channel.attr(STATE).get();
+        return state == null ? -1 : state.srttNanos;
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof WebSocketServerProtocolHandler.HandshakeComplete) {
+            State state = new State();
+            ctx.channel().attr(STATE).set(state);
+            if (isAdaptive()) {
+                state.ceiling = maxHeartbeatSeconds;
+                adjust(ctx, state, minHeartbeatSeconds);
+            }
+        } else if (evt instanceof IdleStateEvent) {
+            IdleState idle = ((IdleStateEvent) evt).state();
+            if (idle == IdleState.READER_IDLE || idle == IdleState.WRITER_IDLE) {
+                State state = ctx.channel().attr(STATE).get();
+                if (state != null) {
+                    ping(ctx, state);
+                }
+            }
+        }
+        ctx.fireUserEventTriggered(evt);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof PongWebSocketFrame)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+        try {
+            State state = ctx.channel().attr(STATE).get();
+            ByteBuf content = ((PongWebSocketFrame) msg).content();
+            if (state == null || content.readableBytes() != Long.BYTES) {
+                // 客户端主动发送的Pong(单向心跳),不用于测量
+                return;
+            }
+            long sentAt = content.getLong(content.readerIndex());
+            if (sentAt != state.sentAt) {
+                return;
+            }
+            long rtt = System.nanoTime() - sentAt;
+            KeepaliveMetrics.PONGS.increment();
+            KeepaliveMetrics.RTT.record(rtt);
+            state.srttNanos = state.srttNanos < 0 ? rtt : state.srttNanos - (state.srttNanos >> 3) + (rtt >> 3);
+            state.sentAt = 0;
+            state.missed = 0;
+            state.cancelTimeout();
+            if (isAdaptive() && ++state.streak >= GROW_AFTER && state.interval < state.ceiling) {
+                KeepaliveMetrics.GROWN.increment();
+                adjust(ctx, state, Math.min(state.ceiling, state.interval + Math.max(1, state.interval / 2)));
+            }
+        } finally {
+            ((PongWebSocketFrame) msg).release();
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        State state = ctx.channel().attr(STATE).get();
+        if (state != null) {
+            state.cancelTimeout();
+        }
+        ctx.fireChannelInactive();
+    }
+
+    /**
+     * 空闲时发送Ping,上一个Ping还在等待回复时由它的超时检查负责
+     */
+    private void ping(ChannelHandlerContext ctx, State state) {
+        if (state.sentAt != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        state.sentAt = now;
+        KeepaliveMetrics.PINGS.increment();
+        KeepaliveMetrics.PING_BYTES.add(PING_FRAME_BYTES);
+        ByteBuf payload = ctx.alloc().buffer(Long.BYTES).writeLong(now);
+        ctx.writeAndFlush(new PingWebSocketFrame(payload), ctx.voidPromise());
+        state.timeout = ctx.executor().schedule(() -> pongTimeout(ctx, state, now), pongTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ping发出后pongTimeout内没有收到回复: 计一次未回复,达到上限关闭连接,否则立即重发
+     */
+    private void pongTimeout(ChannelHandlerContext ctx, State state, long sentAt) {
+        state.timeout = null;
+        if (state.sentAt != sentAt || !ctx.channel().isActive()) {
+            return;
+        }
+        state.sentAt = 0;
+        KeepaliveMetrics.MISSED.increment();
+        if (++state.missed >= maxMissedPongs) {
+            log.info("{}连续{}次未回复心跳,关闭连接", ctx.channel().id().asShortText(), state.missed);
+            KeepaliveMetrics.CLOSED.increment();
+            ctx.close();
+            return;
+        }
+        if (isAdaptive()) {
+            // 间隔可能超过了中间网络设备的超时时间,缩小间隔并记住上限
+            KeepaliveMetrics.SHRUNK.increment();
+            state.ceiling = Math.max(minHeartbeatSeconds, state.interval - state.interval / 4);
+            adjust(ctx, state, Math.max(minHeartbeatSeconds, state.interval / 2));
+        }
+        ping(ctx, state);
+    }
+
+    /**
+     * 修改连接的心跳间隔,同步到空闲检测,支持的客户端同时告知新的间隔
+     */
+    private void adjust(ChannelHandlerContext ctx, State state, int interval) {
+        state.streak = 0;
+        if (interval == state.interval) {
+            return;
+        }
+        state.interval = interval;
+        SharedIdleStateHandler.setIdleTime(ctx.channel(), interval, TimeUnit.SECONDS);
+        if (!WireProtocol.of(ctx.channel()).supportsHeartbeatConfig()) {
+            return;
+        }
+        ChatSession session = ChatSession.get(ctx.channel());
+        long userId = session == null ? 0 : session.getUserId();
+        ChatMessage notice = ChatMessage.newBuilder()
+                .setFromUserId(userId)
+                .setToUserId(userId)
+                .setType(MessageType.HEARTBEAT_CONFIG)
+                .setHeartbeatSeconds(interval)
+                .build();
+        ctx.writeAndFlush(notice, ctx.voidPromise());
+    }
+
+    /**
+     * 连接的心跳状态,只在所属EventLoop上访问
+     */
+    private static final class State {
+        /**
+         * 等待回复的Ping的发送时间,0表示没有
+         */
+        private long sentAt;
+        private int missed;
+        private long srttNanos = -1;
+        /**
+         * 自适应模式: 当前间隔、不再超过的上限(秒)与连续按时回复的次数
+         */
+        private int interval;
+        private int ceiling;
+        private int streak;
+        /**
+         * 等待回复的Ping的超时检查
+         */
+        private ScheduledFuture<?> timeout;
+
+        private void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel(false);
+                timeout = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.yen.server.keepalive;
+
+import com.yen.server.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 心跳统计(整个节点)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:12
+ */
+public final class KeepaliveMetrics {
+
+    /**
+     * 发出的Ping数
+     */
+    public static final LongAdder PINGS = new LongAdder();
+    /**
+     * 发出的Ping帧字节数
+     */
+    public static final LongAdder PING_BYTES = new LongAdder();
+    /**
+     * 收到的Pong数
+     */
+    public static final LongAdder PONGS = new LongAdder();
+    /**
+     * 超时未回复的Ping数
+     */
+    public static final LongAdder MISSED = new LongAdder();
+    /**
+     * 因连续未回复Pong被关闭的连接数
+     */
+    public static final LongAdder CLOSED = new LongAdder();
+    /**
+     * 自适应心跳: 间隔放大/缩小的次数
+     */
+    public static final LongAdder GROWN = new LongAdder();
+    public static final LongAdder SHRUNK = new LongAdder();
+    /**
+     * Ping到Pong的往返时间
+     */
+    public static final LatencyHistogram RTT = new LatencyHistogram();
+
+    private KeepaliveMetrics() {
+    }
+
+    public static String snapshot() {
+        return "pings=" + PINGS.sum()
+                + ", pingBytes=" + PING_BYTES.sum()
+                + ", pongs=" + PONGS.sum()
+                + ", missed=" + MISSED.sum()
+                + ", closed=" + CLOSED.sum()
+                + ", grown=" + GROWN.sum()
+                + ", shrunk=" + SHRUNK.sum()
+                + ", rtt[" + RTT.snapshot() + "]";
+    }
+}
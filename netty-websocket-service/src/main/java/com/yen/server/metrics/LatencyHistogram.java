@@ -0,0 +1,80 @@
+package com.yen.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图(整个节点共用,线程安全)
+ * 以微秒为单位按2的幂分桶: 第i个桶统计[2^(i-1), 2^i)微秒的样本,记录只需要一次原子自增,
+ * 百分位数取所在桶的上界,误差不超过2倍,足够观察分布和长尾
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:12
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    /**
+     * 记录一个样本
+     *
+     * @param nanos 延迟(纳秒)
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        sumMicros.add(micros);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * 平均值(微秒)
+     */
+    public long meanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : sumMicros.sum() / n;
+    }
+
+    /**
+     * 百分位数(微秒),取所在桶的上界
+     *
+     * @param percentile 0~100
+     */
+    public long percentileMicros(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public String snapshot() {
+        return "count=" + count()
+                + ", meanUs=" + meanMicros()
+                + ", p50Us=" + percentileMicros(50)
+                + ", p99Us=" + percentileMicros(99)
+                + ", p999Us=" + percentileMicros(99.9);
+    }
+}
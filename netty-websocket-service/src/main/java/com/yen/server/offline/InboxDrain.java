@@ -0,0 +1,120 @@
+package com.yen.server.offline;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+
+import java.util.ArrayDeque;
+
+/**
+ * 上线后的离线消息补发(在Channel所属EventLoop上执行)
+ * 连续write不flush,每轮结束只flush一次;Channel不可写时暂停,
+ * 写一个空缓冲区并在它的写完成回调里继续,此时之前的数据已经写到了socket;
+ * 每轮最多写maxPerRun条,写完让出EventLoop,不会因为一个积压很多的用户饿死其他连接
+ * 用户有多个在线设备时每个设备各自补发一份(消息不可变,只复制队列);
+ * 只要有一个设备补发完成就不再放回,所有设备都在途中断开时,把剩余最少的那份放回收件箱
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:22
+ */
+final class InboxDrain implements Runnable {
+
+    private static final int MAX_PER_RUN = 1024;
+
+    private final OfflineInbox inbox;
+    private final long userId;
+    private final Channel channel;
+    private final ArrayDeque<ChatMessage> backlog;
+    private final Group group;
+
+    private InboxDrain(OfflineInbox inbox, long userId, Channel channel, ArrayDeque<ChatMessage> backlog, Group group) {
+        this.inbox = inbox;
+        this.userId = userId;
+        this.channel = channel;
+        this.backlog = backlog;
+        this.group = group;
+    }
+
+    /**
+     * 向每个通道补发一份backlog
+     */
+    static void start(OfflineInbox inbox, long userId, Channel[] channels, ArrayDeque<ChatMessage> backlog) {
+        Group group = new Group(channels.length);
+        for (int i = 0; i < channels.length; i++) {
+            // 最后一个通道直接使用原队列
+            ArrayDeque<ChatMessage> copy = i == channels.length - 1 ? backlog : new ArrayDeque<>(backlog);
+            new InboxDrain(inbox, userId, channels[i], copy, group).start();
+        }
+    }
+
+    private void start() {
+        if (channel.eventLoop().inEventLoop()) {
+            run();
+        } else {
+            channel.eventLoop().execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (!channel.isActive()) {
+            ArrayDeque<ChatMessage> rest = group.abort(backlog);
+            if (rest != null) {
+                inbox.requeue(userId, rest);
+            }
+            return;
+        }
+        int written = 0;
+        ChatMessage msg;
+        while (written < MAX_PER_RUN && channel.isWritable() && (msg = backlog.pollFirst()) != null) {
+            channel.write(msg, channel.voidPromise());
+            written++;
+        }
+        OfflineMetrics.DRAINED.add(written);
+        if (backlog.isEmpty()) {
+            channel.flush();
+            group.complete();
+            return;
+        }
+        if (channel.isWritable()) {
+            channel.flush();
+            channel.eventLoop().execute(this);
+        } else {
+            // 等出站缓冲写到socket后再继续
+            OfflineMetrics.PAUSED.increment();
+            channel.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(future -> run());
+        }
+    }
+
+    /**
+     * 同一次补发的所有设备,决定途中断开时是否放回以及放回哪一份
+     */
+    private static final class Group {
+
+        private int running;
+        private boolean completed;
+        private ArrayDeque<ChatMessage> shortest;
+
+        private Group(int count) {
+            running = count;
+        }
+
+        private synchronized void complete() {
+            completed = true;
+            shortest = null;
+            running--;
+        }
+
+        /**
+         * 一个设备途中断开
+         *
+         * @return 最后一个结束且没有设备补发完成时返回需要放回的消息,否则为null
+         */
+        private synchronized ArrayDeque<ChatMessage> abort(ArrayDeque<ChatMessage> rest) {
+            if (!completed && (shortest == null || rest.size() < shortest.size())) {
+                shortest = rest;
+            }
+            return --running == 0 ? shortest : null;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.yen.server.offline;
+
+import com.google.protobuf.CodedInputStream;
+import com.yen.model.constant.MessageType;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.flow.SpillSink;
+import com.yen.server.session.ChatSession;
+import io.netty.channel.Channel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 离线收件箱
+ * 接收者不在线(或慢消费者积压被转存)的消息按用户存放,内存中每个用户最多memoryLimit条,
+ * 超出时把最旧的一半按顺序追加到该用户的溢出文件(单独的IO线程),溢出文件也有条数上限;
+ * 用户上线(type 0)时先读溢出文件再接上内存中的消息,由{@link InboxDrain}带背压地批量补发到该用户所有在线的设备
+ * 补发期间新到的消息直接在线投递,可能早于积压的消息到达,客户端按消息ID排序
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:22
+ */
+@Slf4j
+public class OfflineInbox implements SpillSink {
+
+    private static final String SUFFIX = ".inbox";
+
+    /**
+     * 溢出文件目录,为null时只保存在内存中,超过上限直接丢弃最旧的消息
+     */
+    private final Path spillDir;
+    private int memoryLimit = 256;
+    private int spillLimit = 100_000;
+
+    private final ConcurrentHashMap<Long, UserInbox> inboxes = new ConcurrentHashMap<>();
+    private final ExecutorService io;
+
+    public OfflineInbox(Path spillDir) throws IOException {
+        this.spillDir = spillDir;
+        if (spillDir != null) {
+            Files.createDirectories(spillDir);
+            io = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "offline-inbox-io");
+                t.setDaemon(true);
+                return t;
+            });
+            recover();
+        } else {
+            io = null;
+        }
+    }
+
+    /**
+     * 配置上限
+     *
+     * @param memoryLimit 每个用户在内存中保存的消息数
+     * @param spillLimit  每个用户溢出到磁盘的消息数
+     * @return this
+     */
+    public OfflineInbox limits(int memoryLimit, int spillLimit) {
+        this.memoryLimit = Math.max(2, memoryLimit);
+        this.spillLimit = spillLimit;
+        return this;
+    }
+
+    /**
+     * 存入一条离线消息,可以在任意线程调用,不做磁盘IO
+     *
+     * @param userId 接收者
+     * @param msg    消息
+     * @return 是否存入(系统消息不保存)
+     */
+    public boolean offer(long userId, ChatMessage msg) {
+        if (msg.getType() == MessageType.SYSTEM) {
+            return false;
+        }
+        while (true) {
+            UserInbox box = inboxes.computeIfAbsent(userId, k -> new UserInbox());
+            List<ChatMessage> overflow;
+            synchronized (box) {
+                if (box.removed) {
+                    continue;
+                }
+                box.memory.addLast(msg);
+                overflow = trim(box);
+            }
+            OfflineMetrics.STORED.increment();
+            if (overflow != null) {
+                io.execute(() -> append(userId, overflow));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 慢消费者积压的消息转存到该连接用户的收件箱,下次上线时补发
+     */
+    @Override
+    public boolean spill(Channel channel, ChatMessage msg) {
+        ChatSession session = ChatSession.get(channel);
+        return session != null && offer(session.getUserId(), msg);
+    }
+
+    /**
+     * 用户上线: 把积压的离线消息补发到该用户所有在线的设备
+     *
+     * @param userId   用户
+     * @param channels 该用户当前绑定的通道
+     */
+    public void drain(long userId, Channel... channels) {
+        if (channels.length == 0) {
+            return;
+        }
+        UserInbox box = inboxes.get(userId);
+        if (box == null) {
+            return;
+        }
+        ArrayDeque<ChatMessage> memory;
+        boolean spilled;
+        synchronized (box) {
+            if (box.removed) {
+                return;
+            }
+            box.removed = true;
+            inboxes.remove(userId, box);
+            memory = box.memory;
+            spilled = box.spilled > 0;
+        }
+        if (!spilled) {
+            if (!memory.isEmpty()) {
+                InboxDrain.start(this, userId, channels, memory);
+            }
+            return;
+        }
+        // 溢出文件的写入任务都在io线程上排在前面,这里读到的是完整的
+        io.execute(() -> {
+            ArrayDeque<ChatMessage> backlog = read(userId);
+            backlog.addAll(memory);
+            InboxDrain.start(this, userId, channels, backlog);
+        });
+    }
+
+    /**
+     * 补发途中所有设备的连接都断开,剩余消息放回收件箱最前面,同样受内存与溢出文件的上限约束
+     * 超出内存上限的部分追加到溢出文件,位于补发期间新溢出的消息之后,客户端按消息ID排序
+     */
+    void requeue(long userId, ArrayDeque<ChatMessage> rest) {
+        if (rest.isEmpty()) {
+            return;
+        }
+        while (true) {
+            UserInbox box = inboxes.computeIfAbsent(userId, k -> new UserInbox());
+            List<ChatMessage> overflow;
+            synchronized (box) {
+                if (box.removed) {
+                    continue;
+                }
+                ArrayDeque<ChatMessage> merged = new ArrayDeque<>(rest);
+                merged.addAll(box.memory);
+                box.memory = merged;
+                overflow = trim(box);
+            }
+            if (overflow != null) {
+                io.execute(() -> append(userId, overflow));
+            }
+            return;
+        }
+    }
+
+    /**
+     * 内存中的消息超过上限时,把最旧的消息移到溢出文件(至少半个上限,摊薄IO次数),
+     * 溢出文件已满或没有溢出目录时丢弃最旧的消息,调用方持有box的锁
+     *
+     * @return 需要追加到溢出文件的消息,没有时为null
+     */
+    private List<ChatMessage> trim(UserInbox box) {
+        int excess = box.memory.size() - memoryLimit;
+        if (excess <= 0) {
+            return null;
+        }
+        List<ChatMessage> overflow = null;
+        if (spillDir != null && box.spilled < spillLimit) {
+            int n = Math.min(Math.max(excess, memoryLimit / 2), spillLimit - box.spilled);
+            overflow = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                overflow.add(box.memory.pollFirst());
+            }
+            box.spilled += n;
+        }
+        while (box.memory.size() > memoryLimit) {
+            box.memory.pollFirst();
+            OfflineMetrics.DROPPED.increment();
+        }
+        return overflow;
+    }
+
+    /**
+     * 待补发的离线消息数(含溢出到磁盘的)
+     */
+    public int pending(long userId) {
+        UserInbox box = inboxes.get(userId);
+        if (box == null) {
+            return 0;
+        }
+        synchronized (box) {
+            return box.memory.size() + box.spilled;
+        }
+    }
+
+    /**
+     * 停止IO线程,等待已提交的溢出写入完成;内存中的消息不落盘
+     */
+    public void close() {
+        if (io == null) {
+            return;
+        }
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("离线收件箱关闭超时,部分溢出写入未完成");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 重启后已有的溢出文件: 逐条跳过消息体统计条数,之后的溢出照常受spillLimit约束,上线时整体读出
+     */
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(p -> {
+                        String name = p.getFileName().toString();
+                        UserInbox box = new UserInbox();
+                        box.spilled = count(p);
+                        if (box.spilled > 0) {
+                            inboxes.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), box);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * 溢出文件中完整的消息条数,末尾写了一半的消息(写入时进程退出)不计入
+     */
+    private static int count(Path file) {
+        int n = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            CodedInputStream input = CodedInputStream.newInstance(in);
+            while (!input.isAtEnd()) {
+                input.skipRawBytes(input.readRawVarint32());
+                n++;
+            }
+        } catch (IOException e) {
+            log.warn("离线消息文件{}不完整,只统计前{}条", file, n);
+        }
+        return n;
+    }
+
+    private Path spillFile(long userId) {
+        return spillDir.resolve(userId + SUFFIX);
+    }
+
+    private void append(long userId, List<ChatMessage> chunk) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spillFile(userId),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            for (ChatMessage msg : chunk) {
+                msg.writeDelimitedTo(out);
+            }
+            OfflineMetrics.SPILLED.add(chunk.size());
+        } catch (IOException e) {
+            OfflineMetrics.DROPPED.add(chunk.size());
+            log.warn("用户{}的离线消息溢出到磁盘失败", userId, e);
+        }
+    }
+
+    private ArrayDeque<ChatMessage> read(long userId) {
+        ArrayDeque<ChatMessage> backlog = new ArrayDeque<>();
+        Path file = spillFile(userId);
+        if (!Files.exists(file)) {
+            return backlog;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            ChatMessage msg;
+            while ((msg = ChatMessage.parseDelimitedFrom(in)) != null) {
+                backlog.addLast(msg);
+            }
+        } catch (IOException e) {
+            log.warn("读取用户{}的离线消息失败", userId, e);
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除用户{}的离线消息文件失败", userId, e);
+        }
+        return backlog;
+    }
+
+    /**
+     * 一个用户的收件箱,通过对象锁保护;被取走补发后标记removed,并发的offer会重新创建
+     */
+    private static final class UserInbox {
+        private ArrayDeque<ChatMessage> memory = new ArrayDeque<>();
+        private int spilled;
+        private boolean removed;
+    }
+}
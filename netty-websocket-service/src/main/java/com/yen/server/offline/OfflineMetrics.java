@@ -0,0 +1,44 @@
+package com.yen.server.offline;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 离线消息统计(整个节点)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:22
+ */
+public final class OfflineMetrics {
+
+    /**
+     * 存入离线收件箱的消息数
+     */
+    public static final LongAdder STORED = new LongAdder();
+    /**
+     * 溢出到磁盘的消息数
+     */
+    public static final LongAdder SPILLED = new LongAdder();
+    /**
+     * 超过上限被丢弃的消息数
+     */
+    public static final LongAdder DROPPED = new LongAdder();
+    /**
+     * 上线后补发的消息数
+     */
+    public static final LongAdder DRAINED = new LongAdder();
+    /**
+     * 补发过程中因不可写而暂停的次数
+     */
+    public static final LongAdder PAUSED = new LongAdder();
+
+    private OfflineMetrics() {
+    }
+
+    public static String snapshot() {
+        return "stored=" + STORED.sum()
+                + ", spilled=" + SPILLED.sum()
+                + ", dropped=" + DROPPED.sum()
+                + ", drained=" + DRAINED.sum()
+                + ", paused=" + PAUSED.sum();
+    }
+}
@@ -0,0 +1,170 @@
+package com.yen.server.room;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * long类型的开放寻址集合(线性探测),元素直接存放在long[]中,不装箱
+ * 非线程安全,由调用方负责同步
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:03
+ */
+public class LongHashSet {
+
+    /**
+     * 空槽位标记,元素0单独用hasZero记录
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = 8;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            long cur = table[i];
+            if (cur == value) {
+                return true;
+            }
+            if (cur == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return 集合中原来没有该元素时返回true
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            long cur = table[i];
+            if (cur == value) {
+                return false;
+            }
+            if (cur == EMPTY) {
+                table[i] = value;
+                if (++size > table.length * 3 / 4) {
+                    rehash(table.length << 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return 集合中原来有该元素时返回true
+     */
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int mask = table.length - 1;
+        int i = index(value, mask);
+        while (true) {
+            long cur = table[i];
+            if (cur == EMPTY) {
+                return false;
+            }
+            if (cur == value) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = EMPTY;
+        size--;
+        // 回填: 把后面同一探测链上的元素往前挪,保证查找不会提前遇到空槽
+        int gap = i;
+        for (int j = (i + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(table[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                table[gap] = table[j];
+                table[j] = EMPTY;
+                gap = j;
+            }
+        }
+        return true;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY);
+        }
+        for (long value : table) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = EMPTY;
+        }
+        for (long value : table) {
+            if (value != EMPTY) {
+                result[n++] = value;
+            }
+        }
+        return result;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int i = index(value, mask);
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    private static int index(long value, int mask) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
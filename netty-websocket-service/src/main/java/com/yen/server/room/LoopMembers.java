@@ -0,0 +1,144 @@
+package com.yen.server.room;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.WireProtocol;
+import com.yen.server.id.MessageIdGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+
+import java.util.Arrays;
+
+/**
+ * 一个群聊在某个EventLoop上的在线成员Channel
+ * 只允许在所属EventLoop上修改和遍历,因此不需要加锁;
+ * size是volatile的,其他线程可以用它判断是否需要给这个EventLoop提交任务
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:03
+ */
+public class LoopMembers {
+
+    private final EventLoop loop;
+    private Channel[] channels = new Channel[4];
+    private volatile int size;
+
+    public LoopMembers(EventLoop loop) {
+        this.loop = loop;
+    }
+
+    public EventLoop loop() {
+        return loop;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 加入成员,必须在所属EventLoop上调用
+     */
+    public void add(Channel channel) {
+        Channel[] arr = channels;
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            if (arr[i] == channel) {
+                return;
+            }
+        }
+        if (n == arr.length) {
+            channels = arr = Arrays.copyOf(arr, n << 1);
+        }
+        arr[n] = channel;
+        size = n + 1;
+    }
+
+    /**
+     * 移除成员,必须在所属EventLoop上调用
+     */
+    public void remove(Channel channel) {
+        Channel[] arr = channels;
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            if (arr[i] == channel) {
+                removeAt(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 把预先编码好的帧写给所有成员,必须在所属EventLoop上调用
+     * 不可写的Channel改为写入消息对象,交给慢消费者处理器积压
+     * 成员数超过sliceSize时分片投递: 每写完一片就flush并把剩余部分重新提交到任务队列,
+     * 让出EventLoop处理其他连接的IO,避免超大群聊的一条消息长时间独占EventLoop
+     *
+     * @param payload      编码好的消息,调用方转移一个引用计数给本方法
+     * @param msg          消息对象
+     * @param exclude      不需要接收的Channel(发送者自己)
+     * @param sliceSize    每片最多写多少个成员
+     * @param pacingMillis 片与片之间的间隔,0表示立即继续
+     */
+    public void deliver(ByteBuf payload, ChatMessage msg, Channel exclude, int sliceSize, long pacingMillis) {
+        purgeInactive();
+        // 群成员所在的EventLoop看到这条消息后,之后生成的ID都比它大
+        MessageIdGenerator.observe(msg.getId());
+        if (size > sliceSize) {
+            // 分片期间成员可能变化,使用快照
+            new SlicedDelivery(loop, Arrays.copyOf(channels, size), payload, msg, exclude, sliceSize, pacingMillis).run();
+            return;
+        }
+        try {
+            Channel[] arr = channels;
+            int n = size;
+            for (int i = 0; i < n; i++) {
+                if (arr[i] != exclude) {
+                    write(arr[i], payload, msg);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (arr[i] != exclude) {
+                    arr[i].flush();
+                }
+            }
+        } finally {
+            payload.release();
+        }
+    }
+
+    /**
+     * 移除已经断开的Channel
+     */
+    private void purgeInactive() {
+        Channel[] arr = channels;
+        int i = 0;
+        while (i < size) {
+            if (arr[i].isActive()) {
+                i++;
+            } else {
+                removeAt(i);
+            }
+        }
+    }
+
+    /**
+     * 可写时直接写共享的单条消息帧;不可写时写消息对象交给慢消费者处理器积压;
+     * 共享帧是v1单条消息格式,协商了批量或v2协议的连接写消息对象,由该连接的编码器转换格式(批量时和其他消息合并成一帧)
+     */
+    static void write(Channel ch, ByteBuf payload, ChatMessage msg) {
+        if (ch.isWritable() && WireProtocol.of(ch) == WireProtocol.V1) {
+            ch.write(new BinaryWebSocketFrame(payload.retainedDuplicate()), ch.voidPromise());
+        } else {
+            ch.write(msg, ch.voidPromise());
+        }
+    }
+
+    private void removeAt(int i) {
+        Channel[] arr = channels;
+        int n = size - 1;
+        arr[i] = arr[n];
+        arr[n] = null;
+        size = n;
+    }
+}
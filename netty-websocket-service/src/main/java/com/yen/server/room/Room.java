@@ -0,0 +1,72 @@
+package com.yen.server.room;
+
+import io.netty.channel.EventLoop;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 群聊
+ * 成员用户ID保存在LongHashSet中(由Room自身加锁保护);
+ * 在线成员的Channel按所属EventLoop分区保存,扇出时每个EventLoop只遍历自己的成员
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:03
+ */
+public class Room {
+
+    private final long id;
+    private final LongHashSet members = new LongHashSet();
+    private final ConcurrentHashMap<EventLoop, LoopMembers> loops = new ConcurrentHashMap<>();
+
+    public Room(long id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public synchronized boolean addMember(long userId) {
+        return members.add(userId);
+    }
+
+    public synchronized boolean removeMember(long userId) {
+        return members.remove(userId);
+    }
+
+    public synchronized boolean isMember(long userId) {
+        return members.contains(userId);
+    }
+
+    public synchronized int memberCount() {
+        return members.size();
+    }
+
+    public synchronized long[] memberIds() {
+        return members.toArray();
+    }
+
+    /**
+     * 某个EventLoop上的在线成员,不存在时创建
+     */
+    public LoopMembers local(EventLoop loop) {
+        LoopMembers local = loops.get(loop);
+        return local != null ? local : loops.computeIfAbsent(loop, LoopMembers::new);
+    }
+
+    /**
+     * 某个EventLoop上的在线成员
+     *
+     * @return 不存在时返回null
+     */
+    public LoopMembers localIfPresent(EventLoop loop) {
+        return loops.get(loop);
+    }
+
+    /**
+     * 所有EventLoop上的在线成员分区
+     */
+    public Iterable<LoopMembers> partitions() {
+        return loops.values();
+    }
+}
@@ -0,0 +1,161 @@
+package com.yen.server.room;
+
+import com.yen.model.constant.MessageType;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.codec.ProtobufWebSocketEncoder;
+import com.yen.server.codec.SchemaTranslator;
+import com.yen.server.route.UserChannelRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 群聊扇出引擎
+ * 消息只编码一次,按成员Channel所属的EventLoop分区,每个有在线成员的EventLoop只提交一个任务,
+ * 任务里只遍历本EventLoop上的成员,写入共享同一块内存的帧;
+ * 扇出的开销与每个EventLoop上的成员数成正比,不需要全局锁,也不需要每条消息遍历全部成员;
+ * 超大群聊在每个EventLoop上再分片投递,见{@link SlicedDelivery}
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:03
+ */
+public class RoomFanout {
+
+    private final RoomIndex index = new RoomIndex();
+    private final UserChannelRegistry registry;
+
+    /**
+     * 大群聊分片投递: 一个EventLoop上的成员超过sliceSize时,每写sliceSize个成员就让出一次EventLoop
+     */
+    private int sliceSize = 512;
+    /**
+     * 公告类消息(广告消息)分片之间的间隔,用于平滑超大群聊的公告推送,0表示不限速
+     */
+    private long announcementPacingMillis = 0;
+
+    public RoomFanout(UserChannelRegistry registry) {
+        this.registry = registry;
+    }
+
+    public RoomIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * 配置大群聊投递
+     *
+     * @param sliceSize                每片最多写多少个成员
+     * @param announcementPacingMillis 公告类消息分片之间的间隔
+     * @return this
+     */
+    public RoomFanout largeRoom(int sliceSize, long announcementPacingMillis) {
+        this.sliceSize = Math.max(1, sliceSize);
+        this.announcementPacingMillis = announcementPacingMillis;
+        return this;
+    }
+
+    /**
+     * 用户加入群聊,并把用户在线设备的Channel加入对应EventLoop的分区
+     */
+    public void join(long roomId, long userId) {
+        Room room = index.join(roomId, userId);
+        for (Channel channel : registry.get(userId)) {
+            attach(room, channel);
+        }
+    }
+
+    /**
+     * 用户退出群聊
+     */
+    public void leave(long roomId, long userId) {
+        Room room = index.leave(roomId, userId);
+        if (room == null) {
+            return;
+        }
+        for (Channel channel : registry.get(userId)) {
+            detach(room, channel);
+        }
+    }
+
+    /**
+     * 用户的一个设备上线,加入用户所在的所有群聊
+     */
+    public void online(long userId, Channel channel) {
+        for (long roomId : index.roomsOf(userId)) {
+            Room room = index.get(roomId);
+            if (room != null) {
+                attach(room, channel);
+            }
+        }
+    }
+
+    /**
+     * 用户的一个设备下线,从用户所在的所有群聊中移除
+     */
+    public void offline(long userId, Channel channel) {
+        for (long roomId : index.roomsOf(userId)) {
+            Room room = index.get(roomId);
+            if (room != null) {
+                detach(room, channel);
+            }
+        }
+    }
+
+    /**
+     * 把群聊消息扇出给所有在线成员
+     *
+     * @param room   群聊
+     * @param msg    消息
+     * @param sender 发送者的Channel,不会收到这条消息
+     */
+    public void fanout(Room room, ChatMessage msg, Channel sender) throws IOException {
+        long pacingMillis = msg.getType() == MessageType.AD ? announcementPacingMillis : 0;
+        ByteBuf payload = ProtobufWebSocketEncoder.encode(sender.alloc(), SchemaTranslator.toV1(msg));
+        try {
+            for (LoopMembers local : room.partitions()) {
+                if (local.size() == 0) {
+                    continue;
+                }
+                ByteBuf shared = payload.retainedDuplicate();
+                EventLoop loop = local.loop();
+                if (loop.inEventLoop()) {
+                    local.deliver(shared, msg, sender, sliceSize, pacingMillis);
+                } else {
+                    try {
+                        loop.execute(() -> local.deliver(shared, msg, sender, sliceSize, pacingMillis));
+                    } catch (RejectedExecutionException e) {
+                        // EventLoop正在关闭
+                        shared.release();
+                    }
+                }
+            }
+        } finally {
+            payload.release();
+        }
+    }
+
+    private static void attach(Room room, Channel channel) {
+        EventLoop loop = channel.eventLoop();
+        if (loop.inEventLoop()) {
+            room.local(loop).add(channel);
+        } else {
+            loop.execute(() -> room.local(loop).add(channel));
+        }
+    }
+
+    private static void detach(Room room, Channel channel) {
+        EventLoop loop = channel.eventLoop();
+        LoopMembers local = room.localIfPresent(loop);
+        if (local == null) {
+            return;
+        }
+        if (loop.inEventLoop()) {
+            local.remove(channel);
+        } else {
+            loop.execute(() -> local.remove(channel));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.yen.server.room;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 群聊成员索引: roomId -> 成员用户ID, userId -> 所在群聊ID
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:03
+ */
+public class RoomIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final ConcurrentHashMap<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongHashSet> userRooms = new ConcurrentHashMap<>();
+
+    /**
+     * @return 群聊不存在时返回null
+     */
+    public Room get(long roomId) {
+        return rooms.get(roomId);
+    }
+
+    /**
+     * 用户加入群聊,群聊不存在时创建
+     * 在rooms的同一个key上原子地完成,不会与最后一个成员退出时删除群聊交错而加入一个已被删除的群聊
+     *
+     * @return 加入的群聊
+     */
+    public Room join(long roomId, long userId) {
+        Room room = rooms.compute(roomId, (id, r) -> {
+            Room joinedRoom = r == null ? new Room(id) : r;
+            joinedRoom.addMember(userId);
+            return joinedRoom;
+        });
+        LongHashSet joined = userRooms.computeIfAbsent(userId, id -> new LongHashSet(4));
+        synchronized (joined) {
+            joined.add(roomId);
+        }
+        return room;
+    }
+
+    /**
+     * 用户退出群聊,最后一个成员退出后删除群聊
+     *
+     * @return 退出的群聊,用户不在该群聊中时返回null
+     */
+    public Room leave(long roomId, long userId) {
+        Room[] left = new Room[1];
+        rooms.computeIfPresent(roomId, (id, r) -> {
+            if (!r.removeMember(userId)) {
+                return r;
+            }
+            left[0] = r;
+            return r.memberCount() == 0 ? null : r;
+        });
+        Room room = left[0];
+        if (room == null) {
+            return null;
+        }
+        LongHashSet joined = userRooms.get(userId);
+        if (joined != null) {
+            synchronized (joined) {
+                joined.remove(roomId);
+            }
+        }
+        return room;
+    }
+
+    /**
+     * 用户所在的所有群聊ID
+     */
+    public long[] roomsOf(long userId) {
+        LongHashSet joined = userRooms.get(userId);
+        if (joined == null) {
+            return EMPTY;
+        }
+        synchronized (joined) {
+            return joined.toArray();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.yen.server.room;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大群聊的分片投递任务
+ * 每次执行只写sliceSize个成员并flush,然后把自己重新提交到EventLoop(或延迟pacingMillis后执行),
+ * 单条消息对EventLoop的占用时间与群聊大小无关
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:07
+ */
+final class SlicedDelivery implements Runnable {
+
+    private final EventLoop loop;
+    private final Channel[] members;
+    private final ByteBuf payload;
+    private final ChatMessage msg;
+    private final Channel exclude;
+    private final int sliceSize;
+    private final long pacingMillis;
+    private int next;
+
+    SlicedDelivery(EventLoop loop, Channel[] members, ByteBuf payload, ChatMessage msg, Channel exclude,
+                   int sliceSize, long pacingMillis) {
+        this.loop = loop;
+        this.members = members;
+        this.payload = payload;
+        this.msg = msg;
+        this.exclude = exclude;
+        this.sliceSize = sliceSize;
+        this.pacingMillis = pacingMillis;
+    }
+
+    @Override
+    public void run() {
+        int end = Math.min(next + sliceSize, members.length);
+        for (int i = next; i < end; i++) {
+            Channel ch = members[i];
+            if (ch != exclude && ch.isActive()) {
+                LoopMembers.write(ch, payload, msg);
+            }
+        }
+        for (int i = next; i < end; i++) {
+            Channel ch = members[i];
+            if (ch != exclude) {
+                ch.flush();
+            }
+        }
+        next = end;
+        if (next >= members.length) {
+            payload.release();
+            return;
+        }
+        try {
+            if (pacingMillis > 0) {
+                // EventLoop关闭时未执行的定时任务会被取消,此时也要释放
+                loop.schedule(this, pacingMillis, TimeUnit.MILLISECONDS).addListener(f -> {
+                    if (f.isCancelled()) {
+                        payload.release();
+                    }
+                });
+            } else {
+                loop.execute(this);
+            }
+        } catch (RejectedExecutionException e) {
+            // EventLoop正在关闭
+            payload.release();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.yen.server.route;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import com.yen.server.id.MessageIdGenerator;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.internal.PlatformDependent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按目标EventLoop聚合的待发送消息(每个线程一份)
+ * 一次读批次内产生的投递先在这里累积,在channelReadComplete时统一提交:
+ * 1.目标Channel就在当前EventLoop: 直接write,批次结束时每个Channel只flush一次
+ * 2.目标Channel在其他EventLoop: 按EventLoop分组,批次结束时放入目标EventLoop的收件箱,
+ *   收件箱没有待执行的任务时才提交一个任务,多个线程(例如大量业务虚拟线程)交还的批次在一个任务里处理完,
+ *   避免每条消息(或每个线程的每个批次)都往对方的任务队列里塞一个任务并唤醒对方线程
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:56
+ */
+public final class OutboundBatch {
+
+    private static final FastThreadLocal<OutboundBatch> CURRENT = new FastThreadLocal<OutboundBatch>() {
+        @Override
+        protected OutboundBatch initialValue() {
+            return new OutboundBatch();
+        }
+    };
+
+    /**
+     * 每个EventLoop的收件箱,其他线程提交的批次在这里排队
+     */
+    private static final Map<EventLoop, Inbox> INBOXES = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程上已经write但还没有flush的Channel
+     */
+    private final Set<Channel> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * 发往其他EventLoop的消息(或任务),列表中Channel与消息交替存放
+     */
+    private final Map<EventLoop, ArrayList<Object>> remote = new IdentityHashMap<>();
+
+    private OutboundBatch() {
+    }
+
+    /**
+     * 当前线程的批次
+     */
+    public static OutboundBatch current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 加入批次,直到flush()时才会真正发出
+     *
+     * @param channel 目标通道
+     * @param msg     消息
+     */
+    public void write(Channel channel, Object msg) {
+        EventLoop loop = channel.eventLoop();
+        if (loop.inEventLoop()) {
+            if (msg instanceof ChatMessage) {
+                // 接收者所在的EventLoop看到这条消息后,之后生成的ID(例如回复)都比它大
+                MessageIdGenerator.observe(((ChatMessage) msg).getId());
+            }
+            channel.write(msg, channel.voidPromise());
+            dirty.add(channel);
+        } else {
+            ArrayList<Object> pending = remote.get(loop);
+            if (pending == null) {
+                pending = new ArrayList<>();
+                remote.put(loop, pending);
+            }
+            pending.add(channel);
+            pending.add(msg);
+        }
+    }
+
+    /**
+     * 在channel所属的EventLoop上执行任务,与发往该EventLoop的消息一起按加入顺序提交
+     * 用于业务线程把只能在EventLoop上修改的连接状态(例如累计确认)交还给EventLoop
+     *
+     * @param channel 通道
+     * @param task    任务
+     */
+    public void execute(Channel channel, Runnable task) {
+        EventLoop loop = channel.eventLoop();
+        if (loop.inEventLoop()) {
+            task.run();
+        } else {
+            ArrayList<Object> pending = remote.get(loop);
+            if (pending == null) {
+                pending = new ArrayList<>();
+                remote.put(loop, pending);
+            }
+            pending.add(channel);
+            pending.add(task);
+        }
+    }
+
+    /**
+     * 提交批次: flush本线程的Channel,并把发往其他EventLoop的消息各打包成一个任务
+     */
+    public void flush() {
+        if (!dirty.isEmpty()) {
+            for (Channel channel : dirty) {
+                channel.flush();
+            }
+            dirty.clear();
+        }
+        if (!remote.isEmpty()) {
+            for (Map.Entry<EventLoop, ArrayList<Object>> entry : remote.entrySet()) {
+                EventLoop loop = entry.getKey();
+                INBOXES.computeIfAbsent(loop, Inbox::new).offer(entry.getValue());
+            }
+            remote.clear();
+        }
+    }
+
+    /**
+     * 一个EventLoop的收件箱: 多个线程放入,在EventLoop上一次处理完
+     */
+    private static final class Inbox implements Runnable {
+
+        private final EventLoop loop;
+        private final Queue<ArrayList<Object>> queue = PlatformDependent.newMpscQueue();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Inbox(EventLoop loop) {
+            this.loop = loop;
+        }
+
+        private void offer(ArrayList<Object> pending) {
+            queue.offer(pending);
+            if (scheduled.compareAndSet(false, true)) {
+                loop.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            scheduled.set(false);
+            OutboundBatch batch = current();
+            ArrayList<Object> pending;
+            while ((pending = queue.poll()) != null) {
+                for (int i = 0; i < pending.size(); i += 2) {
+                    Object msg = pending.get(i + 1);
+                    if (msg instanceof Runnable) {
+                        ((Runnable) msg).run();
+                    } else {
+                        batch.write((Channel) pending.get(i), msg);
+                    }
+                }
+            }
+            batch.flush();
+        }
+    }
+}
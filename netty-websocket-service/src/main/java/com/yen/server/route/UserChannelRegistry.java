@@ -0,0 +1,235 @@
+package com.yen.server.route;
+
+import io.netty.channel.Channel;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 用户与Channel之间的路由表(userId -> 该用户所有在线设备的Channel)
+ * 按userId分片,每个分片是一张以long为key的开放寻址表(线性探测),查询时不装箱
+ * 读多写少: 查询无锁且不分配对象,只读取槽位上的volatile值;
+ * 上线/下线在分片锁内原地替换该用户槽位上的Channel[],只复制这一个用户的数组,
+ * 下线的用户留下删除标记(同一用户重连直接复用槽位),已用槽位超过一半时才按在线用户数重建分片的表
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:55
+ */
+public class UserChannelRegistry {
+
+    private static final Channel[] EMPTY = new Channel[0];
+
+    private final Shard[] shards;
+    private final int mask;
+
+    public UserChannelRegistry() {
+        this(64);
+    }
+
+    /**
+     * @param shardCount 分片数量,会向上取整为2的幂
+     */
+    public UserChannelRegistry(int shardCount) {
+        int size = 1;
+        while (size < shardCount) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 查询用户当前在线的所有Channel
+     *
+     * @param userId 用户ID
+     * @return 在线Channel,不在线时返回空数组(不要修改返回的数组)
+     */
+    public Channel[] get(long userId) {
+        Channel[] channels = shard(userId).get(userId);
+        return channels == null ? EMPTY : channels;
+    }
+
+    /**
+     * 用户是否有设备在线
+     */
+    public boolean isOnline(long userId) {
+        return shard(userId).get(userId) != null;
+    }
+
+    /**
+     * 绑定用户与Channel(同一用户可以有多个设备同时在线)
+     */
+    public void add(long userId, Channel channel) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Channel[] old = shard.get(userId);
+            Channel[] updated;
+            if (old == null) {
+                updated = new Channel[]{channel};
+            } else {
+                for (Channel ch : old) {
+                    if (ch == channel) {
+                        return;
+                    }
+                }
+                updated = Arrays.copyOf(old, old.length + 1);
+                updated[old.length] = channel;
+            }
+            shard.put(userId, updated);
+        }
+    }
+
+    /**
+     * 解除用户与Channel的绑定
+     */
+    public void remove(long userId, Channel channel) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Channel[] old = shard.get(userId);
+            if (old == null) {
+                return;
+            }
+            int index = -1;
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] == channel) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            Channel[] updated = null;
+            if (old.length > 1) {
+                updated = new Channel[old.length - 1];
+                System.arraycopy(old, 0, updated, 0, index);
+                System.arraycopy(old, index + 1, updated, index, old.length - index - 1);
+            }
+            shard.put(userId, updated);
+        }
+    }
+
+    private Shard shard(long userId) {
+        // 混合高低位,避免连续的userId集中到少数分片
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return shards[(int) (h >>> 32) & mask];
+    }
+
+    /**
+     * 一个分片: 查询在任意线程无锁进行,修改在分片锁内进行
+     */
+    private static final class Shard {
+
+        /**
+         * 删除标记: 用户已下线,槽位仍属于该用户,探测要越过它继续
+         */
+        private static final Channel[] REMOVED = new Channel[0];
+
+        private volatile Table table = new Table(16);
+        /**
+         * 已占用(在线或删除标记)与在线的槽位数,只在分片锁内读写
+         */
+        private int used, live;
+
+        private Channel[] get(long userId) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            for (int i = Table.index(userId, mask); ; i = (i + 1) & mask) {
+                // 先读值再读key: key在值发布之前写入,之后不再改变
+                Channel[] channels = t.values.get(i);
+                if (channels == null) {
+                    return null;
+                }
+                if (t.keys[i] == userId) {
+                    return channels == REMOVED ? null : channels;
+                }
+            }
+        }
+
+        /**
+         * 替换用户的Channel数组,channels为null表示下线
+         */
+        private void put(long userId, Channel[] channels) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            int i = Table.index(userId, mask);
+            Channel[] old;
+            while ((old = t.values.get(i)) != null && t.keys[i] != userId) {
+                i = (i + 1) & mask;
+            }
+            if (old != null) {
+                // 已有槽位(包括之前下线留下的),原地替换
+                if (old == REMOVED && channels != null) {
+                    live++;
+                } else if (old != REMOVED && channels == null) {
+                    live--;
+                }
+                t.values.set(i, channels == null ? REMOVED : channels);
+                return;
+            }
+            if (channels == null) {
+                return;
+            }
+            if ((used + 1) << 1 > t.keys.length) {
+                // 已用槽位超过一半: 按在线用户数重建,丢掉删除标记
+                table = t = t.rebuild(live + 1);
+                used = live;
+                mask = t.keys.length - 1;
+                i = Table.index(userId, mask);
+                while (t.values.get(i) != null) {
+                    i = (i + 1) & mask;
+                }
+            }
+            t.keys[i] = userId;
+            t.values.set(i, channels);
+            used++;
+            live++;
+        }
+    }
+
+    /**
+     * 开放寻址表,容量为2的幂;槽位的key写入后不再改变,值为null表示从未使用
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final AtomicReferenceArray<Channel[]> values;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            values = new AtomicReferenceArray<>(capacity);
+        }
+
+        private static int index(long userId, int mask) {
+            long h = userId * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        /**
+         * 只保留在线用户,容量至少为在线用户数的4倍
+         */
+        private Table rebuild(int live) {
+            int capacity = 16;
+            while (capacity < live << 2) {
+                capacity <<= 1;
+            }
+            Table copy = new Table(capacity);
+            int mask = capacity - 1;
+            for (int j = 0; j < keys.length; j++) {
+                Channel[] channels = values.get(j);
+                if (channels == null || channels == Shard.REMOVED) {
+                    continue;
+                }
+                int i = index(keys[j], mask);
+                while (copy.values.get(i) != null) {
+                    i = (i + 1) & mask;
+                }
+                copy.keys[i] = keys[j];
+                copy.values.lazySet(i, channels);
+            }
+            return copy;
+        }
+    }
+}
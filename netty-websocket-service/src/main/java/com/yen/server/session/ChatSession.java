@@ -0,0 +1,133 @@
+package com.yen.server.session;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * 连接会话: 建立连接(type=0)后绑定到Channel上的用户信息
+ * 除了构造参数外的状态都只在Channel所属的EventLoop上读写
+ *
+ * @author Yhx
+ * @date 2026/10/17 18:55
+ */
+public class ChatSession {
+
+    public static final AttributeKey<ChatSession> KEY = AttributeKey.valueOf("chatSession");
+
+    private final long userId;
+    private final Channel channel;
+
+    /**
+     * 是否使用累计确认
+     */
+    private final boolean batchAck;
+    /**
+     * 设备的去重窗口(同一设备的重连共用,不同设备各自一个),为null时不去重
+     */
+    private DedupWindow dedup;
+    /**
+     * 已连续收到的最大clientSeq,-1表示还没有收到过
+     */
+    private long ackedSeq = -1;
+    /**
+     * 乱序提前到达的序号: 第i位表示ackedSeq+1+i已收到
+     */
+    private long outOfOrder;
+    /**
+     * ackedSeq自上次确认后是否有推进
+     */
+    private boolean ackPending;
+    /**
+     * 是否已经安排了读批次之外的累计确认
+     */
+    private boolean ackScheduled;
+
+    public ChatSession(long userId, Channel channel, boolean batchAck) {
+        this.userId = userId;
+        this.channel = channel;
+        this.batchAck = batchAck;
+    }
+
+    /**
+     * 获取Channel上绑定的会话
+     *
+     * @return 还未建立连接时返回null
+     */
+    public static ChatSession get(Channel channel) {
+        return channel.attr(KEY).get();
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public boolean isBatchAck() {
+        return batchAck;
+    }
+
+    public DedupWindow getDedup() {
+        return dedup;
+    }
+
+    public ChatSession setDedup(DedupWindow dedup) {
+        this.dedup = dedup;
+        return this;
+    }
+
+    /**
+     * 记录收到的客户端序号,推进已连续收到的最大序号
+     * 超出乱序窗口(64)的序号不记录,等客户端重发
+     *
+     * @param clientSeq 客户端序号
+     */
+    public void received(long clientSeq) {
+        if (ackedSeq < 0) {
+            // 第一条消息作为起点(重连后序号不一定从头开始)
+            ackedSeq = clientSeq;
+            ackPending = true;
+            return;
+        }
+        long offset = clientSeq - ackedSeq - 1;
+        if (offset < 0 || offset >= Long.SIZE) {
+            return;
+        }
+        outOfOrder |= 1L << offset;
+        if ((outOfOrder & 1L) != 0) {
+            int advance = Long.numberOfTrailingZeros(~outOfOrder);
+            ackedSeq += advance;
+            outOfOrder = advance == Long.SIZE ? 0 : outOfOrder >>> advance;
+            ackPending = true;
+        }
+    }
+
+    /**
+     * 业务线程处理完的消息在读批次之外推进了确认序号,需要单独回复累计确认
+     *
+     * @return 是否需要安排一次确认(已经安排过、还没有执行时返回false)
+     */
+    public boolean scheduleAck() {
+        if (ackScheduled) {
+            return false;
+        }
+        ackScheduled = true;
+        return true;
+    }
+
+    /**
+     * 取出待确认的序号
+     *
+     * @return 自上次调用后已连续收到的最大序号有推进则返回该序号,否则返回-1
+     */
+    public long takeAck() {
+        ackScheduled = false;
+        if (!ackPending) {
+            return -1;
+        }
+        ackPending = false;
+        return ackedSeq;
+    }
+}
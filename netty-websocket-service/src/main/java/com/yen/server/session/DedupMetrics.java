@@ -0,0 +1,39 @@
+package com.yen.server.session;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 消息去重统计(整个节点)
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:41
+ */
+public final class DedupMetrics {
+
+    /**
+     * 被识别为重复、没有再次投递的消息数
+     */
+    public static final LongAdder DUPLICATES = new LongAdder();
+    /**
+     * 原消息还在处理中时收到的重发,直接忽略(原消息处理完会回复确认)
+     */
+    public static final LongAdder IN_FLIGHT = new LongAdder();
+    /**
+     * 序号早于去重窗口、按新消息处理的次数
+     */
+    public static final LongAdder STALE = new LongAdder();
+    /**
+     * 过期回收的去重窗口数
+     */
+    public static final LongAdder EXPIRED = new LongAdder();
+
+    private DedupMetrics() {
+    }
+
+    public static String snapshot() {
+        return "duplicates=" + DUPLICATES.sum()
+                + ", inFlight=" + IN_FLIGHT.sum()
+                + ", stale=" + STALE.sum()
+                + ", expired=" + EXPIRED.sum();
+    }
+}
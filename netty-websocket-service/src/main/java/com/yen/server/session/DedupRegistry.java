@@ -0,0 +1,125 @@
+package com.yen.server.session;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按(用户,设备)保存去重窗口
+ * 同一用户的多个设备各自维护clientSeq,不能共用一个窗口(否则一个设备的新消息会被当成另一个设备的重发);
+ * 设备断线后窗口继续保留ttlMillis,重连后的重发仍然能被识别;超过时间没有重连的窗口定期回收
+ * 没有声明设备标识的连接使用只属于本连接的窗口,不跨连接去重
+ * 回收任务在{@link #close()}时取消
+ * 只有建立连接和断开时访问这里,收发消息时直接使用{@link ChatSession}上的窗口
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:41
+ */
+public class DedupRegistry {
+
+    private final ConcurrentHashMap<DeviceKey, DedupWindow> windows = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final ScheduledFuture<?> sweep;
+
+    /**
+     * @param ttlMillis 断线后窗口保留的时间
+     * @param executor  定期回收过期窗口的执行器
+     */
+    public DedupRegistry(long ttlMillis, EventExecutor executor) {
+        this.ttlMillis = ttlMillis;
+        long period = Math.max(1000, ttlMillis / 4);
+        sweep = executor.scheduleAtFixedRate(this::expire, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 设备的一个连接建立
+     *
+     * @param userId   用户
+     * @param deviceId 设备标识,为空时返回只属于本连接的窗口
+     */
+    public DedupWindow acquire(long userId, String deviceId) {
+        if (deviceId.isEmpty()) {
+            return new DedupWindow();
+        }
+        return windows.compute(new DeviceKey(userId, deviceId), (k, window) -> {
+            if (window == null) {
+                window = new DedupWindow();
+            }
+            window.refs++;
+            return window;
+        });
+    }
+
+    /**
+     * 设备的一个连接断开
+     */
+    public void release(long userId, String deviceId) {
+        if (deviceId.isEmpty()) {
+            return;
+        }
+        windows.computeIfPresent(new DeviceKey(userId, deviceId), (k, window) -> {
+            if (--window.refs == 0) {
+                window.releasedAt = System.currentTimeMillis();
+            }
+            return window;
+        });
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * 取消定期回收,服务关闭时调用
+     */
+    public void close() {
+        sweep.cancel(false);
+        windows.clear();
+    }
+
+    private void expire() {
+        long deadline = System.currentTimeMillis() - ttlMillis;
+        for (DeviceKey key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> {
+                if (window.refs == 0 && window.releasedAt < deadline) {
+                    DedupMetrics.EXPIRED.increment();
+                    return null;
+                }
+                return window;
+            });
+        }
+    }
+
+    private static final class DeviceKey {
+        private final long userId;
+        private final String deviceId;
+
+        private DeviceKey(long userId, String deviceId) {
+            this.userId = userId;
+            this.deviceId = deviceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DeviceKey)) {
+                return false;
+            }
+            DeviceKey other = (DeviceKey) o;
+            return userId == other.userId && deviceId.equals(other.deviceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(userId) * 31 + deviceId.hashCode();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.yen.server.session;
+
+import java.util.Arrays;
+
+/**
+ * 一个设备最近发送的客户端序号(clientSeq)的去重窗口
+ * 1.以收到的最大序号为右端、长度WINDOW的滑动窗口,用位图记录窗口内哪些序号已经收到,右端前移时清掉移出的位
+ * 2.另一个位图记录已收到但还在处理中的序号,处理完{@link #record}或失败{@link #forget}后清除;
+ *   处理中收到的重发返回{@link #IN_FLIGHT},只有处理完成后才按重复消息回复原来的ID
+ * 3.最近RECENT个序号对应的服务端消息ID放在按序号直接寻址的环中,重复的消息可以回复原来的ID
+ * 检查与记录都不分配对象;业务执行器上完成的记录与EventLoop上的检查可能在不同线程,方法通过对象锁互斥(几乎没有竞争)
+ * 约定: 同一设备的clientSeq跨连接单调递增(客户端持久化序号),0表示不去重
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:41
+ */
+public final class DedupWindow {
+
+    /**
+     * 检查结果: 新消息
+     */
+    public static final long NEW = -1;
+    /**
+     * 检查结果: 重发的消息,原消息还在处理中
+     */
+    public static final long IN_FLIGHT = -2;
+    /**
+     * 检查结果: 重复的消息,原消息已处理完,但它的ID已经不在最近记录中
+     */
+    public static final long UNKNOWN_ID = -3;
+
+    private static final int WINDOW = 1024;
+    private static final int RECENT = 64;
+
+    private final long[] bits = new long[WINDOW >>> 6];
+    private final long[] pending = new long[WINDOW >>> 6];
+    private final long[] recentSeqs = new long[RECENT];
+    private final long[] recentIds = new long[RECENT];
+    /**
+     * 收到的最大序号,-1表示还没有收到过
+     */
+    private long highest = -1;
+
+    /**
+     * 在线连接数与最后一个连接断开的时间,由{@link DedupRegistry}维护
+     */
+    int refs;
+    long releasedAt;
+
+    /**
+     * 检查序号,新消息标记为已收到、处理中
+     *
+     * @param seq 客户端序号(大于0)
+     * @return 新消息返回{@link #NEW};原消息还在处理中返回{@link #IN_FLIGHT};
+     * 重复时返回原消息的ID,ID已经不在最近记录中时返回{@link #UNKNOWN_ID}
+     */
+    public synchronized long check(long seq) {
+        if (highest < 0 || seq > highest) {
+            advance(seq);
+            set(seq);
+            return NEW;
+        }
+        if (highest - seq >= WINDOW) {
+            // 早于窗口: 无法判断,宁可重复投递也不丢消息
+            DedupMetrics.STALE.increment();
+            return NEW;
+        }
+        int bit = (int) (seq & (WINDOW - 1));
+        long mask = 1L << bit;
+        if ((bits[bit >>> 6] & mask) == 0) {
+            // 乱序到达的新消息
+            set(seq);
+            return NEW;
+        }
+        if ((pending[bit >>> 6] & mask) != 0) {
+            DedupMetrics.IN_FLIGHT.increment();
+            return IN_FLIGHT;
+        }
+        DedupMetrics.DUPLICATES.increment();
+        int slot = (int) (seq & (RECENT - 1));
+        return recentSeqs[slot] == seq ? recentIds[slot] : UNKNOWN_ID;
+    }
+
+    /**
+     * 消息处理成功: 记录序号对应的服务端消息ID,之后的重发按重复消息处理
+     */
+    public synchronized void record(long seq, long id) {
+        int slot = (int) (seq & (RECENT - 1));
+        recentSeqs[slot] = seq;
+        recentIds[slot] = id;
+        if (inWindow(seq)) {
+            int bit = (int) (seq & (WINDOW - 1));
+            pending[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * 消息处理失败,取消已收到的标记,允许客户端重发
+     */
+    public synchronized void forget(long seq) {
+        if (inWindow(seq)) {
+            int bit = (int) (seq & (WINDOW - 1));
+            bits[bit >>> 6] &= ~(1L << bit);
+            pending[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    private boolean inWindow(long seq) {
+        return seq <= highest && highest - seq < WINDOW;
+    }
+
+    /**
+     * 右端前移到seq,清掉移出窗口的位
+     */
+    private void advance(long seq) {
+        if (highest < 0 || seq - highest >= WINDOW) {
+            Arrays.fill(bits, 0);
+            Arrays.fill(pending, 0);
+        } else {
+            for (long s = highest + 1; s < seq; s++) {
+                int bit = (int) (s & (WINDOW - 1));
+                bits[bit >>> 6] &= ~(1L << bit);
+                pending[bit >>> 6] &= ~(1L << bit);
+            }
+        }
+        highest = seq;
+    }
+
+    private void set(long seq) {
+        int bit = (int) (seq & (WINDOW - 1));
+        bits[bit >>> 6] |= 1L << bit;
+        pending[bit >>> 6] |= 1L << bit;
+    }
+}
@@ -0,0 +1,21 @@
+package com.yen.server.store;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+
+/**
+ * 消息写入日志并刷盘后的回调
+ * 在日志的写线程上调用,实现必须很快返回,不能阻塞
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:17
+ */
+@FunctionalInterface
+public interface AppendListener {
+
+    /**
+     * @param id       消息ID
+     * @param msg      消息(id字段以参数id为准)
+     * @param position 消息在日志中的位置,可以用{@link MessageJournal#read(long)}读回
+     */
+    void onAppended(long id, ChatMessage msg, long position);
+}
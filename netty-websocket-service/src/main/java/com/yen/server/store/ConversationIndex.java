@@ -0,0 +1,338 @@
+package com.yen.server.store;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话索引: 会话 -> 按消息ID排序的(消息ID,日志位置)
+ * 1.作为{@link AppendListener}挂在消息日志上,消息落盘后在写线程上追加到所属会话,不需要扫描日志
+ * 2.每个会话的数据是一个long[],ID与位置交替存放,按ID二分查找一页只需要O(log n)
+ * 3.定期把索引快照写到磁盘(先写临时文件再原子替换),启动时加载快照,再从快照位置重放日志补齐
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:20
+ */
+@Slf4j
+public class ConversationIndex implements AppendListener, Closeable {
+
+    private static final int MAGIC = 0x43494458;
+    private static final int VERSION = 1;
+
+    private final Path snapshotFile;
+    private final Map<ConversationKey, Conversation> conversations = new ConcurrentHashMap<>();
+
+    /**
+     * 最后一条已索引记录的位置,快照从这里之后开始重放
+     */
+    private volatile long indexedPosition = -1;
+    private MessageJournal journal;
+    private ScheduledExecutorService snapshotExecutor;
+
+    public ConversationIndex(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * 加载快照,重放快照之后已落盘的日志,然后开始跟踪新消息
+     * 必须在消息日志启动之后、服务开始接收消息之前调用
+     *
+     * @param journal 已启动的消息日志
+     * @return this
+     */
+    public ConversationIndex open(MessageJournal journal) throws IOException {
+        this.journal = journal;
+        loadSnapshot();
+        long replayed = journal.replay(Math.max(0, indexedPosition), this);
+        journal.addListener(this);
+        log.info("会话索引已加载: 会话数{}, 重放日志{}条", conversations.size(), replayed);
+        return this;
+    }
+
+    /**
+     * 定期写快照
+     *
+     * @param intervalMillis 间隔(毫秒)
+     * @return this
+     */
+    public ConversationIndex snapshotEvery(long intervalMillis) {
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "conversation-index-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (Exception e) {
+                log.warn("会话索引快照失败", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * 消息落盘后由日志的写线程调用(启动时重放也走这里)
+     */
+    @Override
+    public void onAppended(long id, ChatMessage msg, long position) {
+        if (position <= indexedPosition) {
+            // 快照已经包含的记录(重放从快照位置开始,会再看到这一条)
+            return;
+        }
+        ConversationKey key = ConversationKey.of(msg);
+        conversations.computeIfAbsent(key, k -> new Conversation()).add(id, position);
+        indexedPosition = position;
+    }
+
+    /**
+     * 查询一页消息的日志位置
+     *
+     * @param key      会话
+     * @param beforeId 只返回ID小于它的消息,0表示从最新的开始
+     * @param limit    最多返回多少条
+     * @return 日志位置,按消息ID从旧到新排列
+     */
+    public long[] page(ConversationKey key, long beforeId, int limit) {
+        Conversation conversation = conversations.get(key);
+        return conversation == null ? new long[0] : conversation.page(beforeId <= 0 ? Long.MAX_VALUE : beforeId, limit);
+    }
+
+    /**
+     * 会话中的消息数
+     */
+    public int size(ConversationKey key) {
+        Conversation conversation = conversations.get(key);
+        return conversation == null ? 0 : conversation.size;
+    }
+
+    /**
+     * 写快照,已被日志保留策略删除的消息不再写入
+     * 快照只包含位置不超过开始时indexedPosition的记录,写快照期间新追加的记录留给重启时重放,不会重复
+     */
+    public synchronized void snapshot() throws IOException {
+        long position = indexedPosition;
+        long firstPosition = journal == null ? 0 : journal.firstPosition();
+        // 写快照期间可能有新会话加入,先固定要写的会话列表,保证条数与头部一致
+        List<Map.Entry<ConversationKey, Conversation>> entries = new ArrayList<>(conversations.entrySet());
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(position);
+            out.writeInt(entries.size());
+            for (Map.Entry<ConversationKey, Conversation> entry : entries) {
+                ConversationKey key = entry.getKey();
+                long[] data = entry.getValue().copy();
+                int n = data.length >> 1;
+                // 按ID排序的数组里日志位置不一定递增(ID乱序写入),每一条都要单独按位置过滤
+                int kept = 0;
+                for (int i = 0; i < n; i++) {
+                    long pos = data[(i << 1) + 1];
+                    if (pos >= firstPosition && pos <= position) {
+                        kept++;
+                    }
+                }
+                out.writeByte(key.kind);
+                out.writeLong(key.a);
+                out.writeLong(key.b);
+                out.writeInt(kept);
+                for (int i = 0; i < n; i++) {
+                    long pos = data[(i << 1) + 1];
+                    if (pos >= firstPosition && pos <= position) {
+                        out.writeLong(data[i << 1]);
+                        out.writeLong(pos);
+                    }
+                }
+            }
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("会话索引快照完成: 会话数{}, 位置{}", entries.size(), position);
+    }
+
+    private void loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("会话索引快照{}格式不正确,从日志重建", snapshotFile);
+                return;
+            }
+            long position = in.readLong();
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                ConversationKey key = new ConversationKey(in.readByte(), in.readLong(), in.readLong());
+                int n = in.readInt();
+                Conversation conversation = new Conversation(n);
+                for (int i = 0; i < n; i++) {
+                    conversation.append(in.readLong(), in.readLong());
+                }
+                conversations.put(key, conversation);
+            }
+            indexedPosition = position;
+        }
+    }
+
+    /**
+     * 停止定期快照并写最后一次快照
+     */
+    @Override
+    public void close() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.warn("会话索引快照失败", e);
+        }
+    }
+
+    /**
+     * 一个会话的索引
+     * 只有日志写线程修改,查询可以在任意线程进行: 追加时先写数据再发布size;
+     * ID乱序时只把插入点之后的尾部在原数组上后移一格(乱序来自同一毫秒内不同线程生成的ID,插入点离末尾很近),
+     * 移动前后各把version加一,查询在读数据前后比较version,移动期间读到的结果丢弃重读;
+     * 扩容才复制出新数组,先发布data再发布size,查询先读size再读data
+     */
+    private static final class Conversation {
+
+        /**
+         * data[2i]是消息ID,data[2i+1]是日志位置
+         */
+        private volatile long[] data;
+        private volatile int size;
+        /**
+         * 原地移动的次数*2,奇数表示写线程正在移动
+         */
+        private volatile int version;
+
+        private Conversation() {
+            this(8);
+        }
+
+        private Conversation(int capacity) {
+            data = new long[Math.max(8, capacity) << 1];
+        }
+
+        /**
+         * 追加到末尾,调用方保证ID不小于已有的最大ID(加载快照时记录已经按ID排序,日志位置不一定递增)
+         */
+        private void append(long id, long position) {
+            int n = size;
+            long[] arr = data;
+            if ((n << 1) == arr.length) {
+                arr = Arrays.copyOf(arr, arr.length << 1);
+                data = arr;
+            }
+            arr[n << 1] = id;
+            arr[(n << 1) + 1] = position;
+            size = n + 1;
+        }
+
+        private void add(long id, long position) {
+            int n = size;
+            long[] arr = data;
+            if (n == 0 || id >= arr[(n - 1) << 1]) {
+                append(id, position);
+                return;
+            }
+            // ID乱序(多个线程并发生成ID),插入到有序位置
+            int at = search(arr, n, id);
+            if ((n << 1) == arr.length) {
+                // 需要扩容: 复制时顺便插入,新数组发布之前查询看不到
+                long[] copy = new long[arr.length << 1];
+                System.arraycopy(arr, 0, copy, 0, at << 1);
+                copy[at << 1] = id;
+                copy[(at << 1) + 1] = position;
+                System.arraycopy(arr, at << 1, copy, (at + 1) << 1, (n - at) << 1);
+                data = copy;
+                size = n + 1;
+                return;
+            }
+            version++;
+            // 后面的移动不能重排到version变成奇数之前
+            VarHandle.storeStoreFence();
+            System.arraycopy(arr, at << 1, arr, (at + 1) << 1, (n - at) << 1);
+            arr[at << 1] = id;
+            arr[(at << 1) + 1] = position;
+            size = n + 1;
+            version++;
+        }
+
+        private long[] page(long beforeId, int limit) {
+            while (true) {
+                int v = version;
+                if ((v & 1) == 0) {
+                    int n = size;
+                    long[] arr = data;
+                    int end = search(arr, n, beforeId);
+                    int start = Math.max(0, end - limit);
+                    long[] positions = new long[end - start];
+                    for (int i = start; i < end; i++) {
+                        positions[i - start] = arr[(i << 1) + 1];
+                    }
+                    // 数据读完之后再确认期间没有移动
+                    VarHandle.loadLoadFence();
+                    if (v == version) {
+                        return positions;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        /**
+         * 一致的副本(ID与位置交替,长度为size*2),写快照用
+         */
+        private long[] copy() {
+            while (true) {
+                int v = version;
+                if ((v & 1) == 0) {
+                    int n = size;
+                    long[] copy = Arrays.copyOf(data, n << 1);
+                    VarHandle.loadLoadFence();
+                    if (v == version) {
+                        return copy;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        /**
+         * @return 第一个ID大于等于id的下标
+         */
+        private static int search(long[] arr, int n, long id) {
+            int low = 0, high = n;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (arr[mid << 1] < id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.yen.server.store;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+
+/**
+ * 会话标识: 单聊是有序的(较小用户ID,较大用户ID),A发给B和B发给A属于同一个会话;群聊是群聊ID
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:20
+ */
+public final class ConversationKey {
+
+    static final byte PAIR = 0;
+    static final byte ROOM = 1;
+
+    final byte kind;
+    final long a;
+    final long b;
+
+    ConversationKey(byte kind, long a, long b) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static ConversationKey pair(long userA, long userB) {
+        return new ConversationKey(PAIR, Math.min(userA, userB), Math.max(userA, userB));
+    }
+
+    public static ConversationKey room(long roomId) {
+        return new ConversationKey(ROOM, roomId, 0);
+    }
+
+    public static ConversationKey of(ChatMessage msg) {
+        return msg.getRoomId() != 0 ? room(msg.getRoomId()) : pair(msg.getFromUserId(), msg.getToUserId());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConversationKey)) {
+            return false;
+        }
+        ConversationKey that = (ConversationKey) o;
+        return kind == that.kind && a == that.a && b == that.b;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = a * 0x9E3779B97F4A7C15L + b;
+        return (int) (h ^ (h >>> 32)) * 31 + kind;
+    }
+
+    @Override
+    public String toString() {
+        return kind == ROOM ? "room:" + a : "pair:" + a + "-" + b;
+    }
+}
@@ -0,0 +1,52 @@
+package com.yen.server.store;
+
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 历史消息查询: 先在会话索引里二分定位一页的日志位置,再直接从内存映射的日志段读取这些消息
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:20
+ */
+public class HistoryService {
+
+    /**
+     * 一页最多返回的消息数
+     */
+    public static final int PAGE_SIZE = 50;
+
+    private final MessageJournal journal;
+    private final ConversationIndex index;
+
+    public HistoryService(MessageJournal journal, ConversationIndex index) {
+        this.journal = journal;
+        this.index = index;
+    }
+
+    /**
+     * 查询一页历史消息
+     *
+     * @param key      会话
+     * @param beforeId 只返回ID小于它的消息,0表示最新一页
+     * @return 按消息ID从旧到新排列,已被保留策略删除的消息会被跳过
+     */
+    public List<ChatMessage> page(ConversationKey key, long beforeId) throws IOException {
+        long[] positions = index.page(key, beforeId, PAGE_SIZE);
+        List<ChatMessage> messages = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            ChatMessage msg = journal.read(position);
+            if (msg != null) {
+                messages.add(msg);
+            }
+        }
+        return messages;
+    }
+
+    public ConversationIndex getIndex() {
+        return index;
+    }
+}
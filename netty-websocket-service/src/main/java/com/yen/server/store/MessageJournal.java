@@ -0,0 +1,460 @@
+package com.yen.server.store;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 嵌入式消息日志(只追加)
+ * 1.append()在调用线程上只把消息放入无锁队列(消息没有ID时分配单调递增的ID),不做任何IO,可以直接在EventLoop上调用
+ * 2.独立的写线程从队列中取出消息,直接序列化到内存映射的日志段中;
+ *   按syncIntervalMillis做组提交: 一次force()落盘一批消息,落盘后再通知{@link AppendListener}
+ * 3.日志段写满后滚动到新文件,滚动时按保留策略(总大小/时间)删除最旧的段
+ * 4.启动时扫描最后一个段,恢复写入位置和最大消息ID,截掉写了一半的记录
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:17
+ */
+@Slf4j
+public class MessageJournal implements Closeable {
+
+    /**
+     * 日志目录
+     */
+    private final Path dir;
+    /**
+     * 单个日志段的大小(字节)
+     */
+    private int segmentSize = 64 * 1024 * 1024;
+    /**
+     * 组提交间隔(毫秒),0表示每批写完立即落盘
+     */
+    private long syncIntervalMillis = 10;
+    /**
+     * 保留的日志总大小(字节)与时长(毫秒),超过后从最旧的段开始删除
+     */
+    private long retentionBytes = Long.MAX_VALUE;
+    private long retentionMillis = TimeUnit.DAYS.toMillis(7);
+
+    private final AtomicLong lastId = new AtomicLong();
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final List<AppendListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 已落盘的位置,小于它的记录可以安全读取
+     */
+    private volatile long committedPosition;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private Thread writer;
+
+    /**
+     * 写线程私有: 当前写入的段、已写入但还没有落盘的消息、上次落盘时间
+     */
+    private Segment active;
+    private final List<Entry> unsynced = new ArrayList<>();
+    private long lastSyncNanos;
+
+    public MessageJournal(Path dir) {
+        this.dir = dir;
+    }
+
+    public MessageJournal segmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public MessageJournal syncIntervalMillis(long syncIntervalMillis) {
+        this.syncIntervalMillis = syncIntervalMillis;
+        return this;
+    }
+
+    /**
+     * 配置保留策略
+     *
+     * @param retentionBytes  保留的日志总大小(字节)
+     * @param retentionMillis 保留时长(毫秒)
+     * @return this
+     */
+    public MessageJournal retention(long retentionBytes, long retentionMillis) {
+        this.retentionBytes = retentionBytes;
+        this.retentionMillis = retentionMillis;
+        return this;
+    }
+
+    public void addListener(AppendListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 恢复已有日志并启动写线程
+     */
+    public synchronized MessageJournal start() throws IOException {
+        if (running) {
+            return this;
+        }
+        Files.createDirectories(dir);
+        recover();
+        running = true;
+        lastSyncNanos = System.nanoTime();
+        writer = new Thread(this::writeLoop, "message-journal");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("消息日志已启动: 目录{}, 段数{}, 最大消息ID{}, 写入位置{}", dir, segments.size(), lastId.get(), committedPosition);
+        return this;
+    }
+
+    /**
+     * 追加消息,不阻塞
+     *
+     * @param msg 消息,已带有ID(由{@link com.yen.server.id.MessageIdGenerator}分配)时使用该ID
+     * @return 消息ID
+     */
+    public long append(ChatMessage msg) {
+        if (!running) {
+            throw new IllegalStateException("消息日志未启动");
+        }
+        long id = msg.getId();
+        if (id == 0) {
+            id = lastId.incrementAndGet();
+        } else {
+            long last;
+            while (id > (last = lastId.get()) && !lastId.compareAndSet(last, id)) {
+                // 记录最大ID
+            }
+        }
+        queue.offer(new Entry(id, msg));
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+        return id;
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    public long lastId() {
+        return lastId.get();
+    }
+
+    public long committedPosition() {
+        return committedPosition;
+    }
+
+    /**
+     * 最旧的一条记录的位置(更早的已经被保留策略删除)
+     */
+    public long firstPosition() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first == null ? 0 : first.getKey();
+    }
+
+    /**
+     * 读取一条已落盘的消息,可以在任意线程调用
+     *
+     * @param position {@link AppendListener}给出的位置
+     * @return 消息,位置无效或已被删除时返回null
+     */
+    public ChatMessage read(long position) throws IOException {
+        if (position >= committedPosition) {
+            return null;
+        }
+        Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+        if (entry == null) {
+            return null;
+        }
+        Segment segment = entry.getValue();
+        int offset = (int) (position - segment.base);
+        ByteBuffer buf = segment.buffer.duplicate();
+        if (offset < 0 || offset + Segment.HEADER > buf.capacity()) {
+            return null;
+        }
+        int len = buf.getInt(offset);
+        if (len < Long.BYTES || offset + Integer.BYTES + len > buf.capacity()) {
+            return null;
+        }
+        long id = buf.getLong(offset + Integer.BYTES);
+        buf.position(offset + Segment.HEADER).limit(offset + Integer.BYTES + len);
+        ChatMessage msg = ChatMessage.parseFrom(CodedInputStream.newInstance(buf));
+        return msg.getId() == id ? msg : msg.toBuilder().setId(id).build();
+    }
+
+    /**
+     * 按顺序重放从fromPosition(记录的起始位置)到已落盘位置之间的记录,用于启动时重建索引
+     * 早于{@link #firstPosition()}的部分已被删除,从最旧的段开始
+     *
+     * @param fromPosition 起始位置
+     * @param listener     每条记录回调一次
+     * @return 重放的记录数
+     */
+    public long replay(long fromPosition, AppendListener listener) throws IOException {
+        long end = committedPosition;
+        Long startBase = segments.floorKey(fromPosition);
+        Map<Long, Segment> tail = startBase == null ? segments : segments.tailMap(startBase);
+        long count = 0;
+        for (Segment segment : tail.values()) {
+            if (segment.base >= end) {
+                break;
+            }
+            ByteBuffer buf = segment.buffer.duplicate();
+            int capacity = buf.capacity();
+            int offset = (int) Math.max(0, fromPosition - segment.base);
+            while (segment.base + offset < end && offset + Segment.HEADER <= capacity) {
+                int len = buf.getInt(offset);
+                if (len < Long.BYTES || offset + Integer.BYTES + len > capacity) {
+                    break;
+                }
+                long id = buf.getLong(offset + Integer.BYTES);
+                buf.limit(offset + Integer.BYTES + len).position(offset + Segment.HEADER);
+                ChatMessage msg = ChatMessage.parseFrom(CodedInputStream.newInstance(buf));
+                buf.clear();
+                listener.onAppended(id, msg, segment.base + offset);
+                count++;
+                offset += Integer.BYTES + len;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 停止写线程,写完并落盘队列中剩余的消息
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("消息日志已关闭: 最大消息ID{}, 写入位置{}", lastId.get(), committedPosition);
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Entry entry = queue.poll();
+            if (entry != null) {
+                try {
+                    write(entry);
+                } catch (Exception e) {
+                    log.error("消息{}写入日志失败", entry.id, e);
+                }
+                if (syncIntervalMillis > 0 && System.nanoTime() - lastSyncNanos >= TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis)) {
+                    sync();
+                }
+                continue;
+            }
+            // 队列已空: 间隔为0时立即落盘,否则等到间隔结束
+            long waitNanos = 0;
+            if (!unsynced.isEmpty()) {
+                waitNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis) - (System.nanoTime() - lastSyncNanos);
+                if (waitNanos <= 0) {
+                    sync();
+                    continue;
+                }
+            }
+            if (!running) {
+                if (queue.isEmpty()) {
+                    sync();
+                    return;
+                }
+                continue;
+            }
+            sleeping = true;
+            if (queue.isEmpty()) {
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(this, waitNanos);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            sleeping = false;
+        }
+    }
+
+    /**
+     * 把一条消息序列化到当前段,放不下时滚动到新段
+     */
+    private void write(Entry entry) throws IOException {
+        int size = entry.msg.getSerializedSize();
+        int recordSize = Segment.HEADER + size;
+        if (recordSize > segmentSize) {
+            throw new IOException("消息过大: " + size + "字节");
+        }
+        if (active.writeOffset + recordSize > active.capacity()) {
+            roll();
+        }
+        ByteBuffer buf = active.buffer.duplicate();
+        int offset = active.writeOffset;
+        buf.putLong(offset + Integer.BYTES, entry.id);
+        buf.position(offset + Segment.HEADER).limit(offset + recordSize);
+        CodedOutputStream output = CodedOutputStream.newInstance(buf);
+        entry.msg.writeTo(output);
+        output.flush();
+        // 长度最后写: 长度不为0的记录内容一定已经完整写入
+        buf.putInt(offset, Long.BYTES + size);
+        active.writeOffset = offset + recordSize;
+        entry.position = active.base + offset;
+        unsynced.add(entry);
+    }
+
+    /**
+     * 组提交: 落盘并通知这一批消息
+     */
+    private void sync() {
+        lastSyncNanos = System.nanoTime();
+        if (unsynced.isEmpty()) {
+            return;
+        }
+        active.buffer.force();
+        committedPosition = active.endPosition();
+        for (Entry entry : unsynced) {
+            for (AppendListener listener : listeners) {
+                try {
+                    listener.onAppended(entry.id, entry.msg, entry.position);
+                } catch (Exception e) {
+                    log.error("消息日志回调异常", e);
+                }
+            }
+        }
+        unsynced.clear();
+    }
+
+    /**
+     * 当前段已满: 落盘,创建新段,按保留策略删除旧段
+     */
+    private void roll() throws IOException {
+        sync();
+        Segment next = Segment.open(Segment.pathOf(dir, active.endPosition()), segmentSize);
+        segments.put(next.base, next);
+        active = next;
+        retain();
+    }
+
+    private void retain() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.capacity();
+        }
+        long expireBefore = System.currentTimeMillis() - retentionMillis;
+        while (segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            boolean expired;
+            try {
+                expired = Files.getLastModifiedTime(oldest.path).toMillis() < expireBefore;
+            } catch (IOException e) {
+                expired = false;
+            }
+            if (total <= retentionBytes && !expired) {
+                break;
+            }
+            segments.remove(oldest.base);
+            total -= oldest.capacity();
+            try {
+                oldest.delete();
+                log.info("按保留策略删除日志段{}", oldest.path.getFileName());
+            } catch (IOException e) {
+                log.warn("删除日志段{}失败", oldest.path, e);
+            }
+        }
+    }
+
+    /**
+     * 打开已有的日志段,从最后一个段恢复写入位置和最大消息ID
+     */
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files.filter(p -> p.getFileName().toString().endsWith(Segment.SUFFIX))::iterator) {
+                Segment segment = Segment.open(path, segmentSize);
+                segments.put(segment.base, segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            Segment first = Segment.open(Segment.pathOf(dir, 0), segmentSize);
+            segments.put(first.base, first);
+        }
+        // 除最后一个段外都是写满滚动过的,只需要扫描最后一个段
+        for (Segment segment : segments.descendingMap().values()) {
+            long id = scan(segment);
+            if (active == null) {
+                active = segment;
+            }
+            if (id > 0) {
+                lastId.set(id);
+                break;
+            }
+        }
+        committedPosition = active.endPosition();
+    }
+
+    /**
+     * 扫描段内的记录,设置写入位置,截掉不完整的记录
+     *
+     * @return 段内最大的消息ID(多个线程分配的ID写入顺序不一定递增),没有记录时返回0
+     */
+    private static long scan(Segment segment) {
+        ByteBuffer buf = segment.buffer.duplicate();
+        int capacity = buf.capacity();
+        int offset = 0;
+        long id = 0;
+        while (offset + Segment.HEADER <= capacity) {
+            int len = buf.getInt(offset);
+            if (len < Long.BYTES || offset + Integer.BYTES + len > capacity) {
+                break;
+            }
+            buf.limit(offset + Integer.BYTES + len).position(offset + Segment.HEADER);
+            try {
+                ChatMessage.parseFrom(CodedInputStream.newInstance(buf));
+            } catch (IOException e) {
+                break;
+            }
+            buf.clear();
+            id = Math.max(id, buf.getLong(offset + Integer.BYTES));
+            offset += Integer.BYTES + len;
+        }
+        buf.clear();
+        if (offset + Integer.BYTES <= capacity && buf.getInt(offset) != 0) {
+            log.warn("日志段{}在{}处有不完整的记录,已截断", segment.path.getFileName(), offset);
+            for (int i = offset; i < capacity; i++) {
+                buf.put(i, (byte) 0);
+            }
+            segment.buffer.force();
+        }
+        segment.writeOffset = offset;
+        return id;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final ChatMessage msg;
+        private long position;
+
+        private Entry(long id, ChatMessage msg) {
+            this.id = id;
+            this.msg = msg;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.yen.server.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 日志段: 一个预分配大小的文件,整体映射到内存
+ * 文件名是段内第一条记录的全局位置,记录格式为[int len][long id][消息字节],len=8+消息字节数,
+ * 预分配部分全是0,len为0表示段内记录到此结束
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:17
+ */
+final class Segment {
+
+    static final String SUFFIX = ".log";
+    /**
+     * len + id
+     */
+    static final int HEADER = Integer.BYTES + Long.BYTES;
+
+    final long base;
+    final Path path;
+    final MappedByteBuffer buffer;
+    /**
+     * 写入位置(段内偏移),只由写线程修改
+     */
+    int writeOffset;
+
+    private Segment(long base, Path path, MappedByteBuffer buffer) {
+        this.base = base;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    static Path pathOf(Path dir, long base) {
+        return dir.resolve(String.format("%020d", base) + SUFFIX);
+    }
+
+    static long baseOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * 打开(不存在时创建)段文件并映射
+     *
+     * @param capacity 新建时的预分配大小,已存在的文件沿用原大小
+     */
+    static Segment open(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                size = capacity;
+            }
+            // 映射建立后与FileChannel的生命周期无关
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(baseOf(path), path, buffer);
+        }
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    long endPosition() {
+        return base + writeOffset;
+    }
+
+    void delete() throws IOException {
+        // 不主动解除映射: 其他线程可能还在读,交给GC回收
+        Files.deleteIfExists(path);
+    }
+}
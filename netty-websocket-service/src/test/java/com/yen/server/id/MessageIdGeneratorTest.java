@@ -0,0 +1,104 @@
+package com.yen.server.id;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 每个EventLoop一个分配器的消息ID生成
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:01
+ */
+class MessageIdGeneratorTest {
+
+    private static DefaultEventLoopGroup group;
+
+    @BeforeAll
+    static void bind() {
+        group = new DefaultEventLoopGroup(2);
+        MessageIdGenerator.bind(group);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    void idsOnOneLoopAreStrictlyIncreasing() {
+        EventLoop loop = group.next();
+        Boolean increasing = loop.submit(() -> {
+            long last = MessageIdGenerator.next();
+            // 远超每毫秒的序号数,会借用后面的毫秒
+            for (int i = 0; i < 100_000; i++) {
+                long id = MessageIdGenerator.next();
+                if (id <= last) {
+                    return false;
+                }
+                last = id;
+            }
+            return true;
+        }).syncUninterruptibly().getNow();
+        assertTrue(increasing);
+    }
+
+    @Test
+    void idsFromDifferentLoopsDoNotCollide() {
+        long a = group.next().submit(MessageIdGenerator::next).syncUninterruptibly().getNow();
+        long b = group.next().submit(MessageIdGenerator::next).syncUninterruptibly().getNow();
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void observedIdOrdersLaterIds() {
+        EventLoop sender = group.next();
+        EventLoop receiver = group.next();
+        long sent = sender.submit(() -> {
+            long id = 0;
+            // 把发送方的逻辑时钟推到接收方前面
+            for (int i = 0; i < 50_000; i++) {
+                id = MessageIdGenerator.next();
+            }
+            return id;
+        }).syncUninterruptibly().getNow();
+        long reply = receiver.submit(() -> {
+            MessageIdGenerator.observe(sent);
+            return MessageIdGenerator.next();
+        }).syncUninterruptibly().getNow();
+        assertTrue(reply > sent);
+    }
+
+    @Test
+    void timestampIsRecoverable() {
+        long before = System.currentTimeMillis();
+        long id = group.next().submit(MessageIdGenerator::next).syncUninterruptibly().getNow();
+        long timestamp = MessageIdGenerator.timestampOf(id);
+        assertTrue(timestamp >= before - 1 && timestamp < before + TimeUnit.SECONDS.toMillis(5), "timestamp " + timestamp);
+    }
+
+    @Test
+    void unboundThreadCannotAllocate() {
+        assertThrows(IllegalStateException.class, MessageIdGenerator::next);
+        // 没有分配器的线程看到消息ID时直接忽略
+        MessageIdGenerator.observe(Long.MAX_VALUE >>> 1);
+    }
+
+    @Test
+    void rebindingTheSameGroupIsANoOp() {
+        EventLoop loop = group.next();
+        long first = loop.submit(MessageIdGenerator::next).syncUninterruptibly().getNow();
+        MessageIdGenerator.bind(group);
+        long second = loop.submit(MessageIdGenerator::next).syncUninterruptibly().getNow();
+        assertEquals(first & 0xFFF, second & 0xFFF, "重复绑定后分配器编号(低12位)应保持不变");
+    }
+}
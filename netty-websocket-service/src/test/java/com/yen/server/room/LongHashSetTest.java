@@ -0,0 +1,90 @@
+package com.yen.server.room;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 开放寻址的long集合
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:01
+ */
+class LongHashSetTest {
+
+    @Test
+    void zeroAndNegativeValuesAreElements() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(0));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        LongHashSet set = new LongHashSet(2);
+        for (long i = 1; i <= 10_000; i++) {
+            assertTrue(set.add(i * 31));
+        }
+        assertEquals(10_000, set.size());
+        for (long i = 1; i <= 10_000; i++) {
+            assertTrue(set.contains(i * 31));
+            assertFalse(set.contains(i * 31 + 1));
+        }
+    }
+
+    @Test
+    void removeKeepsProbeChainsReachable() {
+        // 与HashSet对照随机增删,容量小使探测链很长,覆盖删除后的回填
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(16);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(64);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+            if (i % 1000 == 0) {
+                for (long v = 0; v < 64; v++) {
+                    assertEquals(expected.contains(v), set.contains(v), "value " + v);
+                }
+            }
+        }
+        assertEquals(expected.size(), set.size());
+    }
+
+    @Test
+    void toArrayAndForEachVisitEveryElementOnce() {
+        LongHashSet set = new LongHashSet();
+        long[] values = {0, 7, -3, 1L << 40, 99};
+        for (long value : values) {
+            set.add(value);
+        }
+        long[] array = set.toArray();
+        Arrays.sort(array);
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, array);
+
+        Set<Long> seen = new HashSet<>();
+        set.forEach(value -> assertTrue(seen.add(value)));
+        assertEquals(values.length, seen.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.yen.server.session;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 累计确认: 乱序到达的序号与已连续收到的最大序号
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:01
+ */
+class ChatSessionTest {
+
+    private final ChatSession session = new ChatSession(1, null, true);
+
+    @Test
+    void firstSequenceIsTheStartingPoint() {
+        assertEquals(-1, session.takeAck());
+        session.received(41);
+        assertEquals(41, session.takeAck());
+        assertEquals(-1, session.takeAck());
+    }
+
+    @Test
+    void gapHoldsTheAckUntilFilled() {
+        session.received(1);
+        session.takeAck();
+        session.received(3);
+        session.received(4);
+        assertEquals(-1, session.takeAck());
+        session.received(2);
+        assertEquals(4, session.takeAck());
+    }
+
+    @Test
+    void fullMaskAdvancesSixtyFourSequencesAtOnce() {
+        session.received(0);
+        session.takeAck();
+        for (long seq = 2; seq <= 64; seq++) {
+            session.received(seq);
+        }
+        assertEquals(-1, session.takeAck());
+        // 补上缺口后64位全部连续,一次推进64个序号
+        session.received(1);
+        assertEquals(64, session.takeAck());
+        session.received(65);
+        assertEquals(65, session.takeAck());
+    }
+
+    @Test
+    void sequencesOutsideTheMaskAreIgnored() {
+        session.received(10);
+        session.takeAck();
+        // 已确认过的序号和超出乱序窗口(64)的序号都不影响确认
+        session.received(5);
+        session.received(10 + 1 + 64);
+        assertEquals(-1, session.takeAck());
+        session.received(11);
+        assertEquals(11, session.takeAck());
+    }
+
+    @Test
+    void scheduleAckOnlyOnceUntilTaken() {
+        assertTrue(session.scheduleAck());
+        assertFalse(session.scheduleAck());
+        session.takeAck();
+        assertTrue(session.scheduleAck());
+    }
+}
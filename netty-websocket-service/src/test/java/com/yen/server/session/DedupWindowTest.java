@@ -0,0 +1,76 @@
+package com.yen.server.session;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 客户端序号去重窗口
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:01
+ */
+class DedupWindowTest {
+
+    @Test
+    void retryWhileInFlightIsNotDeliveredAgain() {
+        DedupWindow window = new DedupWindow();
+        assertEquals(DedupWindow.NEW, window.check(1));
+        assertEquals(DedupWindow.IN_FLIGHT, window.check(1));
+        window.record(1, 1001);
+        assertEquals(1001, window.check(1));
+    }
+
+    @Test
+    void failedMessageCanBeRetried() {
+        DedupWindow window = new DedupWindow();
+        assertEquals(DedupWindow.NEW, window.check(5));
+        window.forget(5);
+        assertEquals(DedupWindow.NEW, window.check(5));
+    }
+
+    @Test
+    void outOfOrderSequencesInsideTheWindowAreNew() {
+        DedupWindow window = new DedupWindow();
+        assertEquals(DedupWindow.NEW, window.check(10));
+        assertEquals(DedupWindow.NEW, window.check(8));
+        assertEquals(DedupWindow.NEW, window.check(9));
+        window.record(8, 108);
+        assertEquals(108, window.check(8));
+        assertEquals(DedupWindow.IN_FLIGHT, window.check(9));
+    }
+
+    @Test
+    void sequenceOlderThanTheWindowIsTreatedAsNew() {
+        DedupWindow window = new DedupWindow();
+        window.check(1);
+        window.record(1, 101);
+        window.check(5000);
+        assertEquals(DedupWindow.NEW, window.check(1));
+    }
+
+    @Test
+    void duplicateWhoseIdLeftTheRecentRingHasNoId() {
+        DedupWindow window = new DedupWindow();
+        for (long seq = 1; seq <= 100; seq++) {
+            window.check(seq);
+            window.record(seq, 1000 + seq);
+        }
+        // 最近64个序号还能查到原ID,更早的只知道重复
+        assertEquals(1100, window.check(100));
+        assertEquals(1037, window.check(37));
+        assertEquals(DedupWindow.UNKNOWN_ID, window.check(36));
+        assertEquals(DedupWindow.UNKNOWN_ID, window.check(1));
+    }
+
+    @Test
+    void largeJumpClearsTheWindow() {
+        DedupWindow window = new DedupWindow();
+        window.check(1);
+        window.record(1, 101);
+        window.check(3000);
+        window.record(3000, 103000);
+        assertEquals(DedupWindow.NEW, window.check(2999));
+        assertEquals(103000, window.check(3000));
+    }
+}
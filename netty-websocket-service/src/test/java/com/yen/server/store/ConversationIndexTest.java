@@ -0,0 +1,151 @@
+package com.yen.server.store;
+
+import com.yen.model.constant.MessageType;
+import com.yen.model.proto.ChatMessageProto.ChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 会话索引: ID乱序写入、快照重新加载、写快照期间继续追加
+ *
+ * @author Yhx
+ * @date 2026/10/17 22:01
+ */
+class ConversationIndexTest {
+
+    private static final ConversationKey PAIR = ConversationKey.pair(1, 2);
+
+    @TempDir
+    Path dir;
+
+    private final List<MessageJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(MessageJournal::close);
+    }
+
+    @Test
+    void outOfOrderIdsArePagedInIdOrder() throws Exception {
+        MessageJournal journal = journal();
+        ConversationIndex index = new ConversationIndex(dir.resolve("conversation.idx")).open(journal);
+        for (long id : new long[]{10, 30, 20, 40, 25}) {
+            journal.append(message(id, 0));
+        }
+        await(() -> index.size(PAIR) == 5);
+
+        assertEquals(List.of(10L, 20L, 25L, 30L, 40L), ids(journal, index.page(PAIR, 0, 10)));
+        assertEquals(List.of(20L, 25L), ids(journal, index.page(PAIR, 30, 2)));
+        assertEquals(List.of(), ids(journal, index.page(PAIR, 10, 10)));
+    }
+
+    @Test
+    void reloadKeepsOutOfOrderEntriesAndReplaysTheRest() throws Exception {
+        Path snapshot = dir.resolve("conversation.idx");
+        MessageJournal journal = journal();
+        ConversationIndex index = new ConversationIndex(snapshot).open(journal);
+        for (long id : new long[]{100, 300, 200}) {
+            journal.append(message(id, 0));
+        }
+        await(() -> index.size(PAIR) == 3);
+        index.snapshot();
+        // 快照之后追加的记录只在日志里,重启时重放
+        journal.append(message(150, 0));
+        journal.append(message(400, 0));
+        await(() -> index.size(PAIR) == 5);
+        journal.close();
+
+        MessageJournal reopened = journal();
+        ConversationIndex reloaded = new ConversationIndex(snapshot).open(reopened);
+        assertEquals(5, reloaded.size(PAIR));
+        assertEquals(List.of(100L, 150L, 200L, 300L, 400L), ids(reopened, reloaded.page(PAIR, 0, 10)));
+    }
+
+    @Test
+    void snapshotDuringAppendHasNoDuplicatesAfterReload() throws Exception {
+        Path snapshot = dir.resolve("conversation.idx");
+        MessageJournal journal = journal();
+        ConversationIndex index = new ConversationIndex(snapshot).open(journal);
+        int rooms = 8;
+        int messages = 20_000;
+        for (int i = 0; i < messages; i++) {
+            // 同一群聊里每两条交换一次顺序,制造乱序写入
+            journal.append(message(1000 + (i ^ 1), 1 + (i / 2) % rooms));
+        }
+        // 日志写线程追加索引的同时反复写快照
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int snapshots = 0;
+        while (total(index, rooms) < messages) {
+            assertTrue(System.nanoTime() < deadline, "等待日志写入超时");
+            index.snapshot();
+            snapshots++;
+        }
+        assertTrue(snapshots > 0);
+        // 最后一次快照在追加过程中写出,剩余部分留给重启时重放
+        journal.close();
+
+        MessageJournal reopened = journal();
+        ConversationIndex reloaded = new ConversationIndex(snapshot).open(reopened);
+        assertEquals(messages, total(reloaded, rooms));
+        for (int room = 1; room <= rooms; room++) {
+            List<Long> ids = ids(reopened, reloaded.page(ConversationKey.room(room), 0, Integer.MAX_VALUE));
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i - 1) < ids.get(i), "群聊" + room + "中的ID没有严格递增: " + ids.get(i - 1) + ", " + ids.get(i));
+            }
+        }
+    }
+
+    private MessageJournal journal() throws IOException {
+        MessageJournal journal = new MessageJournal(dir.resolve("journal")).start();
+        journals.add(journal);
+        return journal;
+    }
+
+    private static ChatMessage message(long id, long roomId) {
+        return ChatMessage.newBuilder()
+                .setId(id)
+                .setFromUserId(1)
+                .setToUserId(2)
+                .setRoomId(roomId)
+                .setType(MessageType.TEXT)
+                .build();
+    }
+
+    private static List<Long> ids(MessageJournal journal, long[] positions) throws IOException {
+        List<Long> ids = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            ids.add(journal.read(position).getId());
+        }
+        return ids;
+    }
+
+    private static int total(ConversationIndex index, int rooms) {
+        int total = 0;
+        for (int room = 1; room <= rooms; room++) {
+            total += index.size(ConversationKey.room(room));
+        }
+        return total;
+    }
+
+    /**
+     * 等待日志写线程把记录追加到索引
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待日志写入超时");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.yen.server;
 
 import com.yen.server.init.ServerInitializer;
+import com.yen.server.transport.TransportFactory;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.EventLoopGroup;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +23,11 @@ public class GroupChatServer {
      */
     private int port;
 
+    /**
+     * 网络传输层(Linux下优先epoll)
+     */
+    private final TransportFactory transport = TransportFactory.create();
+
     /**
      * 构造器
      *
@@ -46,17 +51,16 @@ public class GroupChatServer {
      */
     public void run(){
         // 1. 创建BossGroup线程组:处理连接请求,真正的与客户端进行业务处理,然后交给客户端进行处理
-        NioEventLoopGroup boss = new NioEventLoopGroup();
+        EventLoopGroup boss = transport.newEventLoopGroup(1);
         // 2. 创建WorkerGroup。这两个线程组都是无限循环
         // 默认子线程=核数*2
-        NioEventLoopGroup worker = new NioEventLoopGroup();
+        EventLoopGroup worker = transport.newEventLoopGroup(0);
 
         try {
             // 3. 创建服务端的启动对象，配置参数
             ServerBootstrap bootstrap = new ServerBootstrap();
             // 4.链式编程进行设置服务器参数
-            bootstrap.group(boss, worker) // 设置两个线程组
-                    .channel(NioServerSocketChannel.class) // 使用NioSocketChannel 作为服务器的通道实现
+            transport.configure(bootstrap.group(boss, worker)) // 设置两个线程组以及传输层对应的服务器通道实现
                     .option(ChannelOption.SO_BACKLOG, 128) // 设置线程队列得到连接个数
                     .childOption(ChannelOption.SO_KEEPALIVE, true) // 设置保持活动连接状态
                     // .handler(new LoggingHandler(LogLevel.INFO))// （不建议使用，用项目设置好的即可，会导出日志文件）可以设置netty自带的日志处理器,生产环境建议使用INFO等级。
@@ -68,7 +72,7 @@ public class GroupChatServer {
                 @Override
                 public void operationComplete(ChannelFuture channelFuture) throws Exception {
                     if (channelFuture.isSuccess()) {
-                        log.info("服务端成功监听端口{}",port);
+                        log.info("服务端成功监听端口{},传输层:{}",port,transport.type());
                     }
                 }
             });
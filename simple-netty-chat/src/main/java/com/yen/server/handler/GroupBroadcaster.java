@@ -0,0 +1,142 @@
+package com.yen.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.group.ChannelGroup;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 群发工具
+ * 消息只做一次UTF-8编码,写入池化的ByteBuf,每个接收者拿到的都是它的retainedDuplicate()(共享同一块内存)
+ * 接收者按所属EventLoop分组,每个EventLoop只提交一个任务,在任务里依次写入并flush
+ * (如果直接用ChannelGroup.writeAndFlush(String),StringEncoder会为每个成员各编码一次)
+ * 一个EventLoop上的接收者较多时分片写入,每片写完flush后把剩余部分重新提交,让出EventLoop;
+ * 通知类消息可以指定分片间隔,平滑推送
+ *
+ * @author Yhx
+ * @date 2026/10/17 19:01
+ */
+public final class GroupBroadcaster {
+
+    /**
+     * 每片最多写多少个接收者
+     */
+    private static final int SLICE_SIZE = 256;
+
+    private GroupBroadcaster() {
+    }
+
+    /**
+     * 群发消息
+     *
+     * @param group   接收者
+     * @param exclude 不需要接收的Channel(一般是发送者自己),可以为null
+     * @param text    消息内容
+     */
+    public static void broadcast(ChannelGroup group, Channel exclude, String text) {
+        broadcast(group, exclude, text, 0);
+    }
+
+    /**
+     * 群发消息,分片之间间隔pacingMillis毫秒
+     *
+     * @param group        接收者
+     * @param exclude      不需要接收的Channel(一般是发送者自己),可以为null
+     * @param text         消息内容
+     * @param pacingMillis 分片间隔,0表示立即继续
+     */
+    public static void broadcast(ChannelGroup group, Channel exclude, String text, long pacingMillis) {
+        if (group.isEmpty()) {
+            return;
+        }
+        ByteBufAllocator alloc = exclude != null ? exclude.alloc() : ByteBufAllocator.DEFAULT;
+        ByteBuf payload = ByteBufUtil.writeUtf8(alloc, text);
+        try {
+            // 按EventLoop分组
+            Map<EventLoop, List<Channel>> byLoop = new IdentityHashMap<>();
+            for (Channel ch : group) {
+                if (ch != exclude) {
+                    byLoop.computeIfAbsent(ch.eventLoop(), loop -> new ArrayList<>()).add(ch);
+                }
+            }
+            for (Map.Entry<EventLoop, List<Channel>> entry : byLoop.entrySet()) {
+                EventLoop loop = entry.getKey();
+                List<Channel> members = entry.getValue();
+                ByteBuf shared = payload.retainedDuplicate();
+                Runnable task = new Slice(loop, members, shared, pacingMillis);
+                if (loop.inEventLoop()) {
+                    task.run();
+                } else {
+                    try {
+                        loop.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        // EventLoop正在关闭
+                        shared.release();
+                    }
+                }
+            }
+        } finally {
+            payload.release();
+        }
+    }
+
+    /**
+     * 在members所属的EventLoop上执行: 每次给SLICE_SIZE个Channel写入一份共享内存的副本并flush,
+     * 没写完就把自己重新提交到EventLoop,全部写完后释放shared
+     */
+    private static final class Slice implements Runnable {
+        private final EventLoop loop;
+        private final List<Channel> members;
+        private final ByteBuf shared;
+        private final long pacingMillis;
+        private int next;
+
+        private Slice(EventLoop loop, List<Channel> members, ByteBuf shared, long pacingMillis) {
+            this.loop = loop;
+            this.members = members;
+            this.shared = shared;
+            this.pacingMillis = pacingMillis;
+        }
+
+        @Override
+        public void run() {
+            int end = Math.min(next + SLICE_SIZE, members.size());
+            for (int i = next; i < end; i++) {
+                Channel ch = members.get(i);
+                ch.write(shared.retainedDuplicate(), ch.voidPromise());
+            }
+            for (int i = next; i < end; i++) {
+                members.get(i).flush();
+            }
+            next = end;
+            if (next >= members.size()) {
+                shared.release();
+                return;
+            }
+            try {
+                if (pacingMillis > 0) {
+                    // EventLoop关闭时未执行的定时任务会被取消,此时也要释放
+                    loop.schedule(this, pacingMillis, TimeUnit.MILLISECONDS).addListener(f -> {
+                        if (f.isCancelled()) {
+                            shared.release();
+                        }
+                    });
+                } else {
+                    loop.execute(this);
+                }
+            } catch (RejectedExecutionException e) {
+                // EventLoop正在关闭
+                shared.release();
+            }
+        }
+    }
+}
@@ -56,6 +56,11 @@ public class ServerHandler extends SimpleChannelInboundHandler<String> {
      */
     private static ChannelGroup channelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
+    /**
+     * 上下线通知分片推送的间隔(毫秒),在线人数很多时避免通知瞬间挤占EventLoop
+     */
+    private static final long NOTICE_PACING_MILLIS = 5;
+
     /**
      * 1.此方法是第一个被调用的方法,表示连接建立
      * 连接建立后立刻执行
@@ -69,8 +74,8 @@ public class ServerHandler extends SimpleChannelInboundHandler<String> {
         // 将当前channel加入到group集合管理
         Channel channel = ctx.channel();
         // [1.上线提醒功能]:将该用户加入聊天的信息推送给其他在线的用户
-        // 使用自带的方法实现全部推送,原理是循环所有他管理的通道
-        channelGroup.writeAndFlush("[客户端]" + channel.remoteAddress() + "加入聊天");
+        // 消息只编码一次,再推送给所有他管理的通道
+        GroupBroadcaster.broadcast(channelGroup, channel, "[客户端]" + channel.remoteAddress() + "加入聊天", NOTICE_PACING_MILLIS);
         channelGroup.add(channel);
 
         // [用户绑定通道]将当前用户绑定对应的channel,(此处暂未实现)
@@ -112,7 +117,7 @@ public class ServerHandler extends SimpleChannelInboundHandler<String> {
         log.info("有用户已断开handlerRemoved:[{}]",ctx.channel().remoteAddress());
         Channel channel = ctx.channel();
         // [4.全服提醒用户下线功能]
-        channelGroup.writeAndFlush("【全体通知】有用户断线："+channel.remoteAddress());
+        GroupBroadcaster.broadcast(channelGroup, channel, "【全体通知】有用户断线："+channel.remoteAddress(), NOTICE_PACING_MILLIS);
     }
 
 
@@ -132,13 +137,9 @@ public class ServerHandler extends SimpleChannelInboundHandler<String> {
         // 可进行异步推送处理长时间的业务
 
         // [5.群发消息功能]:注意点是需要排除自己
+        // 消息只拼接、编码一次,所有接收者共享同一块内存
         Channel channel = ctx.channel();
-        channelGroup.forEach(ch -> {
-            if (channel != ch){
-                // 只要不是自己就发
-                ch.writeAndFlush("[用户]" + channel.remoteAddress() + "群发了消息:" + msg + "\n");
-            }
-        });
+        GroupBroadcaster.broadcast(channelGroup, channel, "[用户]" + channel.remoteAddress() + "群发了消息:" + msg + "\n");
 
     }
 
@@ -1,11 +1,11 @@
 package com.yen.server.init;
 
 import com.yen.server.handler.ServerHandler;
+import com.yen.server.idle.SharedIdleStateHandler;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.handler.codec.string.StringDecoder;
 import io.netty.handler.codec.string.StringEncoder;
-import io.netty.handler.timeout.IdleStateHandler;
 
 import java.util.concurrent.TimeUnit;
 
@@ -30,12 +30,17 @@ public class ServerInitializer extends ChannelInitializer<Channel> {
      * 多少时间既没有读也没有写数据，就会触发空闲处理器
      */
     private long allIdleTime = 11;
+    /**
+     * 所有连接共享的空闲检测处理器,每个EventLoop一个巡检任务
+     */
+    private final SharedIdleStateHandler idleStateHandler = new SharedIdleStateHandler(readerIdleTime, writeIdleTime, allIdleTime, TimeUnit.SECONDS);
+
     @Override
     protected void initChannel(Channel ch) throws Exception {
         // 可以给管道设置处理器、心跳机制、编解码器等
         ch.pipeline()
                 // 配置空闲处理器,触发后会传递给下一个Handler的userEventTrigger方法处理。可以只使用一个读空闲.
-                .addLast(new IdleStateHandler(readerIdleTime,writeIdleTime,allIdleTime, TimeUnit.SECONDS))
+                .addLast(idleStateHandler)
                 .addLast("decoder",new StringDecoder()) // 加入解码器
                 .addLast("encoder",new StringEncoder()) // 加入编码器
                 .addLast(serverHandler); // 最后增加自定义的处理器